@@ -0,0 +1,24 @@
+#!/usr/bin/env bash
+# Measures the wall-clock time of repeated validate runs, with and without the AppCDS archive.
+
+set -e
+
+BINARY=${1:-build/output/kafka-gitops}
+STATE_FILE=${2:-src/test/resources/plans/multi-file.yaml}
+RUNS=${3:-10}
+
+run() {
+    local start end total=0
+    for _ in $(seq "$RUNS"); do
+        start=$(date +%s%N)
+        KAFKA_GITOPS_JAVA_OPTS="$1" "$BINARY" -f "$STATE_FILE" validate > /dev/null
+        end=$(date +%s%N)
+        total=$((total + (end - start) / 1000000))
+    done
+    echo "$2: $((total / RUNS)) ms average over $RUNS runs"
+}
+
+run "-Xshare:off" "validate (no CDS)"
+if [ -f "${BINARY}.jsa" ]; then
+    run "" "validate (AppCDS)"
+fi
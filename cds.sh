@@ -0,0 +1,20 @@
+#!/usr/bin/env bash
+# Builds an AppCDS archive for the kafka-gitops executable (requires a JDK 11+ runtime).
+# The archive is only used when the executable is run from the same path it was created for.
+
+set -e
+
+BINARY=$(cd "$(dirname "${1:-build/output/kafka-gitops}")" && pwd)/$(basename "${1:-build/output/kafka-gitops}")
+STATE_FILE=${2:-src/test/resources/plans/multi-file.yaml}
+ARCHIVE="${BINARY}.jsa"
+CLASS_LIST="${BINARY}.classlist"
+
+java -Xshare:off -XX:DumpLoadedClassList="$CLASS_LIST" -cp "$BINARY" com.devshawn.kafka.gitops.MainCommand -f "$STATE_FILE" validate > /dev/null
+java -Xshare:off -XX:DumpLoadedClassList="$CLASS_LIST.help" -cp "$BINARY" com.devshawn.kafka.gitops.MainCommand plan --help > /dev/null
+sort -u "$CLASS_LIST" "$CLASS_LIST.help" -o "$CLASS_LIST"
+rm -f "$CLASS_LIST.help"
+
+java -Xshare:dump -XX:SharedClassListFile="$CLASS_LIST" -XX:SharedArchiveFile="$ARCHIVE" -cp "$BINARY"
+rm -f "$CLASS_LIST"
+
+echo "Created AppCDS archive: $ARCHIVE"
@@ -1,8 +1,12 @@
 package com.devshawn.kafka.gitops;
 
+import com.devshawn.kafka.gitops.cli.AccessCommand;
 import com.devshawn.kafka.gitops.cli.AccountCommand;
 import com.devshawn.kafka.gitops.cli.ApplyCommand;
+import com.devshawn.kafka.gitops.cli.ExportCommand;
+import com.devshawn.kafka.gitops.cli.MergeJournalsCommand;
 import com.devshawn.kafka.gitops.cli.PlanCommand;
+import com.devshawn.kafka.gitops.cli.SnapshotCommand;
 import com.devshawn.kafka.gitops.cli.ValidateCommand;
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
@@ -15,9 +19,13 @@ import java.util.concurrent.Callable;
         version = "0.1.0-rba",
         exitCodeOnInvalidInput = 0,
         subcommands = {
+                AccessCommand.class,
                 AccountCommand.class,
                 ApplyCommand.class,
+                ExportCommand.class,
+                MergeJournalsCommand.class,
                 PlanCommand.class,
+                SnapshotCommand.class,
                 ValidateCommand.class
         },
         description = "Manage Kafka resources with a desired state file.")
@@ -27,6 +35,10 @@ public class MainCommand implements Callable<Integer> {
             description = "Specify the desired state file.", defaultValue = "state.yaml")
     private File file;
 
+    @Option(names = {"--clusters"}, paramLabel = "<file>",
+            description = "Specify a file of named cluster configurations to run against concurrently.")
+    private File clustersFile;
+
     @Option(names = {"--no-delete"}, description = "Disable the ability to delete resources.")
     private boolean deleteDisabled = false;
 
@@ -61,6 +73,10 @@ public class MainCommand implements Callable<Integer> {
         return file;
     }
 
+    public File getClustersFile() {
+        return clustersFile;
+    }
+
     public boolean isDeleteDisabled() {
         return deleteDisabled;
     }
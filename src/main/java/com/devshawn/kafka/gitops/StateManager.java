@@ -2,21 +2,50 @@ package com.devshawn.kafka.gitops;
 
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.ConsoleAppender;
+import com.devshawn.kafka.gitops.config.KafkaClustersConfig;
+import com.devshawn.kafka.gitops.config.KafkaGitopsConfig;
 import com.devshawn.kafka.gitops.config.KafkaGitopsConfigLoader;
 import com.devshawn.kafka.gitops.config.ManagerConfig;
 import com.devshawn.kafka.gitops.domain.confluent.ServiceAccount;
 import com.devshawn.kafka.gitops.domain.options.GetAclOptions;
+import com.devshawn.kafka.gitops.domain.plan.ApplyJournal;
+import com.devshawn.kafka.gitops.domain.plan.ClusterResult;
 import com.devshawn.kafka.gitops.domain.plan.DesiredPlan;
+import com.devshawn.kafka.gitops.domain.snapshot.ClusterSnapshot;
 import com.devshawn.kafka.gitops.domain.state.*;
+import com.devshawn.kafka.gitops.domain.state.service.KafkaConnectService;
 import com.devshawn.kafka.gitops.domain.state.service.KafkaStreamsService;
+import com.devshawn.kafka.gitops.enums.AclCompactionMode;
+import com.devshawn.kafka.gitops.enums.AclPruningMode;
+import com.devshawn.kafka.gitops.enums.OutputFormat;
+import com.devshawn.kafka.gitops.enums.PlanAction;
 import com.devshawn.kafka.gitops.exception.*;
 import com.devshawn.kafka.gitops.manager.ApplyManager;
+import com.devshawn.kafka.gitops.manager.ConnectorManager;
+import com.devshawn.kafka.gitops.manager.ExportManager;
+import com.devshawn.kafka.gitops.manager.JournalManager;
+import com.devshawn.kafka.gitops.manager.LeaseManager;
 import com.devshawn.kafka.gitops.manager.PlanManager;
+import com.devshawn.kafka.gitops.manager.SnapshotManager;
 import com.devshawn.kafka.gitops.service.ConfluentCloudService;
+import com.devshawn.kafka.gitops.service.KafkaConnectRestService;
 import com.devshawn.kafka.gitops.service.KafkaService;
+import com.devshawn.kafka.gitops.service.LeaseService;
 import com.devshawn.kafka.gitops.service.ParserService;
 import com.devshawn.kafka.gitops.service.RoleService;
+import com.devshawn.kafka.gitops.util.AclCompactionUtil;
+import com.devshawn.kafka.gitops.util.AclDeduplicationUtil;
+import com.devshawn.kafka.gitops.util.AclIndex;
+import com.devshawn.kafka.gitops.util.AclPruningUtil;
+import com.devshawn.kafka.gitops.util.HelperUtil;
 import com.devshawn.kafka.gitops.util.LogUtil;
+import com.devshawn.kafka.gitops.util.PlanShardUtil;
+import com.devshawn.kafka.gitops.util.PlanStatistics;
+import com.devshawn.kafka.gitops.util.PlanUtil;
+import com.devshawn.kafka.gitops.util.StateDiffUtil;
 import com.devshawn.kafka.gitops.util.StateUtil;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationFeature;
@@ -24,128 +53,492 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.io.Writer;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 public class StateManager {
 
     private static org.slf4j.Logger log = LoggerFactory.getLogger(StateManager.class);
 
+    private static final int DEFAULT_CLUSTER_PARALLELISM = 4;
+
+    private static final Pattern LEGACY_SERVICE_ACCOUNT_PRINCIPAL = Pattern.compile("User:[0-9]+");
+
     private final ManagerConfig managerConfig;
     private final ObjectMapper objectMapper;
     private final ParserService parserService;
-    private final KafkaService kafkaService;
     private final RoleService roleService;
-    private final ConfluentCloudService confluentCloudService;
 
+    private KafkaService kafkaService;
+    private ConfluentCloudService confluentCloudService;
     private PlanManager planManager;
     private ApplyManager applyManager;
+    private ConnectorManager connectorManager;
 
     private boolean describeAclEnabled = false;
 
     public StateManager(ManagerConfig managerConfig, ParserService parserService) {
-        initializeLogger(managerConfig.isVerboseRequested());
+        initializeLogger(managerConfig.isVerboseRequested(), managerConfig.getOutputFormat());
         this.managerConfig = managerConfig;
         this.objectMapper = initializeObjectMapper();
-        this.kafkaService = new KafkaService(KafkaGitopsConfigLoader.load());
         this.parserService = parserService;
         this.roleService = new RoleService();
-        this.confluentCloudService = new ConfluentCloudService(objectMapper);
-        this.planManager = new PlanManager(managerConfig, kafkaService, objectMapper);
-        this.applyManager = new ApplyManager(managerConfig, kafkaService);
     }
 
     public DesiredStateFile getAndValidateStateFile() {
         DesiredStateFile desiredStateFile = parserService.parseStateFile();
         validateTopics(desiredStateFile);
         validateCustomAcls(desiredStateFile);
+        validateQuotas(desiredStateFile);
         this.describeAclEnabled = StateUtil.isDescribeTopicAclEnabled(desiredStateFile);
         return desiredStateFile;
     }
 
     public DesiredPlan plan(boolean excludeTopics) {
+        if (managerConfig.isVerifyEnabled() && managerConfig.getSnapshotFile().isPresent()) {
+            throw new ValidationException("A plan against a snapshot cannot be verified against the brokers.");
+        }
+        if (managerConfig.isTopicDeletionGuardEnabled() && managerConfig.getSnapshotFile().isPresent()) {
+            throw new ValidationException("Topic deletions in a plan against a snapshot cannot be guarded, as topic offsets and consumers are not captured in snapshots.");
+        }
+        if (managerConfig.getSinceRevision().isPresent()) {
+            Optional<ManagerConfig> scopedConfig = scopeToChangesSince(managerConfig.getSinceRevision().get());
+            if (!scopedConfig.isPresent()) {
+                getPlanManager().writePlanToFile(new DesiredPlan.Builder().build());
+                throw new PlanIsUpToDateException();
+            }
+            return new StateManager(scopedConfig.get(), parserService).plan(excludeTopics);
+        }
         boolean ignoreMissingServiceAccounts = !managerConfig.getPlanFile().isPresent();
         DesiredPlan desiredPlan = generatePlan(ignoreMissingServiceAccounts, excludeTopics);
-        planManager.writePlanToFile(desiredPlan);
-        planManager.validatePlanHasChanges(desiredPlan, managerConfig.isDeleteDisabled());
+        if (managerConfig.isVerifyEnabled()) {
+            desiredPlan = getPlanManager().verifyTopicPlans(desiredPlan);
+        }
+        getPlanManager().writePlanToFile(desiredPlan);
+        getPlanManager().validatePlanHasChanges(desiredPlan, managerConfig.isDeleteDisabled());
         return desiredPlan;
     }
 
+    /*
+     * Connectors are deployed to Connect clusters rather than Kafka clusters, so they are only planned here and not
+     * once per cluster when running against multiple clusters.
+     */
     private DesiredPlan generatePlan(boolean ignoreMissingServiceAccounts, boolean excludeTopics) {
         DesiredState desiredState = getDesiredState(ignoreMissingServiceAccounts);
+        DesiredPlan.Builder desiredPlan = buildPlan(desiredState, getPlanManager(), excludeTopics);
+        if (!managerConfig.isScoped() && !managerConfig.getSnapshotFile().isPresent() && !desiredState.getConnectors().isEmpty()) {
+            getConnectorManager().planConnectors(desiredState, desiredPlan);
+        }
+        return desiredPlan.build();
+    }
+
+    private DesiredPlan generatePlan(DesiredState desiredState, PlanManager planManager, boolean excludeTopics) {
+        return buildPlan(desiredState, planManager, excludeTopics).build();
+    }
+
+    private DesiredPlan.Builder buildPlan(DesiredState desiredState, PlanManager planManager, boolean excludeTopics) {
         DesiredPlan.Builder desiredPlan = new DesiredPlan.Builder();
         planManager.planAcls(desiredState, desiredPlan);
-        if (!excludeTopics) {
+        warnAboutLegacyServiceAccountAcls(desiredState, desiredPlan);
+        if (managerConfig.isConsumerGroupCleanupEnabled() && !managerConfig.isScoped()) {
+            planManager.planConsumerGroups(desiredState, desiredPlan);
+        }
+        if (!excludeTopics && (!managerConfig.isScoped() || managerConfig.isTopicScoped())) {
             planManager.planTopics(desiredState, desiredPlan);
+            if (managerConfig.isTopicDeletionGuardEnabled()) {
+                planManager.guardTopicDeletions(desiredPlan);
+            }
+        }
+        if (!managerConfig.isScoped() && !desiredState.getQuotas().isEmpty()) {
+            planManager.planQuotas(desiredState, desiredPlan);
+        }
+        return desiredPlan;
+    }
+
+    public List<ClusterResult> planClusters(KafkaClustersConfig clustersConfig, boolean excludeTopics) {
+        if (managerConfig.getSnapshotFile().isPresent()) {
+            throw new ValidationException("A snapshot file cannot be used when running against multiple clusters.");
+        }
+        if (managerConfig.getSinceRevision().isPresent()) {
+            ManagerConfig scopedConfig = scopeToChangesSince(managerConfig.getSinceRevision().get()).orElseThrow(PlanIsUpToDateException::new);
+            return new StateManager(scopedConfig, parserService).planClusters(clustersConfig, excludeTopics);
+        }
+        boolean ignoreMissingServiceAccounts = !managerConfig.getPlanFile().isPresent();
+        DesiredState desiredState = getDesiredState(ignoreMissingServiceAccounts);
+        return runForClusters(clustersConfig, (clusterConfig, kafkaService) -> {
+            PlanManager planManager = new PlanManager(clusterConfig, kafkaService, objectMapper);
+            DesiredPlan desiredPlan = generatePlan(desiredState, planManager, excludeTopics);
+            if (managerConfig.isVerifyEnabled()) {
+                desiredPlan = planManager.verifyTopicPlans(desiredPlan);
+            }
+            planManager.writePlanToFile(desiredPlan);
+            validatePlanIsVerified(desiredPlan);
+            return desiredPlan;
+        });
+    }
+
+    public List<ClusterResult> applyClusters(KafkaClustersConfig clustersConfig) {
+        validateTopicDeletionWaveSize();
+        if (managerConfig.getShard().isPresent() || managerConfig.getJournalFile().isPresent() || managerConfig.isLeaseEnabled()) {
+            throw new ValidationException("Shards, journals and leases cannot be used when running against multiple clusters.");
+        }
+        DesiredState desiredState = managerConfig.getPlanFile().isPresent() ? null : getDesiredState(false);
+        return runForClusters(clustersConfig, (clusterConfig, kafkaService) -> {
+            PlanManager planManager = new PlanManager(clusterConfig, kafkaService, objectMapper);
+            DesiredPlan desiredPlan = desiredState == null ? planManager.readPlanFromFile() : generatePlan(desiredState, planManager, false);
+            validatePlanIsVerified(desiredPlan);
+            try {
+                planManager.validatePlanHasChanges(desiredPlan, managerConfig.isDeleteDisabled());
+            } catch (PlanIsUpToDateException ex) {
+                return desiredPlan;
+            }
+
+            ApplyManager applyManager = new ApplyManager(clusterConfig, kafkaService);
+            applyManager.checkClusterHealth();
+            applyManager.applyTopics(desiredPlan);
+            applyManager.awaitTopicConvergence(desiredPlan);
+            applyManager.applyAcls(desiredPlan);
+            applyManager.applyQuotas(desiredPlan);
+            applyManager.applyConsumerGroups(desiredPlan);
+            return desiredPlan;
+        });
+    }
+
+    /*
+     * The desired state is generated once by the caller; each cluster then gets its own admin client, managers and
+     * plan file, and clusters are processed concurrently on a bounded pool.
+     */
+    List<ClusterResult> runForClusters(KafkaClustersConfig clustersConfig, BiFunction<ManagerConfig, KafkaService, DesiredPlan> task) {
+        Map<String, KafkaGitopsConfig> clusters = KafkaGitopsConfigLoader.loadClusters(clustersConfig);
+        int parallelism = Math.min(clustersConfig.getParallelism().orElse(DEFAULT_CLUSTER_PARALLELISM), clusters.size());
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<ClusterResult>> futures = new ArrayList<>();
+            clusters.forEach((name, kafkaConfig) -> futures.add(executor.submit(() -> runForCluster(name, kafkaConfig, task))));
+
+            List<ClusterResult> results = new ArrayList<>();
+            for (Future<ClusterResult> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException | ExecutionException ex) {
+            throw new KafkaExecutionException("Error thrown when running against multiple clusters", ex.getMessage());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private ClusterResult runForCluster(String name, KafkaGitopsConfig kafkaConfig, BiFunction<ManagerConfig, KafkaService, DesiredPlan> task) {
+        long start = System.currentTimeMillis();
+        ClusterResult.Builder result = new ClusterResult.Builder().setName(name);
+        try {
+            ManagerConfig clusterConfig = new ManagerConfig.Builder()
+                    .mergeFrom(managerConfig)
+                    .setClusterName(name)
+                    .setNullablePlanFile(managerConfig.getPlanFile().map(it -> PlanUtil.getClusterPlanFile(it, name)).orElse(null))
+                    .setNullableHealthMetricsFile(managerConfig.getHealthMetricsFile().map(it -> PlanUtil.getClusterPlanFile(it, name)).orElse(null))
+                    .build();
+            result.setDesiredPlan(task.apply(clusterConfig, new KafkaService(kafkaConfig)));
+        } catch (KafkaExecutionException ex) {
+            result.setError(String.format("%s: %s", ex.getMessage(), ex.getExceptionMessage()));
+        } catch (RuntimeException ex) {
+            result.setError(ex.getMessage());
+        }
+        return result.setDurationMs(System.currentTimeMillis() - start).build();
+    }
+
+    private void validateTopicDeletionWaveSize() {
+        if (managerConfig.getTopicDeletionWaveSize() < 1) {
+            throw new ValidationException("The topic deletion wave size must be at least 1.");
+        }
+    }
+
+    private void validatePlanIsVerified(DesiredPlan desiredPlan) {
+        int rejected = PlanUtil.getVerificationErrors(desiredPlan).size();
+        if (rejected > 0) {
+            throw new ValidationException(String.format("%s topic changes in the plan were rejected by the brokers during verification.", rejected));
         }
-        return desiredPlan.build();
     }
 
     public DesiredPlan apply() {
-        DesiredPlan desiredPlan = planManager.readPlanFromFile();
+        validateTopicDeletionWaveSize();
+        DesiredPlan desiredPlan = getPlanManager().readPlanFromFile();
         if (desiredPlan == null) {
+            if (managerConfig.getShard().isPresent()) {
+                throw new ValidationException("A plan file is required to apply a shard of a plan.");
+            }
             desiredPlan = generatePlan(false, false);
         }
+        if (managerConfig.getShard().isPresent()) {
+            desiredPlan = PlanShardUtil.getShardPlan(desiredPlan, managerConfig.getShard().get());
+        }
+        validatePlanIsVerified(desiredPlan);
 
-        planManager.validatePlanHasChanges(desiredPlan, managerConfig.isDeleteDisabled());
-
-        applyManager.applyTopics(desiredPlan);
-        applyManager.applyAcls(desiredPlan);
+        try {
+            getPlanManager().validatePlanHasChanges(desiredPlan, managerConfig.isDeleteDisabled());
+
+            applyPlan(desiredPlan);
+        } catch (PlanIsUpToDateException ex) {
+            writeJournal(desiredPlan, Optional.empty());
+            throw ex;
+        } catch (KafkaExecutionException ex) {
+            writeJournal(desiredPlan, Optional.of(String.format("%s: %s", ex.getMessage(), ex.getExceptionMessage())));
+            throw ex;
+        } catch (RuntimeException ex) {
+            writeJournal(desiredPlan, Optional.of(ex.getMessage()));
+            throw ex;
+        }
 
+        writeJournal(desiredPlan, Optional.empty());
         return desiredPlan;
     }
 
+    /*
+     * The cluster health is checked once the lease is held, as the cluster may change while waiting for the lease.
+     */
+    private void applyPlan(DesiredPlan desiredPlan) {
+        LeaseManager leaseManager = managerConfig.isLeaseEnabled() ? createLeaseManager() : null;
+        try {
+            if (leaseManager != null) {
+                leaseManager.acquire(LeaseManager.getLeasedResources(desiredPlan, managerConfig.isDeleteDisabled()));
+                getApplyManager().setLeaseManager(leaseManager);
+            }
+            getApplyManager().checkClusterHealth();
+            getApplyManager().applyTopics(desiredPlan);
+            getApplyManager().awaitTopicConvergence(desiredPlan);
+            getApplyManager().applyAcls(desiredPlan);
+            getApplyManager().applyQuotas(desiredPlan);
+            getApplyManager().applyConsumerGroups(desiredPlan);
+            if (!desiredPlan.getConnectorPlans().isEmpty()) {
+                if (leaseManager != null) {
+                    leaseManager.checkLease();
+                }
+                getConnectorManager().applyConnectors(desiredPlan);
+            }
+        } finally {
+            if (leaseManager != null) {
+                leaseManager.release();
+            }
+        }
+    }
+
+    private LeaseManager createLeaseManager() {
+        LeaseService leaseService = new LeaseService(KafkaGitopsConfigLoader.load(), objectMapper, LeaseService.DEFAULT_LEASE_TOPIC);
+        String owner = System.getenv("KAFKA_GITOPS_LEASE_OWNER");
+        if (owner == null) {
+            owner = String.format("%s@%s", System.getProperty("user.name"), HelperUtil.getHostName());
+        }
+        return new LeaseManager(leaseService, owner, managerConfig.getLeaseWaitSeconds() * 1000);
+    }
+
+    /*
+     * The journal lists the changes applied before any error, so a failed shard can be told apart from one that
+     * finished.
+     */
+    private void writeJournal(DesiredPlan desiredPlan, Optional<String> error) {
+        if (!managerConfig.getJournalFile().isPresent()) {
+            return;
+        }
+        ApplyJournal.Builder journal = new ApplyJournal.Builder()
+                .setShard(managerConfig.getShard())
+                .setPlannedChanges(PlanStatistics.of(desiredPlan, managerConfig.isDeleteDisabled()).getChangeCount())
+                .addAllApplied(getApplyManager().getApplied());
+        if (connectorManager != null) {
+            journal.addAllApplied(connectorManager.getApplied());
+        }
+        error.ifPresent(journal::addErrors);
+        new JournalManager(objectMapper).writeJournalToFile(journal.build(), managerConfig.getJournalFile().get());
+    }
+
+    public ApplyJournal mergeJournals(List<File> journalFiles, Optional<File> outputFile) {
+        JournalManager journalManager = new JournalManager(objectMapper);
+        ApplyJournal journal = journalManager.merge(journalManager.readJournalsFromFiles(journalFiles));
+        outputFile.ifPresent(it -> journalManager.writeJournalToFile(journal, it));
+        return journal;
+    }
+
+    public AclIndex buildAclIndex(boolean includeClusterAcls) {
+        Set<AclDetails> acls = new LinkedHashSet<>(getDesiredState(true).getAcls().values());
+        if (includeClusterAcls) {
+            getKafkaService().getAcls().forEach(acl -> acls.add(AclDetails.fromAclBinding(acl)));
+        }
+        return new AclIndex(acls);
+    }
+
+    public ClusterSnapshot snapshot(File snapshotFile) {
+        SnapshotManager snapshotManager = new SnapshotManager(objectMapper);
+        ClusterSnapshot snapshot = snapshotManager.capture(getKafkaService());
+        snapshotManager.writeSnapshotToFile(snapshot, snapshotFile);
+        return snapshot;
+    }
+
+    public void export(Writer writer) {
+        new ExportManager(getKafkaService()).export(writer);
+    }
+
     public void createServiceAccounts(boolean check) {
         DesiredStateFile desiredStateFile = parserService.parseStateFile();
-        AtomicInteger count = new AtomicInteger();
+        List<String> serviceNames = new ArrayList<>();
+        List<String> userNames = new ArrayList<>();
         if (isConfluentCloudEnabled(desiredStateFile)) {
-            confluentCloudService.loginCCloud();
-            List<ServiceAccount> serviceAccounts = confluentCloudService.getServiceAccounts();
+            getConfluentCloudService().loginCCloud();
+            Set<String> existing = getConfluentCloudService().getServiceAccounts().stream()
+                    .map(ServiceAccount::getName)
+                    .collect(Collectors.toSet());
             desiredStateFile.getServices().forEach((name, service) -> {
                 final String serviceAccountName = service.getServiceAccount().orElse(name);
-                createServiceAccount(serviceAccountName, serviceAccounts, count, false, check);
+                if (!existing.contains(serviceAccountName) && !serviceNames.contains(serviceAccountName)) {
+                    serviceNames.add(serviceAccountName);
+                }
             });
 
             desiredStateFile.getUsers().forEach((name, user) -> {
-                createServiceAccount(name, serviceAccounts, count, true, check);
+                if (!existing.contains(String.format("user-%s", name))) {
+                    userNames.add(name);
+                }
             });
         } else {
             throw new ConfluentCloudException("Confluent Cloud must be enabled in the state file to use this command.");
         }
 
-        if (count.get() == 0) {
+        if (serviceNames.isEmpty() && userNames.isEmpty()) {
             if (check) {
                 LogUtil.printSimpleSuccess("No service accounts would be created as there are no new service accounts.");
             } else {
                 LogUtil.printSimpleSuccess("No service accounts were created as there are no new service accounts.");
             }
+        } else if (check) {
+            serviceNames.forEach(name -> LogUtil.printSimpleSuccess(String.format("Service account: %s would be created.", name)));
+            userNames.forEach(name -> LogUtil.printSimpleSuccess(String.format("Service account: user-%s would be created.", name)));
+        } else {
+            getConfluentCloudService().createServiceAccounts(serviceNames, userNames)
+                    .forEach(it -> LogUtil.printSimpleSuccess(String.format("Successfully created service account: %s", it.getName())));
         }
     }
 
-    private void createServiceAccount(String name, List<ServiceAccount> serviceAccounts, AtomicInteger count, boolean isUser, boolean check) {
-        String fullName = isUser ? String.format("user-%s", name) : name;
-        if (serviceAccounts.stream().noneMatch(it -> it.getName().equals(fullName))) {
-            if (!check) {
-                confluentCloudService.createServiceAccount(name, isUser);
-                LogUtil.printSimpleSuccess(String.format("Successfully created service account: %s", fullName));
-            } else {
-                LogUtil.printSimpleSuccess(String.format("Service account: %s would be created.", fullName));
-            }
-            count.getAndIncrement();
+    /*
+     * The ccloud tool referenced service accounts by numeric ID, while the Confluent Cloud API identifies them as
+     * sa-xxxxx. ACLs created for the numeric IDs no longer match the desired state and are planned for removal, with
+     * the same ACLs planned again for the new IDs.
+     */
+    private void warnAboutLegacyServiceAccountAcls(DesiredState desiredState, DesiredPlan.Builder desiredPlan) {
+        boolean confluentCloudPrincipals = desiredState.getAcls().values().stream()
+                .anyMatch(it -> it.getPrincipal().startsWith("User:sa-"));
+        long legacyAcls = desiredPlan.getAclPlans().stream()
+                .filter(it -> it.getAction() == PlanAction.REMOVE)
+                .filter(it -> LEGACY_SERVICE_ACCOUNT_PRINCIPAL.matcher(it.getAclDetails().getPrincipal()).matches())
+                .count();
+        if (confluentCloudPrincipals && legacyAcls > 0) {
+            log.warn("{} ACLs planned for removal use numeric service account IDs. Confluent Cloud service accounts are now "
+                    + "referenced by their sa- resource ID, so these ACLs are replaced rather than kept.", legacyAcls);
         }
     }
 
     private DesiredState getDesiredState(boolean ignoreMissingServiceAccounts) {
         DesiredStateFile desiredStateFile = getAndValidateStateFile();
+        List<ServiceAccount> serviceAccounts = new ArrayList<>();
+        if (isConfluentCloudEnabled(desiredStateFile)) {
+            getConfluentCloudService().loginCCloud();
+            serviceAccounts.addAll(getConfluentCloudService().getServiceAccounts());
+        }
+
+        DesiredState generatedState = generateDesiredState(desiredStateFile, serviceAccounts, ignoreMissingServiceAccounts);
+        DesiredState desiredState = deduplicateAcls(generatedState);
+        if (managerConfig.getAclPruningMode().isPresent()) {
+            desiredState = pruneAcls(desiredState);
+        }
+        DesiredState scopedState = desiredState;
+        if (managerConfig.isScoped()) {
+            scopedState = scopeDesiredState(desiredState, generatedState, desiredStateFile);
+        }
+        if (managerConfig.getAclCompactionMode().isPresent()) {
+            scopedState = compactAcls(scopedState, desiredState);
+        }
+        return scopedState;
+    }
+
+    /*
+     * Returns the configuration without the revision, scoped to the topics, services and users that were added,
+     * changed or removed since the given revision of the state files. Returns empty if nothing changed.
+     */
+    private Optional<ManagerConfig> scopeToChangesSince(String revision) {
+        if (managerConfig.isScoped()) {
+            throw new ValidationException("Planning changes since a revision cannot be combined with a service, user or topic prefix scope.");
+        }
+        StateDiff stateDiff = StateDiffUtil.diff(parserService.parseStateFileAtRevision(revision), parserService.parseStateFile());
+        if (stateDiff.isFullPlanRequired()) {
+            log.info("[PLAN] Settings, quotas or the principal of a removed service or user changed since {}; planning the full state.", revision);
+            return Optional.of(new ManagerConfig.Builder().mergeFrom(managerConfig).clearSinceRevision().build());
+        }
+        if (stateDiff.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new ManagerConfig.Builder()
+                .mergeFrom(managerConfig)
+                .clearSinceRevision()
+                .addAllScopedTopics(stateDiff.getTopics())
+                .addAllScopedServices(stateDiff.getServices())
+                .addAllScopedUsers(stateDiff.getUsers())
+                .addAllScopedPrincipals(stateDiff.getPrincipals())
+                .build());
+    }
+
+    private DesiredState deduplicateAcls(DesiredState desiredState) {
+        List<AclDuplicate> duplicates = AclDeduplicationUtil.findDuplicates(desiredState.getAcls());
+        duplicates.forEach(duplicate -> log.info("[PLAN] ACL {} is defined by {}; it will only be planned once.",
+                duplicate.getName(), String.join(", ", duplicate.getSourceNames())));
+        return AclDeduplicationUtil.removeDuplicates(desiredState, duplicates);
+    }
+
+    /*
+     * Pruning runs on the full desired state so an ACL covered by one outside of the plan scope is still detected.
+     */
+    private DesiredState pruneAcls(DesiredState desiredState) {
+        List<RedundantAcl> redundantAcls = AclPruningUtil.findRedundantAcls(desiredState.getAcls());
+        if (managerConfig.getOutputFormat() == OutputFormat.TEXT) {
+            LogUtil.printRedundantAcls(redundantAcls);
+        }
+        if (managerConfig.getAclPruningMode().get() == AclPruningMode.APPLY) {
+            return AclPruningUtil.removeRedundantAcls(desiredState, redundantAcls);
+        }
+        return desiredState;
+    }
+
+    private DesiredState compactAcls(DesiredState desiredState, DesiredState fullDesiredState) {
+        if (managerConfig.isTopicScoped()) {
+            throw new ValidationException("ACL compaction cannot be combined with a topic scope.");
+        }
+
+        List<AclCompaction> compactions = AclCompactionUtil.findCompactions(desiredState.getAcls(), AclCompactionUtil.getKnownTopics(fullDesiredState));
+        if (managerConfig.getOutputFormat() == OutputFormat.TEXT) {
+            LogUtil.printAclCompactions(compactions);
+        }
+        if (managerConfig.getAclCompactionMode().get() == AclCompactionMode.APPLY) {
+            return AclCompactionUtil.applyCompactions(desiredState, compactions);
+        }
+        return desiredState;
+    }
+
+    private DesiredState generateDesiredState(DesiredStateFile desiredStateFile, List<ServiceAccount> serviceAccounts, boolean ignoreMissingServiceAccounts) {
         DesiredState.Builder desiredState = new DesiredState.Builder()
                 .addAllPrefixedTopicsToIgnore(getPrefixedTopicsToIgnore(desiredStateFile));
 
         generateTopicsState(desiredState, desiredStateFile);
+        generateQuotasState(desiredState, desiredStateFile);
+        generateConnectorsState(desiredState, desiredStateFile);
 
         if (isConfluentCloudEnabled(desiredStateFile)) {
-            generateConfluentCloudServiceAcls(desiredState, desiredStateFile, ignoreMissingServiceAccounts);
-            generateConfluentCloudUserAcls(desiredState, desiredStateFile, ignoreMissingServiceAccounts);
+            generateConfluentCloudServiceAcls(desiredState, desiredStateFile, serviceAccounts, ignoreMissingServiceAccounts);
+            generateConfluentCloudUserAcls(desiredState, desiredStateFile, serviceAccounts, ignoreMissingServiceAccounts);
         } else {
             generateServiceAcls(desiredState, desiredStateFile);
             generateUserAcls(desiredState, desiredStateFile);
@@ -154,6 +547,67 @@ public class StateManager {
         return desiredState.build();
     }
 
+    /*
+     * Restricts the desired state to the resources selected on the command line. Services and users are resolved to
+     * their principals so that ACLs shared with other services on the same principal are not planned for removal.
+     */
+    private DesiredState scopeDesiredState(DesiredState desiredState, DesiredState generatedState, DesiredStateFile desiredStateFile) {
+        DesiredState.Builder scopedState = new DesiredState.Builder()
+                .addAllPrefixedTopicsToIgnore(desiredState.getPrefixedTopicsToIgnore())
+                .putAllAclSourceNames(desiredState.getAclSourceNames());
+
+        desiredState.getTopics().forEach((name, details) -> {
+            if (managerConfig.isTopicInScope(name)) {
+                scopedState.putTopics(name, details);
+            }
+        });
+
+        if (managerConfig.isPrincipalScoped()) {
+            Set<String> principals = getScopedPrincipals(generatedState, desiredStateFile);
+            desiredState.getAcls().forEach((name, acl) -> {
+                if (principals.contains(acl.getPrincipal())) {
+                    scopedState.putAcls(name, acl);
+                }
+            });
+        } else {
+            desiredState.getAcls().forEach((name, acl) -> {
+                if (acl.getType().equals("TOPIC") && managerConfig.isTopicInScope(acl.getName())) {
+                    scopedState.putAcls(name, acl);
+                }
+            });
+        }
+
+        return scopedState.build();
+    }
+
+    /*
+     * The principals of the scoped services and users are read from the owners recorded in the generated state rather
+     * than generating it again. Duplicates are only removed after generation, so each scoped service and user still has
+     * all of its ACLs here.
+     */
+    Set<String> getScopedPrincipals(DesiredState generatedState, DesiredStateFile desiredStateFile) {
+        managerConfig.getScopedServices().forEach(name -> {
+            if (!desiredStateFile.getServices().containsKey(name)) {
+                throw new ValidationException(String.format("Service '%s' does not exist in the desired state file.", name));
+            }
+        });
+
+        managerConfig.getScopedUsers().forEach(name -> {
+            if (!desiredStateFile.getUsers().containsKey(name)) {
+                throw new ValidationException(String.format("User '%s' does not exist in the desired state file.", name));
+            }
+        });
+
+        Set<String> scopedNames = new HashSet<>(managerConfig.getScopedServices());
+        scopedNames.addAll(managerConfig.getScopedUsers());
+        Set<String> principals = generatedState.getAclOwners().entrySet().stream()
+                .filter(it -> scopedNames.contains(it.getValue()))
+                .map(it -> generatedState.getAcls().get(it.getKey()).getPrincipal())
+                .collect(Collectors.toSet());
+        principals.addAll(managerConfig.getScopedPrincipals());
+        return principals;
+    }
+
     private void generateTopicsState(DesiredState.Builder desiredState, DesiredStateFile desiredStateFile) {
         Optional<Integer> defaultReplication = StateUtil.fetchReplication(desiredStateFile);
         if (defaultReplication.isPresent()) {
@@ -166,9 +620,56 @@ public class StateManager {
         }
     }
 
-    private void generateConfluentCloudServiceAcls(DesiredState.Builder desiredState, DesiredStateFile desiredStateFile, boolean ignoreMissingServiceAccounts) {
-        confluentCloudService.loginCCloud();
-        List<ServiceAccount> serviceAccounts = confluentCloudService.getServiceAccounts();
+    /*
+     * A quota named after a service or user applies to its principal unless a principal or client-id is given.
+     */
+    private void generateQuotasState(DesiredState.Builder desiredState, DesiredStateFile desiredStateFile) {
+        desiredStateFile.getQuotas().forEach((name, quota) -> {
+            Optional<String> principal = quota.getPrincipal();
+            if (!principal.isPresent() && !quota.getClientId().isPresent()) {
+                if (desiredStateFile.getServices().containsKey(name)) {
+                    principal = desiredStateFile.getServices().get(name).getPrincipal();
+                } else if (desiredStateFile.getUsers().containsKey(name)) {
+                    principal = desiredStateFile.getUsers().get(name).getPrincipal();
+                }
+            }
+
+            if (!principal.isPresent() && !quota.getClientId().isPresent()) {
+                throw new ValidationException(String.format("Quota '%s' must define a principal or client-id, or be named after a service or user with a principal.", name));
+            }
+
+            desiredState.putQuotas(name, new ClientQuota.Builder()
+                    .setUser(principal.map(it -> it.startsWith("User:") ? it.substring(5) : it))
+                    .setClientId(quota.getClientId())
+                    .putAllQuotas(quota.toQuotaConfigs())
+                    .build());
+        });
+    }
+
+    private void generateConnectorsState(DesiredState.Builder desiredState, DesiredStateFile desiredStateFile) {
+        desiredStateFile.getServices().forEach((name, service) -> {
+            if (!(service instanceof KafkaConnectService)) {
+                return;
+            }
+            KafkaConnectService connectService = (KafkaConnectService) service;
+            connectService.getConnectors().forEach((connectorName, connector) -> {
+                if (!connectService.getConnectUrl().isPresent()) {
+                    if (!connector.getConfig().isEmpty()) {
+                        throw new ValidationException(String.format("Connector '%s' of service '%s' defines a config, but the service has no connect-url.", connectorName, name));
+                    }
+                    return;
+                }
+                desiredState.addConnectors(new DesiredConnector.Builder()
+                        .setName(connectorName)
+                        .setService(name)
+                        .setConnectUrl(connectService.getConnectUrl().get())
+                        .putAllConfig(connector.getConfig())
+                        .build());
+            });
+        });
+    }
+
+    private void generateConfluentCloudServiceAcls(DesiredState.Builder desiredState, DesiredStateFile desiredStateFile, List<ServiceAccount> serviceAccounts, boolean ignoreMissingServiceAccounts) {
         desiredStateFile.getServices().forEach((name, service) -> {
             final String serviceAccountName = service.getServiceAccount().orElse(name);
             AtomicReference<Integer> index = new AtomicReference<>(0);
@@ -184,7 +685,7 @@ public class StateManager {
 
             service.getAcls(buildGetAclOptions(name, serviceAccountName)).forEach(aclDetails -> {
                 aclDetails.setPrincipal(String.format("User:%s", serviceAccountId));
-                desiredState.putAcls(String.format("%s-%s", name, index.getAndSet(index.get() + 1)), aclDetails.build());
+                putGeneratedAcl(desiredState, name, index, aclDetails.build());
             });
 
             if (desiredStateFile.getCustomServiceAcls().containsKey(serviceAccountName)) {
@@ -192,15 +693,13 @@ public class StateManager {
                 customAcls.forEach((aclName, customAcl) -> {
                     AclDetails.Builder aclDetails = AclDetails.fromCustomAclDetails(customAcl);
                     aclDetails.setPrincipal(String.format("User:%s", serviceAccountId));
-                    desiredState.putAcls(String.format("%s-%s", name, index.getAndSet(index.get() + 1)), aclDetails.build());
+                    putGeneratedAcl(desiredState, name, index, aclDetails.build());
                 });
             }
         });
     }
 
-    private void generateConfluentCloudUserAcls(DesiredState.Builder desiredState, DesiredStateFile desiredStateFile, boolean ignoreMissingServiceAccounts) {
-        confluentCloudService.loginCCloud();
-        List<ServiceAccount> serviceAccounts = confluentCloudService.getServiceAccounts();
+    private void generateConfluentCloudUserAcls(DesiredState.Builder desiredState, DesiredStateFile desiredStateFile, List<ServiceAccount> serviceAccounts, boolean ignoreMissingServiceAccounts) {
         desiredStateFile.getUsers().forEach((name, user) -> {
             AtomicReference<Integer> index = new AtomicReference<>(0);
             String serviceAccountName = String.format("user-%s", name);
@@ -216,7 +715,7 @@ public class StateManager {
 
             user.getRoles().forEach(role -> {
                 List<AclDetails.Builder> acls = roleService.getAcls(role, String.format("User:%s", serviceAccountId));
-                acls.forEach(acl -> desiredState.putAcls(String.format("%s-%s", name, index.getAndSet(index.get() + 1)), acl.build()));
+                acls.forEach(acl -> putGeneratedAcl(desiredState, name, index, acl.build()));
             });
 
             if (desiredStateFile.getCustomUserAcls().containsKey(name)) {
@@ -224,7 +723,7 @@ public class StateManager {
                 customAcls.forEach((aclName, customAcl) -> {
                     AclDetails.Builder aclDetails = AclDetails.fromCustomAclDetails(customAcl);
                     aclDetails.setPrincipal(String.format("User:%s", serviceAccountId));
-                    desiredState.putAcls(String.format("%s-%s", name, index.getAndSet(index.get() + 1)), aclDetails.build());
+                    putGeneratedAcl(desiredState, name, index, aclDetails.build());
                 });
             }
         });
@@ -235,7 +734,7 @@ public class StateManager {
             final String serviceAccountName = service.getServiceAccount().orElse(name);
             AtomicReference<Integer> index = new AtomicReference<>(0);
             service.getAcls(buildGetAclOptions(name, serviceAccountName)).forEach(aclDetails -> {
-                desiredState.putAcls(String.format("%s-%s", name, index.getAndSet(index.get() + 1)), buildAclDetails(serviceAccountName, aclDetails));
+                putGeneratedAcl(desiredState, name, index, buildAclDetails(serviceAccountName, aclDetails));
             });
 
             if (desiredStateFile.getCustomServiceAcls().containsKey(name)) {
@@ -244,7 +743,7 @@ public class StateManager {
                     AclDetails.Builder aclDetails = AclDetails.fromCustomAclDetails(customAcl);
                     aclDetails.setPrincipal(customAcl.getPrincipal().orElseThrow(() ->
                             new MissingConfigurationException(String.format("Missing principal for custom service ACL %s", aclName))));
-                    desiredState.putAcls(String.format("%s-%s", name, index.getAndSet(index.get() + 1)), aclDetails.build());
+                    putGeneratedAcl(desiredState, name, index, aclDetails.build());
                 });
             }
         });
@@ -258,7 +757,7 @@ public class StateManager {
 
             user.getRoles().forEach(role -> {
                 List<AclDetails.Builder> acls = roleService.getAcls(role, userPrincipal);
-                acls.forEach(acl -> desiredState.putAcls(String.format("%s-%s", name, index.getAndSet(index.get() + 1)), acl.build()));
+                acls.forEach(acl -> putGeneratedAcl(desiredState, name, index, acl.build()));
             });
 
             if (desiredStateFile.getCustomUserAcls().containsKey(name)) {
@@ -266,12 +765,22 @@ public class StateManager {
                 customAcls.forEach((aclName, customAcl) -> {
                     AclDetails.Builder aclDetails = AclDetails.fromCustomAclDetails(customAcl);
                     aclDetails.setPrincipal(customAcl.getPrincipal().orElse(userPrincipal));
-                    desiredState.putAcls(String.format("%s-%s", name, index.getAndSet(index.get() + 1)), aclDetails.build());
+                    putGeneratedAcl(desiredState, name, index, aclDetails.build());
                 });
             }
         });
     }
 
+    /*
+     * Generated ACLs are keyed by the name of their service or user followed by an index. The service or user is also
+     * recorded as the owner of the ACL, so it never has to be read back from the key.
+     */
+    private static void putGeneratedAcl(DesiredState.Builder desiredState, String owner, AtomicReference<Integer> index, AclDetails aclDetails) {
+        String name = String.format("%s-%s", owner, index.getAndSet(index.get() + 1));
+        desiredState.putAcls(name, aclDetails);
+        desiredState.putAclOwners(name, owner);
+    }
+
     private AclDetails buildAclDetails(String service, AclDetails.Builder aclDetails) {
         try {
             return aclDetails.build();
@@ -303,6 +812,17 @@ public class StateManager {
                 .setDescribeAclEnabled(describeAclEnabled).build();
     }
 
+    private void validateQuotas(DesiredStateFile desiredStateFile) {
+        if (!desiredStateFile.getQuotas().isEmpty() && isConfluentCloudEnabled(desiredStateFile)) {
+            throw new ValidationException("Client quotas cannot be managed when Confluent Cloud is enabled.");
+        }
+        desiredStateFile.getQuotas().forEach((name, quota) -> {
+            if (quota.toQuotaConfigs().isEmpty()) {
+                throw new ValidationException(String.format("Quota '%s' must define at least one of producer-byte-rate, consumer-byte-rate or request-percentage.", name));
+            }
+        });
+    }
+
     private void validateCustomAcls(DesiredStateFile desiredStateFile) {
         desiredStateFile.getCustomServiceAcls().forEach((service, details) -> {
             try {
@@ -324,6 +844,11 @@ public class StateManager {
     }
 
     private void validateTopics(DesiredStateFile desiredStateFile) {
+        desiredStateFile.getTopics().forEach((name, details) -> {
+            if (details.getPlacement().isPresent() && !details.getPlacement().get().equals(TopicDetails.BALANCED_PLACEMENT)) {
+                throw new ValidationException(String.format("Invalid value: [placement] in state file definition: topics -> %s. Allowed values: [%s]", name, TopicDetails.BALANCED_PLACEMENT));
+            }
+        });
         Optional<Integer> defaultReplication = StateUtil.fetchReplication(desiredStateFile);
         if (!defaultReplication.isPresent()) {
             desiredStateFile.getTopics().forEach((name, details) -> {
@@ -345,6 +870,48 @@ public class StateManager {
         return false;
     }
 
+    /*
+     * The Kafka client classes are only loaded once a command needs the cluster, which keeps validate fast.
+     */
+    private KafkaService getKafkaService() {
+        if (kafkaService == null) {
+            kafkaService = new KafkaService(KafkaGitopsConfigLoader.load());
+        }
+        return kafkaService;
+    }
+
+    private ConfluentCloudService getConfluentCloudService() {
+        if (confluentCloudService == null) {
+            confluentCloudService = new ConfluentCloudService(objectMapper);
+        }
+        return confluentCloudService;
+    }
+
+    private PlanManager getPlanManager() {
+        if (planManager == null && managerConfig.getSnapshotFile().isPresent()) {
+            ClusterSnapshot snapshot = new SnapshotManager(objectMapper).readSnapshotFromFile(managerConfig.getSnapshotFile().get());
+            planManager = new PlanManager(managerConfig, snapshot, objectMapper);
+        } else if (planManager == null) {
+            planManager = new PlanManager(managerConfig, getKafkaService(), objectMapper);
+        }
+        return planManager;
+    }
+
+    private ConnectorManager getConnectorManager() {
+        if (connectorManager == null) {
+            KafkaConnectRestService connectService = new KafkaConnectRestService(objectMapper, ConnectorManager.DEFAULT_PARALLELISM);
+            connectorManager = new ConnectorManager(managerConfig, connectService, ConnectorManager.DEFAULT_PARALLELISM);
+        }
+        return connectorManager;
+    }
+
+    private ApplyManager getApplyManager() {
+        if (applyManager == null) {
+            applyManager = new ApplyManager(managerConfig, getKafkaService());
+        }
+        return applyManager;
+    }
+
     private ObjectMapper initializeObjectMapper() {
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.enable(JsonParser.Feature.ALLOW_UNQUOTED_FIELD_NAMES);
@@ -353,7 +920,10 @@ public class StateManager {
         return objectMapper;
     }
 
-    private void initializeLogger(boolean verbose) {
+    /*
+     * With NDJSON output, stdout carries only events, so the console appender is moved to stderr.
+     */
+    private void initializeLogger(boolean verbose, OutputFormat outputFormat) {
         Logger root = (Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME);
         Logger kafka = (Logger) LoggerFactory.getLogger("org.apache.kafka");
         if (verbose) {
@@ -363,5 +933,17 @@ public class StateManager {
             root.setLevel(Level.WARN);
             kafka.setLevel(Level.OFF);
         }
+
+        String target = outputFormat == OutputFormat.NDJSON ? "System.err" : "System.out";
+        Iterator<Appender<ILoggingEvent>> appenders = root.iteratorForAppenders();
+        while (appenders.hasNext()) {
+            Appender<ILoggingEvent> appender = appenders.next();
+            if (appender instanceof ConsoleAppender && !target.equals(((ConsoleAppender<ILoggingEvent>) appender).getTarget())) {
+                ConsoleAppender<ILoggingEvent> console = (ConsoleAppender<ILoggingEvent>) appender;
+                console.stop();
+                console.setTarget(target);
+                console.start();
+            }
+        }
     }
 }
@@ -0,0 +1,109 @@
+package com.devshawn.kafka.gitops.cli;
+
+import com.devshawn.kafka.gitops.MainCommand;
+import com.devshawn.kafka.gitops.StateManager;
+import com.devshawn.kafka.gitops.config.ManagerConfig;
+import com.devshawn.kafka.gitops.exception.KafkaExecutionException;
+import com.devshawn.kafka.gitops.exception.MissingConfigurationException;
+import com.devshawn.kafka.gitops.exception.ValidationException;
+import com.devshawn.kafka.gitops.service.ParserService;
+import com.devshawn.kafka.gitops.util.AccessQueryUtil;
+import com.devshawn.kafka.gitops.util.AclIndex;
+import com.devshawn.kafka.gitops.util.LogUtil;
+import picocli.CommandLine;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+
+@CommandLine.Command(name = "access", description = "Query the effective access granted by the desired state ACLs.")
+public class AccessCommand implements Callable<Integer> {
+
+    @CommandLine.Option(names = {"--principal"}, paramLabel = "<principal>",
+            description = "The principal to query, e.g. User:my-service.")
+    private String principal;
+
+    @CommandLine.Option(names = {"--type"}, paramLabel = "<type>", defaultValue = "TOPIC",
+            description = "The resource type to query. Defaults to TOPIC.")
+    private String resourceType;
+
+    @CommandLine.Option(names = {"--resource"}, paramLabel = "<name>",
+            description = "The resource name to query.")
+    private String resourceName;
+
+    @CommandLine.Option(names = {"--operation"}, paramLabel = "<operation>",
+            description = "The operation to query, e.g. READ or WRITE.")
+    private String operation;
+
+    @CommandLine.Option(names = {"--host"}, paramLabel = "<host>",
+            description = "Only consider ACLs matching the specified host.")
+    private String host;
+
+    @CommandLine.Option(names = {"--include-cluster"},
+            description = "Also include the ACLs currently present on the cluster.")
+    private boolean includeCluster = false;
+
+    @CommandLine.Option(names = {"--batch"}, paramLabel = "<file>",
+            description = "Answer a CSV file of principal,type,resource,operation queries and write the results to stdout.")
+    private File batchFile;
+
+    @CommandLine.ParentCommand
+    private MainCommand parent;
+
+    @Override
+    public Integer call() {
+        try {
+            ParserService parserService = new ParserService(parent.getFile());
+            StateManager stateManager = new StateManager(generateStateManagerConfig(), parserService);
+            AclIndex aclIndex = stateManager.buildAclIndex(includeCluster);
+
+            if (batchFile != null) {
+                return runBatch(aclIndex);
+            } else if (principal != null && resourceName != null && operation != null) {
+                String type = AccessQueryUtil.validateResourceType(resourceType);
+                String op = AccessQueryUtil.validateOperation(operation);
+                boolean allowed = aclIndex.isAllowed(principal, type, resourceName, op, Optional.ofNullable(host));
+                LogUtil.printAccessDecision(principal, type, resourceName, op, allowed,
+                        aclIndex.getDecidingAcls(principal, type, resourceName, op, Optional.ofNullable(host)));
+                return allowed ? 0 : 1;
+            } else if (resourceName != null && operation != null) {
+                String type = AccessQueryUtil.validateResourceType(resourceType);
+                String op = AccessQueryUtil.validateOperation(operation);
+                LogUtil.printAllowedPrincipals(type, resourceName, op, aclIndex.getAllowedPrincipals(type, resourceName, op, Optional.ofNullable(host)));
+                return 0;
+            } else if (principal != null) {
+                LogUtil.printPrincipalAcls(principal, aclIndex.getAclsForPrincipal(principal));
+                return 0;
+            }
+            throw new ValidationException("Specify --batch, --principal, or --resource with --operation.");
+        } catch (ValidationException ex) {
+            LogUtil.printValidationResult(ex.getMessage(), false);
+        } catch (MissingConfigurationException ex) {
+            LogUtil.printSimpleError(ex.getMessage());
+        } catch (KafkaExecutionException ex) {
+            LogUtil.printSimpleError(String.format("%s: %s", ex.getMessage(), ex.getExceptionMessage()));
+        } catch (IOException ex) {
+            LogUtil.printSimpleError(String.format("Error reading access queries: %s", ex.getMessage()));
+        }
+        return 2;
+    }
+
+    private int runBatch(AclIndex aclIndex) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(batchFile), StandardCharsets.UTF_8))) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+            AccessQueryUtil.runBatch(aclIndex, reader, writer, Optional.ofNullable(host));
+            writer.flush();
+        }
+        return 0;
+    }
+
+    private ManagerConfig generateStateManagerConfig() {
+        return new ManagerConfig.Builder()
+                .setVerboseRequested(parent.isVerboseRequested())
+                .setDeleteDisabled(parent.isDeleteDisabled())
+                .setIncludeUnchangedEnabled(false)
+                .setStateFile(parent.getFile())
+                .build();
+    }
+}
@@ -2,15 +2,27 @@ package com.devshawn.kafka.gitops.cli;
 
 import com.devshawn.kafka.gitops.MainCommand;
 import com.devshawn.kafka.gitops.StateManager;
+import com.devshawn.kafka.gitops.config.KafkaClustersConfig;
+import com.devshawn.kafka.gitops.config.KafkaGitopsConfigLoader;
 import com.devshawn.kafka.gitops.config.ManagerConfig;
+import com.devshawn.kafka.gitops.domain.cluster.HealthGate;
+import com.devshawn.kafka.gitops.domain.plan.ClusterResult;
 import com.devshawn.kafka.gitops.domain.plan.DesiredPlan;
+import com.devshawn.kafka.gitops.enums.AclCompactionMode;
+import com.devshawn.kafka.gitops.enums.AclPruningMode;
+import com.devshawn.kafka.gitops.enums.OutputFormat;
 import com.devshawn.kafka.gitops.exception.*;
 import com.devshawn.kafka.gitops.service.ParserService;
+import com.devshawn.kafka.gitops.util.BufferedOutput;
 import com.devshawn.kafka.gitops.util.LogUtil;
+import com.devshawn.kafka.gitops.util.PlanEventWriter;
+import com.devshawn.kafka.gitops.util.PlanShardUtil;
 import com.devshawn.kafka.gitops.util.PlanUtil;
 import picocli.CommandLine;
 
 import java.io.File;
+import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.Callable;
 
 @CommandLine.Command(name = "apply", description = "Apply changes to Kafka resources.")
@@ -20,25 +32,132 @@ public class ApplyCommand implements Callable<Integer> {
             description = "Specify the plan file to use.")
     private File planFile;
 
+    @CommandLine.Option(names = {"--cleanup-consumer-groups"},
+            description = "Delete empty consumer groups whose group ACLs are removed along with their service.")
+    private boolean consumerGroupCleanup = false;
+
+    @CommandLine.Option(names = {"--guard-topic-deletion"},
+            description = "Do not delete topics that still hold records or are assigned to active consumers.")
+    private boolean topicDeletionGuard = false;
+
+    @CommandLine.Option(names = {"--delete-connectors"},
+            description = "Delete connectors found on a Connect cluster that are not defined in the state file.")
+    private boolean connectorDeletion = false;
+
+    @CommandLine.Option(names = {"--topic-deletion-wave-size"}, paramLabel = "<count>",
+            description = "Delete topics in waves of this many topics per request. Defaults to 1.")
+    private int topicDeletionWaveSize = 1;
+
+    @CommandLine.Option(names = {"--compact-acls"}, paramLabel = "<mode>",
+            description = "Find LITERAL topic ACLs replaceable by PREFIXED ACLs and report or apply them. Valid values: ${COMPLETION-CANDIDATES}.")
+    private AclCompactionMode aclCompactionMode;
+
+    @CommandLine.Option(names = {"--prune-redundant-acls"}, paramLabel = "<mode>",
+            description = "Find ACLs already granted by a wildcard or PREFIXED ACL and report or remove them. Valid values: ${COMPLETION-CANDIDATES}.")
+    private AclPruningMode aclPruningMode;
+
+    @CommandLine.Option(names = {"--shard"}, paramLabel = "<index>/<count>",
+            description = "Only apply the plan entries assigned to this shard, e.g. 2/4. Requires a plan file.")
+    private String shard;
+
+    @CommandLine.Option(names = {"--journal"}, paramLabel = "<file>",
+            description = "Write the changes applied by this run, and any error, to a journal file.")
+    private File journalFile;
+
+    @CommandLine.Option(names = {"--lease"},
+            description = "Take a lease on the changed resources before applying, so overlapping applies do not run at once.")
+    private boolean lease = false;
+
+    @CommandLine.Option(names = {"--lease-wait"}, paramLabel = "<seconds>",
+            description = "How long to wait for overlapping applies to release their lease. Fails immediately by default.")
+    private long leaseWaitSeconds = 0;
+
+    @CommandLine.Option(names = {"--await-topics"}, paramLabel = "<seconds>",
+            description = "After creating topics, wait up to this many seconds until every partition has a leader and a full ISR.")
+    private Long topicConvergenceTimeoutSeconds;
+
+    @CommandLine.Option(names = {"--health-gate"},
+            description = "Check partition health and controller response time before applying, and refuse or slow down when the cluster is degraded.")
+    private boolean healthGate = false;
+
+    @CommandLine.Option(names = {"--max-offline-partitions"}, paramLabel = "<count>",
+            description = "With --health-gate, the most offline partitions to still apply with. Defaults to 0.")
+    private int maxOfflinePartitions = 0;
+
+    @CommandLine.Option(names = {"--max-under-replicated-partitions"}, paramLabel = "<count>",
+            description = "With --health-gate, the most under-replicated partitions to still apply with. Defaults to 0.")
+    private int maxUnderReplicatedPartitions = 0;
+
+    @CommandLine.Option(names = {"--max-controller-response"}, paramLabel = "<ms>",
+            description = "With --health-gate, the controller response time above which changes are applied with a pause in between. Defaults to 1000.")
+    private long maxControllerResponseMs = 1000;
+
+    @CommandLine.Option(names = {"--health-metrics-file"}, paramLabel = "<file>",
+            description = "With --health-gate, write the health check results to this file in the Prometheus text format.")
+    private File healthMetricsFile;
+
+    @CommandLine.Option(names = {"--output-format"}, paramLabel = "<format>",
+            description = "Format of the apply output. Valid values: ${COMPLETION-CANDIDATES}.")
+    private OutputFormat outputFormat = OutputFormat.TEXT;
+
     @CommandLine.ParentCommand
     private MainCommand parent;
 
     @Override
     public Integer call() {
+        try (BufferedOutput ignored = BufferedOutput.install()) {
+            return outputFormat == OutputFormat.NDJSON ? applyAsEvents() : apply();
+        }
+    }
+
+    private Integer applyAsEvents() {
+        try {
+            ParserService parserService = new ParserService(parent.getFile());
+            StateManager stateManager = new StateManager(generateStateManagerConfig(), parserService);
+            if (parent.getClustersFile() != null) {
+                KafkaClustersConfig clustersConfig = KafkaGitopsConfigLoader.loadClustersConfig(parent.getClustersFile());
+                List<ClusterResult> results = stateManager.applyClusters(clustersConfig);
+                PlanEventWriter.writeClusterResults(results, parent.isDeleteDisabled(), true);
+                return results.stream().anyMatch(it -> it.getError().isPresent()) ? 2 : 0;
+            }
+            DesiredPlan desiredPlan = stateManager.apply();
+            PlanEventWriter.writeApplySummary(PlanUtil.getOverview(desiredPlan, parent.isDeleteDisabled()));
+            return 0;
+        } catch (PlanIsUpToDateException ex) {
+            PlanEventWriter.writeNoChanges();
+            return 0;
+        } catch (KafkaExecutionException ex) {
+            PlanEventWriter.writeError(String.format("%s: %s", ex.getMessage(), ex.getExceptionMessage()), Optional.empty());
+        } catch (RuntimeException ex) {
+            PlanEventWriter.writeError(ex.getMessage(), Optional.empty());
+        }
+        return 2;
+    }
+
+    private Integer apply() {
         try {
             System.out.println("Executing apply...\n");
             ParserService parserService = new ParserService(parent.getFile());
             StateManager stateManager = new StateManager(generateStateManagerConfig(), parserService);
+            if (parent.getClustersFile() != null) {
+                KafkaClustersConfig clustersConfig = KafkaGitopsConfigLoader.loadClustersConfig(parent.getClustersFile());
+                List<ClusterResult> results = stateManager.applyClusters(clustersConfig);
+                LogUtil.printClusterSummary(results, parent.isDeleteDisabled(), true);
+                return results.stream().anyMatch(it -> it.getError().isPresent()) ? 2 : 0;
+            }
             DesiredPlan desiredPlan = stateManager.apply();
             LogUtil.printApplyOverview(PlanUtil.getOverview(desiredPlan, parent.isDeleteDisabled()));
             return 0;
         } catch (PlanIsUpToDateException ex) {
             LogUtil.printNoChangesMessage();
             return 0;
-        } catch (MissingConfigurationException | ReadPlanInputException ex) {
+        } catch (MissingConfigurationException | ReadPlanInputException | WriteJournalOutputException | LeaseUnavailableException
+                | TopicConvergenceTimeoutException | ClusterUnhealthyException | WriteMetricsOutputException ex) {
             LogUtil.printGenericError(ex, true);
         } catch (ValidationException ex) {
             LogUtil.printValidationResult(ex.getMessage(), false);
+        } catch (KafkaConnectException ex) {
+            LogUtil.printGenericError(ex, true);
         } catch (KafkaExecutionException ex) {
             LogUtil.printKafkaExecutionError(ex, true);
         }
@@ -51,7 +170,25 @@ public class ApplyCommand implements Callable<Integer> {
                 .setDeleteDisabled(parent.isDeleteDisabled())
                 .setIncludeUnchangedEnabled(false)
                 .setStateFile(parent.getFile())
+                .setNullableAclCompactionMode(aclCompactionMode)
+                .setNullableAclPruningMode(aclPruningMode)
+                .setConsumerGroupCleanupEnabled(consumerGroupCleanup)
+                .setTopicDeletionGuardEnabled(topicDeletionGuard)
+                .setConnectorDeletionEnabled(connectorDeletion)
+                .setTopicDeletionWaveSize(topicDeletionWaveSize)
                 .setNullablePlanFile(planFile)
+                .setNullableShard(shard != null ? PlanShardUtil.parse(shard) : null)
+                .setNullableJournalFile(journalFile)
+                .setLeaseEnabled(lease)
+                .setLeaseWaitSeconds(leaseWaitSeconds)
+                .setNullableTopicConvergenceTimeoutSeconds(topicConvergenceTimeoutSeconds)
+                .setNullableHealthGate(healthGate ? new HealthGate.Builder()
+                        .setMaxOfflinePartitions(maxOfflinePartitions)
+                        .setMaxUnderReplicatedPartitions(maxUnderReplicatedPartitions)
+                        .setMaxControllerResponseMs(maxControllerResponseMs)
+                        .build() : null)
+                .setNullableHealthMetricsFile(healthMetricsFile)
+                .setOutputFormat(outputFormat)
                 .build();
     }
 }
\ No newline at end of file
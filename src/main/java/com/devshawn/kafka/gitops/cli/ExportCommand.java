@@ -0,0 +1,63 @@
+package com.devshawn.kafka.gitops.cli;
+
+import com.devshawn.kafka.gitops.MainCommand;
+import com.devshawn.kafka.gitops.StateManager;
+import com.devshawn.kafka.gitops.config.ManagerConfig;
+import com.devshawn.kafka.gitops.exception.KafkaExecutionException;
+import com.devshawn.kafka.gitops.exception.MissingConfigurationException;
+import com.devshawn.kafka.gitops.exception.WriteExportOutputException;
+import com.devshawn.kafka.gitops.service.ParserService;
+import com.devshawn.kafka.gitops.util.LogUtil;
+import picocli.CommandLine;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Callable;
+
+@CommandLine.Command(name = "export", description = "Export the topics and ACLs of a cluster as a desired state file.")
+public class ExportCommand implements Callable<Integer> {
+
+    @CommandLine.Option(names = {"-o", "--output"}, paramLabel = "<file>",
+            description = "Specify the output file for the exported state. Defaults to stdout.")
+    private File outputFile;
+
+    @CommandLine.ParentCommand
+    private MainCommand parent;
+
+    @Override
+    public Integer call() {
+        try {
+            ParserService parserService = new ParserService(parent.getFile());
+            StateManager stateManager = new StateManager(generateStateManagerConfig(), parserService);
+            if (outputFile != null) {
+                try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(outputFile), StandardCharsets.UTF_8))) {
+                    stateManager.export(writer);
+                }
+                System.out.println(String.format("Successfully exported the cluster state to %s.", outputFile));
+            } else {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+                stateManager.export(writer);
+                writer.flush();
+            }
+            return 0;
+        } catch (IOException ex) {
+            LogUtil.printExportOutputError(new WriteExportOutputException(ex.getMessage()));
+        } catch (WriteExportOutputException ex) {
+            LogUtil.printExportOutputError(ex);
+        } catch (MissingConfigurationException ex) {
+            LogUtil.printGenericError(ex);
+        } catch (KafkaExecutionException ex) {
+            LogUtil.printKafkaExecutionError(ex);
+        }
+        return 2;
+    }
+
+    private ManagerConfig generateStateManagerConfig() {
+        return new ManagerConfig.Builder()
+                .setVerboseRequested(parent.isVerboseRequested())
+                .setDeleteDisabled(parent.isDeleteDisabled())
+                .setIncludeUnchangedEnabled(false)
+                .setStateFile(parent.getFile())
+                .build();
+    }
+}
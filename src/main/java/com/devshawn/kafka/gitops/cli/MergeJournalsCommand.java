@@ -0,0 +1,56 @@
+package com.devshawn.kafka.gitops.cli;
+
+import com.devshawn.kafka.gitops.MainCommand;
+import com.devshawn.kafka.gitops.StateManager;
+import com.devshawn.kafka.gitops.config.ManagerConfig;
+import com.devshawn.kafka.gitops.domain.plan.ApplyJournal;
+import com.devshawn.kafka.gitops.exception.ReadJournalInputException;
+import com.devshawn.kafka.gitops.exception.ValidationException;
+import com.devshawn.kafka.gitops.exception.WriteJournalOutputException;
+import com.devshawn.kafka.gitops.service.ParserService;
+import com.devshawn.kafka.gitops.util.LogUtil;
+import picocli.CommandLine;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+
+@CommandLine.Command(name = "merge-journals", description = "Combine the journals of a sharded apply into one report.")
+public class MergeJournalsCommand implements Callable<Integer> {
+
+    @CommandLine.Parameters(paramLabel = "<journal>", arity = "1..*",
+            description = "The journal files written by each shard with apply --journal.")
+    private List<File> journalFiles = new ArrayList<>();
+
+    @CommandLine.Option(names = {"-o", "--output"}, paramLabel = "<file>",
+            description = "Specify the output file for the merged journal.")
+    private File outputFile;
+
+    @CommandLine.ParentCommand
+    private MainCommand parent;
+
+    @Override
+    public Integer call() {
+        try {
+            ParserService parserService = new ParserService(parent.getFile());
+            StateManager stateManager = new StateManager(generateStateManagerConfig(), parserService);
+            ApplyJournal journal = stateManager.mergeJournals(journalFiles, Optional.ofNullable(outputFile));
+            LogUtil.printJournalReport(journal);
+            return journal.getErrors().isEmpty() && journal.getApplied().size() == journal.getPlannedChanges() ? 0 : 2;
+        } catch (ReadJournalInputException | WriteJournalOutputException | ValidationException ex) {
+            LogUtil.printSimpleError(ex.getMessage());
+        }
+        return 2;
+    }
+
+    private ManagerConfig generateStateManagerConfig() {
+        return new ManagerConfig.Builder()
+                .setVerboseRequested(parent.isVerboseRequested())
+                .setDeleteDisabled(parent.isDeleteDisabled())
+                .setIncludeUnchangedEnabled(false)
+                .setStateFile(parent.getFile())
+                .build();
+    }
+}
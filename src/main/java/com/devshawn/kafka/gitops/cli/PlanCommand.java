@@ -2,14 +2,27 @@ package com.devshawn.kafka.gitops.cli;
 
 import com.devshawn.kafka.gitops.MainCommand;
 import com.devshawn.kafka.gitops.StateManager;
+import com.devshawn.kafka.gitops.config.KafkaClustersConfig;
+import com.devshawn.kafka.gitops.config.KafkaGitopsConfigLoader;
 import com.devshawn.kafka.gitops.config.ManagerConfig;
+import com.devshawn.kafka.gitops.domain.plan.ClusterResult;
 import com.devshawn.kafka.gitops.domain.plan.DesiredPlan;
+import com.devshawn.kafka.gitops.enums.AclCompactionMode;
+import com.devshawn.kafka.gitops.enums.AclPruningMode;
+import com.devshawn.kafka.gitops.enums.OutputFormat;
 import com.devshawn.kafka.gitops.exception.*;
 import com.devshawn.kafka.gitops.service.ParserService;
+import com.devshawn.kafka.gitops.util.BufferedOutput;
 import com.devshawn.kafka.gitops.util.LogUtil;
+import com.devshawn.kafka.gitops.util.PlanEventWriter;
+import com.devshawn.kafka.gitops.util.PlanUtil;
 import picocli.CommandLine;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.Callable;
 
 @CommandLine.Command(name = "plan", description = "Generate an execution plan of changes to Kafka resources.")
@@ -25,17 +38,112 @@ public class PlanCommand implements Callable<Integer> {
     @CommandLine.Option(names = {"--exclude-topics"}, description = "Exclude topic creation from the plan.")
     private boolean excludeTopics = false;
 
+    @CommandLine.Option(names = {"--service"}, paramLabel = "<name>",
+            description = "Only plan ACLs for the principal of the specified service. Can be repeated.")
+    private List<String> scopedServices = new ArrayList<>();
+
+    @CommandLine.Option(names = {"--user"}, paramLabel = "<name>",
+            description = "Only plan ACLs for the principal of the specified user. Can be repeated.")
+    private List<String> scopedUsers = new ArrayList<>();
+
+    @CommandLine.Option(names = {"--topic-prefix"}, paramLabel = "<prefix>",
+            description = "Only plan topics starting with the specified prefix. Can be repeated.")
+    private List<String> scopedTopicPrefixes = new ArrayList<>();
+
+    @CommandLine.Option(names = {"--since"}, paramLabel = "<git-rev>",
+            description = "Only plan topics, services and users added, changed or removed since the specified git revision of the state files.")
+    private String sinceRevision;
+
+    @CommandLine.Option(names = {"--cleanup-consumer-groups"},
+            description = "Delete empty consumer groups whose group ACLs are removed along with their service.")
+    private boolean consumerGroupCleanup = false;
+
+    @CommandLine.Option(names = {"--guard-topic-deletion"},
+            description = "Do not delete topics that still hold records or are assigned to active consumers.")
+    private boolean topicDeletionGuard = false;
+
+    @CommandLine.Option(names = {"--delete-connectors"},
+            description = "Delete connectors found on a Connect cluster that are not defined in the state file.")
+    private boolean connectorDeletion = false;
+
+    @CommandLine.Option(names = {"--compact-acls"}, paramLabel = "<mode>",
+            description = "Find LITERAL topic ACLs replaceable by PREFIXED ACLs and report or apply them. Valid values: ${COMPLETION-CANDIDATES}.")
+    private AclCompactionMode aclCompactionMode;
+
+    @CommandLine.Option(names = {"--prune-redundant-acls"}, paramLabel = "<mode>",
+            description = "Find ACLs already granted by a wildcard or PREFIXED ACL and report or remove them. Valid values: ${COMPLETION-CANDIDATES}.")
+    private AclPruningMode aclPruningMode;
+
+    @CommandLine.Option(names = {"--against-snapshot"}, paramLabel = "<file>",
+            description = "Plan against a cluster snapshot file instead of the live cluster.")
+    private File snapshotFile;
+
+    @CommandLine.Option(names = {"--verify"},
+            description = "Dry-run topic changes against the brokers with validate-only requests and report any rejections.")
+    private boolean verify = false;
+
+    @CommandLine.Option(names = {"--stats"}, description = "Print a breakdown of changes by principal, ACL resource type and topic prefix.")
+    private boolean stats = false;
+
+    @CommandLine.Option(names = {"--output-format"}, paramLabel = "<format>",
+            description = "Format of the plan output. Valid values: ${COMPLETION-CANDIDATES}.")
+    private OutputFormat outputFormat = OutputFormat.TEXT;
+
     @CommandLine.ParentCommand
     private MainCommand parent;
 
     @Override
     public Integer call() {
+        try (BufferedOutput ignored = BufferedOutput.install()) {
+            return outputFormat == OutputFormat.NDJSON ? planAsEvents() : plan();
+        }
+    }
+
+    private Integer planAsEvents() {
+        try {
+            ParserService parserService = new ParserService(parent.getFile());
+            StateManager stateManager = new StateManager(generateStateManagerConfig(), parserService);
+            if (parent.getClustersFile() != null) {
+                KafkaClustersConfig clustersConfig = KafkaGitopsConfigLoader.loadClustersConfig(parent.getClustersFile());
+                List<ClusterResult> results = stateManager.planClusters(clustersConfig, excludeTopics);
+                PlanEventWriter.writeClusterResults(results, parent.isDeleteDisabled(), false);
+                return results.stream().anyMatch(it -> it.getError().isPresent()) ? 2 : 0;
+            }
+            DesiredPlan desiredPlan = stateManager.plan(excludeTopics);
+            PlanEventWriter.writePlan(desiredPlan, parent.isDeleteDisabled(), Optional.empty());
+            return PlanUtil.getVerificationErrors(desiredPlan).isEmpty() ? 0 : 2;
+        } catch (PlanIsUpToDateException ex) {
+            PlanEventWriter.writeNoChanges();
+            return 0;
+        } catch (KafkaExecutionException ex) {
+            PlanEventWriter.writeError(String.format("%s: %s", ex.getMessage(), ex.getExceptionMessage()), Optional.empty());
+        } catch (RuntimeException ex) {
+            PlanEventWriter.writeError(ex.getMessage(), Optional.empty());
+        }
+        return 2;
+    }
+
+    private Integer plan() {
         try {
             System.out.println("Generating execution plan...\n");
             ParserService parserService = new ParserService(parent.getFile());
             StateManager stateManager = new StateManager(generateStateManagerConfig(), parserService);
+            if (parent.getClustersFile() != null) {
+                KafkaClustersConfig clustersConfig = KafkaGitopsConfigLoader.loadClustersConfig(parent.getClustersFile());
+                List<ClusterResult> results = stateManager.planClusters(clustersConfig, excludeTopics);
+                LogUtil.printClusterSummary(results, parent.isDeleteDisabled(), false);
+                return results.stream().anyMatch(it -> it.getError().isPresent()) ? 2 : 0;
+            }
             DesiredPlan desiredPlan = stateManager.plan(excludeTopics);
             LogUtil.printPlan(desiredPlan, parent.isDeleteDisabled());
+            if (stats) {
+                LogUtil.printPlanStatistics(desiredPlan, parent.isDeleteDisabled());
+            }
+            Map<String, String> verificationErrors = PlanUtil.getVerificationErrors(desiredPlan);
+            if (!verificationErrors.isEmpty()) {
+                LogUtil.printVerificationFailure(verificationErrors);
+                return 2;
+            }
             return 0;
         } catch (PlanIsUpToDateException ex) {
             LogUtil.printNoChangesMessage();
@@ -44,8 +152,14 @@ public class PlanCommand implements Callable<Integer> {
             LogUtil.printGenericError(ex);
         } catch (ValidationException ex) {
             LogUtil.printValidationResult(ex.getMessage(), false);
+        } catch (KafkaConnectException ex) {
+            LogUtil.printGenericError(ex);
         } catch (KafkaExecutionException ex) {
             LogUtil.printKafkaExecutionError(ex);
+        } catch (ReadSnapshotInputException ex) {
+            LogUtil.printGenericError(ex);
+        } catch (ReadStateRevisionException ex) {
+            LogUtil.printGenericError(ex);
         } catch (WritePlanOutputException ex) {
             LogUtil.printPlanOutputError(ex);
         }
@@ -58,7 +172,19 @@ public class PlanCommand implements Callable<Integer> {
                 .setDeleteDisabled(parent.isDeleteDisabled())
                 .setIncludeUnchangedEnabled(includeUnchanged)
                 .setStateFile(parent.getFile())
+                .setNullableAclCompactionMode(aclCompactionMode)
+                .setNullableAclPruningMode(aclPruningMode)
+                .setConsumerGroupCleanupEnabled(consumerGroupCleanup)
+                .setTopicDeletionGuardEnabled(topicDeletionGuard)
+                .setConnectorDeletionEnabled(connectorDeletion)
                 .setNullablePlanFile(outputFile)
+                .setNullableSnapshotFile(snapshotFile)
+                .setNullableSinceRevision(sinceRevision)
+                .setVerifyEnabled(verify)
+                .setOutputFormat(outputFormat)
+                .addAllScopedServices(scopedServices)
+                .addAllScopedUsers(scopedUsers)
+                .addAllScopedTopicPrefixes(scopedTopicPrefixes)
                 .build();
     }
 }
@@ -0,0 +1,53 @@
+package com.devshawn.kafka.gitops.cli;
+
+import com.devshawn.kafka.gitops.MainCommand;
+import com.devshawn.kafka.gitops.StateManager;
+import com.devshawn.kafka.gitops.config.ManagerConfig;
+import com.devshawn.kafka.gitops.domain.snapshot.ClusterSnapshot;
+import com.devshawn.kafka.gitops.exception.KafkaExecutionException;
+import com.devshawn.kafka.gitops.exception.MissingConfigurationException;
+import com.devshawn.kafka.gitops.exception.WriteSnapshotOutputException;
+import com.devshawn.kafka.gitops.service.ParserService;
+import com.devshawn.kafka.gitops.util.LogUtil;
+import picocli.CommandLine;
+
+import java.io.File;
+import java.util.concurrent.Callable;
+
+@CommandLine.Command(name = "snapshot", description = "Capture the topics and ACLs of a cluster to a snapshot file for offline planning.")
+public class SnapshotCommand implements Callable<Integer> {
+
+    @CommandLine.Option(names = {"-o", "--output"}, paramLabel = "<file>", required = true,
+            description = "Specify the output file for the snapshot.")
+    private File outputFile;
+
+    @CommandLine.ParentCommand
+    private MainCommand parent;
+
+    @Override
+    public Integer call() {
+        try {
+            System.out.println("Capturing cluster snapshot...\n");
+            ParserService parserService = new ParserService(parent.getFile());
+            StateManager stateManager = new StateManager(generateStateManagerConfig(), parserService);
+            ClusterSnapshot snapshot = stateManager.snapshot(outputFile);
+            LogUtil.printSimpleSuccess(String.format("Captured %s topics and %s ACLs to %s.",
+                    snapshot.getTopics().size(), snapshot.getAcls().size(), outputFile));
+            return 0;
+        } catch (MissingConfigurationException | WriteSnapshotOutputException ex) {
+            LogUtil.printSimpleError(ex.getMessage());
+        } catch (KafkaExecutionException ex) {
+            LogUtil.printSimpleError(String.format("%s: %s", ex.getMessage(), ex.getExceptionMessage()));
+        }
+        return 2;
+    }
+
+    private ManagerConfig generateStateManagerConfig() {
+        return new ManagerConfig.Builder()
+                .setVerboseRequested(parent.isVerboseRequested())
+                .setDeleteDisabled(parent.isDeleteDisabled())
+                .setIncludeUnchangedEnabled(false)
+                .setStateFile(parent.getFile())
+                .build();
+    }
+}
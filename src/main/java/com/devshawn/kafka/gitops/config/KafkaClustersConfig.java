@@ -0,0 +1,19 @@
+package com.devshawn.kafka.gitops.config;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.inferred.freebuilder.FreeBuilder;
+
+import java.util.Map;
+import java.util.Optional;
+
+@FreeBuilder
+@JsonDeserialize(builder = KafkaClustersConfig.Builder.class)
+public interface KafkaClustersConfig {
+
+    Optional<Integer> getParallelism();
+
+    Map<String, Map<String, String>> getClusters();
+
+    class Builder extends KafkaClustersConfig_Builder {
+    }
+}
@@ -1,25 +1,88 @@
 package com.devshawn.kafka.gitops.config;
 
 import com.devshawn.kafka.gitops.exception.MissingConfigurationException;
+import com.devshawn.kafka.gitops.exception.ValidationException;
 import com.devshawn.kafka.gitops.util.LogUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import org.apache.kafka.clients.CommonClientConfigs;
 import org.apache.kafka.common.config.SaslConfigs;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class KafkaGitopsConfigLoader {
 
     private static org.slf4j.Logger log = LoggerFactory.getLogger(KafkaGitopsConfigLoader.class);
 
+    private static final Pattern ENVIRONMENT_VARIABLE = Pattern.compile("\\$\\{([A-Za-z0-9_]+)(:-([^}]*))?}");
+
     public static KafkaGitopsConfig load() {
         KafkaGitopsConfig.Builder builder = new KafkaGitopsConfig.Builder();
         setConfig(builder);
         return builder.build();
     }
 
+    public static KafkaClustersConfig loadClustersConfig(File clustersFile) {
+        ObjectMapper objectMapper = new ObjectMapper(new YAMLFactory());
+        objectMapper.registerModule(new Jdk8Module());
+        try {
+            KafkaClustersConfig clustersConfig = objectMapper.readValue(clustersFile, KafkaClustersConfig.class);
+            if (clustersConfig.getClusters().isEmpty()) {
+                throw new ValidationException("The clusters file does not define any clusters.");
+            }
+            if (clustersConfig.getParallelism().isPresent() && clustersConfig.getParallelism().get() < 1) {
+                throw new ValidationException("The clusters file parallelism must be a positive integer.");
+            }
+            return clustersConfig;
+        } catch (FileNotFoundException ex) {
+            throw new ValidationException("The specified clusters file could not be found.");
+        } catch (IOException ex) {
+            throw new ValidationException(String.format("Invalid clusters file: %s", ex.getMessage().split("\n")[0]));
+        }
+    }
+
+    public static Map<String, KafkaGitopsConfig> loadClusters(KafkaClustersConfig clustersConfig) {
+        Map<String, KafkaGitopsConfig> clusters = new LinkedHashMap<>();
+        clustersConfig.getClusters().forEach((name, properties) -> {
+            Map<String, Object> config = new HashMap<>();
+            AtomicReference<String> username = new AtomicReference<>();
+            AtomicReference<String> password = new AtomicReference<>();
+
+            properties.forEach((key, value) -> {
+                String resolvedValue = resolveEnvironmentVariables(value, System.getenv());
+                if (key.equals("sasl.jaas.username")) {
+                    username.set(resolvedValue);
+                } else if (key.equals("sasl.jaas.password")) {
+                    password.set(resolvedValue);
+                } else {
+                    config.put(key, resolvedValue);
+                }
+            });
+
+            if (!config.containsKey(CommonClientConfigs.BOOTSTRAP_SERVERS_CONFIG)) {
+                throw new MissingConfigurationException(getClusterKey(name, CommonClientConfigs.BOOTSTRAP_SERVERS_CONFIG));
+            }
+            handleDefaultConfig(config);
+            handleAuthentication(username, password, config, key -> getClusterKey(name, key));
+
+            log.info("Kafka Config for cluster {}: {}", name, config.keySet());
+
+            clusters.put(name, new KafkaGitopsConfig.Builder().putAllConfig(config).build());
+        });
+        return clusters;
+    }
+
     private static void setConfig(KafkaGitopsConfig.Builder builder) {
         Map<String, Object> config = new HashMap<>();
         AtomicReference<String> username = new AtomicReference<>();
@@ -39,13 +102,31 @@ public class KafkaGitopsConfigLoader {
         });
 
         handleDefaultConfig(config);
-        handleAuthentication(username, password, config);
+        handleAuthentication(username, password, config, key -> "KAFKA_" + key.replace(".", "_").toUpperCase());
 
         log.info("Kafka Config: {}", config);
 
         builder.putAllConfig(config);
     }
 
+    /*
+     * Replaces ${VARIABLE} with the value of the environment variable, or with the default given as
+     * ${VARIABLE:-default} when it is not set.
+     */
+    static String resolveEnvironmentVariables(String value, Map<String, String> environment) {
+        Matcher matcher = ENVIRONMENT_VARIABLE.matcher(value);
+        StringBuffer result = new StringBuffer();
+        while (matcher.find()) {
+            String environmentValue = environment.getOrDefault(matcher.group(1), matcher.group(3));
+            if (environmentValue == null) {
+                throw new MissingConfigurationException(matcher.group(1));
+            }
+            matcher.appendReplacement(result, Matcher.quoteReplacement(environmentValue));
+        }
+        matcher.appendTail(result);
+        return result.toString();
+    }
+
     private static void handleDefaultConfig(Map<String, Object> config) {
         if (!config.containsKey(CommonClientConfigs.BOOTSTRAP_SERVERS_CONFIG)) {
             LogUtil.printSimpleWarning(String.format("%s property missing, defaulting to localhost:9092", CommonClientConfigs.BOOTSTRAP_SERVERS_CONFIG));
@@ -57,25 +138,35 @@ public class KafkaGitopsConfigLoader {
         }
     }
 
-    private static void handleAuthentication(AtomicReference<String> username, AtomicReference<String> password, Map<String, Object> config) {
+    private static String getClusterKey(String clusterName, String key) {
+        return String.format("%s for cluster %s", key, clusterName);
+    }
+
+    /*
+     * Missing settings are reported by the name they are given under, e.g. KAFKA_SASL_MECHANISM for the environment
+     * or sasl.mechanism for a cluster in the clusters file.
+     */
+    private static void handleAuthentication(AtomicReference<String> username, AtomicReference<String> password, Map<String, Object> config,
+                                             Function<String, String> keyName) {
         if (username.get() != null && password.get() != null) {
             // Do we need the Plain or SCRAM module?
+            Object mechanism = config.get(SaslConfigs.SASL_MECHANISM);
             String loginModule = null;
-            if (config.get(SaslConfigs.SASL_MECHANISM).equals("PLAIN")) {
+            if ("PLAIN".equals(mechanism)) {
                 loginModule = "org.apache.kafka.common.security.plain.PlainLoginModule";
-            } else if (config.get(SaslConfigs.SASL_MECHANISM).equals("SCRAM-SHA-256") || config.get(SaslConfigs.SASL_MECHANISM).equals("SCRAM-SHA-512")) {
+            } else if ("SCRAM-SHA-256".equals(mechanism) || "SCRAM-SHA-512".equals(mechanism)) {
                 loginModule = "org.apache.kafka.common.security.scram.ScramLoginModule";
             } else {
-                throw new MissingConfigurationException("KAFKA_SASL_MECHANISM");
+                throw new MissingConfigurationException(keyName.apply(SaslConfigs.SASL_MECHANISM));
             }
 
             String value = String.format("%s required username=\"%s\" password=\"%s\";",
                     loginModule, username.get(), password.get());
             config.put(SaslConfigs.SASL_JAAS_CONFIG, value);
         } else if (username.get() != null) {
-            throw new MissingConfigurationException("KAFKA_SASL_JAAS_PASSWORD");
+            throw new MissingConfigurationException(keyName.apply("sasl.jaas.password"));
         } else if (password.get() != null) {
-            throw new MissingConfigurationException("KAFKA_SASL_JAAS_USERNAME");
+            throw new MissingConfigurationException(keyName.apply("sasl.jaas.username"));
         }
     }
 }
@@ -1,9 +1,15 @@
 package com.devshawn.kafka.gitops.config;
 
+import com.devshawn.kafka.gitops.domain.cluster.HealthGate;
+import com.devshawn.kafka.gitops.domain.plan.PlanShard;
+import com.devshawn.kafka.gitops.enums.AclCompactionMode;
+import com.devshawn.kafka.gitops.enums.AclPruningMode;
+import com.devshawn.kafka.gitops.enums.OutputFormat;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import org.inferred.freebuilder.FreeBuilder;
 
 import java.io.File;
+import java.util.List;
 import java.util.Optional;
 
 @FreeBuilder
@@ -20,6 +26,79 @@ public interface ManagerConfig {
 
     Optional<File> getPlanFile();
 
+    Optional<String> getClusterName();
+
+    Optional<File> getSnapshotFile();
+
+    List<String> getScopedServices();
+
+    List<String> getScopedUsers();
+
+    List<String> getScopedTopicPrefixes();
+
+    List<String> getScopedTopics();
+
+    List<String> getScopedPrincipals();
+
+    Optional<String> getSinceRevision();
+
+    Optional<PlanShard> getShard();
+
+    Optional<File> getJournalFile();
+
+    boolean isLeaseEnabled();
+
+    boolean isConsumerGroupCleanupEnabled();
+
+    boolean isConnectorDeletionEnabled();
+
+    boolean isTopicDeletionGuardEnabled();
+
+    int getTopicDeletionWaveSize();
+
+    long getLeaseWaitSeconds();
+
+    Optional<Long> getTopicConvergenceTimeoutSeconds();
+
+    Optional<HealthGate> getHealthGate();
+
+    Optional<File> getHealthMetricsFile();
+
+    Optional<AclCompactionMode> getAclCompactionMode();
+
+    Optional<AclPruningMode> getAclPruningMode();
+
+    boolean isVerifyEnabled();
+
+    OutputFormat getOutputFormat();
+
+    default boolean isScoped() {
+        return isPrincipalScoped() || isTopicScoped();
+    }
+
+    default boolean isPrincipalScoped() {
+        return !getScopedServices().isEmpty() || !getScopedUsers().isEmpty() || !getScopedPrincipals().isEmpty();
+    }
+
+    default boolean isTopicScoped() {
+        return !getScopedTopicPrefixes().isEmpty() || !getScopedTopics().isEmpty();
+    }
+
+    default boolean isTopicInScope(String topicName) {
+        return getScopedTopics().contains(topicName) || getScopedTopicPrefixes().stream().anyMatch(topicName::startsWith);
+    }
+
     class Builder extends ManagerConfig_Builder {
+
+        public Builder() {
+            setVerifyEnabled(false);
+            setLeaseEnabled(false);
+            setConsumerGroupCleanupEnabled(false);
+            setConnectorDeletionEnabled(false);
+            setTopicDeletionGuardEnabled(false);
+            setTopicDeletionWaveSize(1);
+            setLeaseWaitSeconds(0);
+            setOutputFormat(OutputFormat.TEXT);
+        }
     }
 }
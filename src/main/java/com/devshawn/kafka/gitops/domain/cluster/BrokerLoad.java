@@ -0,0 +1,22 @@
+package com.devshawn.kafka.gitops.domain.cluster;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.inferred.freebuilder.FreeBuilder;
+
+import java.util.Optional;
+
+@FreeBuilder
+@JsonDeserialize(builder = BrokerLoad.Builder.class)
+public interface BrokerLoad {
+
+    int getId();
+
+    Optional<String> getRack();
+
+    int getReplicas();
+
+    int getLeaders();
+
+    class Builder extends BrokerLoad_Builder {
+    }
+}
@@ -0,0 +1,24 @@
+package com.devshawn.kafka.gitops.domain.cluster;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.inferred.freebuilder.FreeBuilder;
+
+@FreeBuilder
+@JsonDeserialize(builder = ClusterHealth.Builder.class)
+public interface ClusterHealth {
+
+    int getBrokers();
+
+    int getPartitions();
+
+    int getUnderReplicatedPartitions();
+
+    int getOfflinePartitions();
+
+    int getReassigningPartitions();
+
+    long getControllerResponseMs();
+
+    class Builder extends ClusterHealth_Builder {
+    }
+}
@@ -0,0 +1,18 @@
+package com.devshawn.kafka.gitops.domain.cluster;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.inferred.freebuilder.FreeBuilder;
+
+@FreeBuilder
+@JsonDeserialize(builder = HealthGate.Builder.class)
+public interface HealthGate {
+
+    int getMaxUnderReplicatedPartitions();
+
+    int getMaxOfflinePartitions();
+
+    long getMaxControllerResponseMs();
+
+    class Builder extends HealthGate_Builder {
+    }
+}
@@ -0,0 +1,35 @@
+package com.devshawn.kafka.gitops.domain.lease;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.inferred.freebuilder.FreeBuilder;
+
+import java.util.Optional;
+import java.util.Set;
+
+@FreeBuilder
+@JsonDeserialize(builder = ApplyLease.Builder.class)
+public interface ApplyLease {
+
+    String getId();
+
+    String getOwner();
+
+    Set<String> getResources();
+
+    long getExpiresAt();
+
+    @JsonInclude(JsonInclude.Include.NON_ABSENT)
+    Optional<Long> getAcquiredOffset();
+
+    default boolean isExpired(long now) {
+        return getExpiresAt() <= now;
+    }
+
+    default boolean overlaps(Set<String> resources) {
+        return getResources().stream().anyMatch(resources::contains);
+    }
+
+    class Builder extends ApplyLease_Builder {
+    }
+}
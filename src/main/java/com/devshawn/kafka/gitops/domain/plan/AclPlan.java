@@ -2,9 +2,12 @@ package com.devshawn.kafka.gitops.domain.plan;
 
 import com.devshawn.kafka.gitops.domain.state.AclDetails;
 import com.devshawn.kafka.gitops.enums.PlanAction;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import org.inferred.freebuilder.FreeBuilder;
 
+import java.util.List;
+
 @FreeBuilder
 @JsonDeserialize(builder = AclPlan.Builder.class)
 public interface AclPlan {
@@ -15,6 +18,9 @@ public interface AclPlan {
 
     PlanAction getAction();
 
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    List<String> getSourceNames();
+
     class Builder extends AclPlan_Builder {
     }
 }
@@ -0,0 +1,25 @@
+package com.devshawn.kafka.gitops.domain.plan;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.inferred.freebuilder.FreeBuilder;
+
+import java.util.List;
+import java.util.Optional;
+
+@FreeBuilder
+@JsonDeserialize(builder = ApplyJournal.Builder.class)
+public interface ApplyJournal {
+
+    @JsonInclude(JsonInclude.Include.NON_ABSENT)
+    Optional<PlanShard> getShard();
+
+    long getPlannedChanges();
+
+    List<JournalEntry> getApplied();
+
+    List<String> getErrors();
+
+    class Builder extends ApplyJournal_Builder {
+    }
+}
@@ -0,0 +1,22 @@
+package com.devshawn.kafka.gitops.domain.plan;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.inferred.freebuilder.FreeBuilder;
+
+import java.util.Optional;
+
+@FreeBuilder
+@JsonDeserialize(builder = ClusterResult.Builder.class)
+public interface ClusterResult {
+
+    String getName();
+
+    Optional<DesiredPlan> getDesiredPlan();
+
+    Optional<String> getError();
+
+    long getDurationMs();
+
+    class Builder extends ClusterResult_Builder {
+    }
+}
@@ -0,0 +1,21 @@
+package com.devshawn.kafka.gitops.domain.plan;
+
+import com.devshawn.kafka.gitops.enums.PlanAction;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.inferred.freebuilder.FreeBuilder;
+
+import java.util.Optional;
+
+@FreeBuilder
+@JsonDeserialize(builder = ConnectorConfigPlan.Builder.class)
+public interface ConnectorConfigPlan {
+
+    String getKey();
+
+    Optional<String> getValue();
+
+    PlanAction getAction();
+
+    class Builder extends ConnectorConfigPlan_Builder {
+    }
+}
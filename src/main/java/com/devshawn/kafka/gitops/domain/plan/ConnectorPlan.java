@@ -0,0 +1,32 @@
+package com.devshawn.kafka.gitops.domain.plan;
+
+import com.devshawn.kafka.gitops.enums.PlanAction;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.inferred.freebuilder.FreeBuilder;
+
+import java.util.List;
+import java.util.Map;
+
+@FreeBuilder
+@JsonDeserialize(builder = ConnectorPlan.Builder.class)
+public interface ConnectorPlan {
+
+    String getName();
+
+    String getConnectUrl();
+
+    PlanAction getAction();
+
+    Map<String, String> getConfig();
+
+    List<ConnectorConfigPlan> getConnectorConfigPlans();
+
+    default ConnectorPlan toChangesOnlyPlan() {
+        ConnectorPlan.Builder builder = new ConnectorPlan.Builder().setName(getName()).setConnectUrl(getConnectUrl()).setAction(getAction()).putAllConfig(getConfig());
+        getConnectorConfigPlans().stream().filter(it -> !it.getAction().equals(PlanAction.NO_CHANGE)).forEach(builder::addConnectorConfigPlans);
+        return builder.build();
+    }
+
+    class Builder extends ConnectorPlan_Builder {
+    }
+}
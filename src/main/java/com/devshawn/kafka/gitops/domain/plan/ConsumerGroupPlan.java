@@ -0,0 +1,17 @@
+package com.devshawn.kafka.gitops.domain.plan;
+
+import com.devshawn.kafka.gitops.enums.PlanAction;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.inferred.freebuilder.FreeBuilder;
+
+@FreeBuilder
+@JsonDeserialize(builder = ConsumerGroupPlan.Builder.class)
+public interface ConsumerGroupPlan {
+
+    String getName();
+
+    PlanAction getAction();
+
+    class Builder extends ConsumerGroupPlan_Builder {
+    }
+}
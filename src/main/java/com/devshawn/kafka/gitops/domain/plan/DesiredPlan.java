@@ -1,6 +1,7 @@
 package com.devshawn.kafka.gitops.domain.plan;
 
 import com.devshawn.kafka.gitops.enums.PlanAction;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import org.inferred.freebuilder.FreeBuilder;
 
@@ -14,12 +15,24 @@ public interface DesiredPlan {
 
     List<AclPlan> getAclPlans();
 
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    List<QuotaPlan> getQuotaPlans();
+
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    List<ConnectorPlan> getConnectorPlans();
+
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    List<ConsumerGroupPlan> getConsumerGroupPlans();
+
     default DesiredPlan toChangesOnlyPlan() {
         DesiredPlan.Builder builder = new DesiredPlan.Builder();
         if (getTopicPlans() != null) {
             getTopicPlans().stream().filter(it -> !it.getAction().equals(PlanAction.NO_CHANGE)).map(TopicPlan::toChangesOnlyPlan).forEach(builder::addTopicPlans);
         }
         getAclPlans().stream().filter(it -> !it.getAction().equals(PlanAction.NO_CHANGE)).forEach(builder::addAclPlans);
+        getQuotaPlans().stream().filter(it -> !it.getAction().equals(PlanAction.NO_CHANGE)).map(QuotaPlan::toChangesOnlyPlan).forEach(builder::addQuotaPlans);
+        getConnectorPlans().stream().filter(it -> !it.getAction().equals(PlanAction.NO_CHANGE)).map(ConnectorPlan::toChangesOnlyPlan).forEach(builder::addConnectorPlans);
+        getConsumerGroupPlans().stream().filter(it -> !it.getAction().equals(PlanAction.NO_CHANGE)).forEach(builder::addConsumerGroupPlans);
         return builder.build();
     }
 
@@ -0,0 +1,19 @@
+package com.devshawn.kafka.gitops.domain.plan;
+
+import com.devshawn.kafka.gitops.enums.PlanAction;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.inferred.freebuilder.FreeBuilder;
+
+@FreeBuilder
+@JsonDeserialize(builder = JournalEntry.Builder.class)
+public interface JournalEntry {
+
+    String getResource();
+
+    String getName();
+
+    PlanAction getAction();
+
+    class Builder extends JournalEntry_Builder {
+    }
+}
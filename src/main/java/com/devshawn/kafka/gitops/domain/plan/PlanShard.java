@@ -0,0 +1,16 @@
+package com.devshawn.kafka.gitops.domain.plan;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.inferred.freebuilder.FreeBuilder;
+
+@FreeBuilder
+@JsonDeserialize(builder = PlanShard.Builder.class)
+public interface PlanShard {
+
+    int getIndex();
+
+    int getCount();
+
+    class Builder extends PlanShard_Builder {
+    }
+}
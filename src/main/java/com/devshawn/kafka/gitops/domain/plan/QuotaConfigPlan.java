@@ -0,0 +1,21 @@
+package com.devshawn.kafka.gitops.domain.plan;
+
+import com.devshawn.kafka.gitops.enums.PlanAction;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.inferred.freebuilder.FreeBuilder;
+
+import java.util.Optional;
+
+@FreeBuilder
+@JsonDeserialize(builder = QuotaConfigPlan.Builder.class)
+public interface QuotaConfigPlan {
+
+    String getKey();
+
+    Optional<Double> getValue();
+
+    PlanAction getAction();
+
+    class Builder extends QuotaConfigPlan_Builder {
+    }
+}
@@ -0,0 +1,50 @@
+package com.devshawn.kafka.gitops.domain.plan;
+
+import com.devshawn.kafka.gitops.enums.PlanAction;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.inferred.freebuilder.FreeBuilder;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@FreeBuilder
+@JsonDeserialize(builder = QuotaPlan.Builder.class)
+public interface QuotaPlan {
+
+    String getName();
+
+    Optional<String> getUser();
+
+    Optional<String> getClientId();
+
+    PlanAction getAction();
+
+    List<QuotaConfigPlan> getQuotaConfigPlans();
+
+    default QuotaPlan toChangesOnlyPlan() {
+        QuotaPlan.Builder builder = new QuotaPlan.Builder().setName(getName()).setUser(getUser()).setClientId(getClientId()).setAction(getAction());
+        getQuotaConfigPlans().stream().filter(it -> !it.getAction().equals(PlanAction.NO_CHANGE)).forEach(builder::addQuotaConfigPlans);
+        return builder.build();
+    }
+
+    /*
+     * With deletes disabled, quota configs planned for removal are left in place. An update with nothing else to
+     * change becomes unchanged.
+     */
+    default QuotaPlan withoutConfigRemovals() {
+        List<QuotaConfigPlan> quotaConfigPlans = getQuotaConfigPlans().stream()
+                .filter(it -> it.getAction() != PlanAction.REMOVE)
+                .collect(Collectors.toList());
+        boolean changed = quotaConfigPlans.stream().anyMatch(it -> it.getAction() != PlanAction.NO_CHANGE);
+        return new QuotaPlan.Builder()
+                .mergeFrom(this)
+                .clearQuotaConfigPlans()
+                .addAllQuotaConfigPlans(quotaConfigPlans)
+                .setAction(getAction() == PlanAction.UPDATE && !changed ? PlanAction.NO_CHANGE : getAction())
+                .build();
+    }
+
+    class Builder extends QuotaPlan_Builder {
+    }
+}
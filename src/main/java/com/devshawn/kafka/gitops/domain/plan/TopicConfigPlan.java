@@ -1,7 +1,10 @@
 package com.devshawn.kafka.gitops.domain.plan;
 
 import com.devshawn.kafka.gitops.enums.PlanAction;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.apache.kafka.clients.admin.AlterConfigOp;
+import org.apache.kafka.clients.admin.ConfigEntry;
 import org.inferred.freebuilder.FreeBuilder;
 
 import java.util.Optional;
@@ -16,6 +19,18 @@ public interface TopicConfigPlan {
 
     PlanAction getAction();
 
+    @JsonIgnore
+    default Optional<AlterConfigOp> toAlterConfigOp() {
+        ConfigEntry configEntry = new ConfigEntry(getKey(), getValue().orElse(null));
+        // TODO: Make OpType work with append/subtract
+        if (getAction() == PlanAction.ADD || getAction() == PlanAction.UPDATE) {
+            return Optional.of(new AlterConfigOp(configEntry, AlterConfigOp.OpType.SET));
+        } else if (getAction() == PlanAction.REMOVE) {
+            return Optional.of(new AlterConfigOp(configEntry, AlterConfigOp.OpType.DELETE));
+        }
+        return Optional.empty();
+    }
+
     class Builder extends TopicConfigPlan_Builder {
     }
 }
@@ -2,10 +2,12 @@ package com.devshawn.kafka.gitops.domain.plan;
 
 import com.devshawn.kafka.gitops.domain.state.TopicDetails;
 import com.devshawn.kafka.gitops.enums.PlanAction;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import org.inferred.freebuilder.FreeBuilder;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @FreeBuilder
@@ -20,8 +22,33 @@ public interface TopicPlan {
 
     List<TopicConfigPlan> getTopicConfigPlans();
 
+    /*
+     * The planned replicas of each partition of a new topic with balanced placement, preferred leader first.
+     */
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    Map<Integer, List<Integer>> getReplicaAssignments();
+
+    /*
+     * The broker's reason for rejecting this change in a validate-only request, present only for verified plans.
+     */
+    @JsonInclude(JsonInclude.Include.NON_ABSENT)
+    Optional<String> getVerificationError();
+
+    /*
+     * Why the deletion guard holds back this removal, present only for removals of topics that still hold records or
+     * are assigned to consumers. Blocked removals are reported but not applied.
+     */
+    @JsonInclude(JsonInclude.Include.NON_ABSENT)
+    Optional<String> getDeletionBlocker();
+
     default TopicPlan toChangesOnlyPlan() {
-        TopicPlan.Builder builder = new TopicPlan.Builder().setName(getName()).setAction(getAction()).setTopicDetails(getTopicDetails());
+        TopicPlan.Builder builder = new TopicPlan.Builder()
+                .setName(getName())
+                .setAction(getAction())
+                .setTopicDetails(getTopicDetails())
+                .setVerificationError(getVerificationError())
+                .setDeletionBlocker(getDeletionBlocker())
+                .putAllReplicaAssignments(getReplicaAssignments());
         getTopicConfigPlans().stream().filter(it -> !it.getAction().equals(PlanAction.NO_CHANGE)).forEach(builder::addTopicConfigPlans);
         return builder.build();
     }
@@ -0,0 +1,23 @@
+package com.devshawn.kafka.gitops.domain.snapshot;
+
+import com.devshawn.kafka.gitops.domain.state.AclDetails;
+import com.devshawn.kafka.gitops.domain.state.TopicDetails;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.inferred.freebuilder.FreeBuilder;
+
+import java.util.List;
+import java.util.Map;
+
+@FreeBuilder
+@JsonDeserialize(builder = ClusterSnapshot.Builder.class)
+public interface ClusterSnapshot {
+
+    long getCapturedAt();
+
+    Map<String, TopicDetails> getTopics();
+
+    List<AclDetails> getAcls();
+
+    class Builder extends ClusterSnapshot_Builder {
+    }
+}
@@ -4,81 +4,32 @@ import java.util.Optional;
 
 public abstract class AbstractService {
 
-    public AclDetails.Builder generateReadAcl(String topic, Optional<String> principal) {
-        AclDetails.Builder builder = new AclDetails.Builder()
-                .setHost("*")
-                .setName(topic)
-                .setOperation("READ")
-                .setPermission("ALLOW")
-                .setPattern("LITERAL")
-                .setType("TOPIC");
+    protected static final AclTemplate TOPIC_READ = AclTemplate.literalTopic("READ");
+    protected static final AclTemplate TOPIC_WRITE = AclTemplate.literalTopic("WRITE");
+    protected static final AclTemplate TOPIC_DESCRIBE = AclTemplate.literalTopic("DESCRIBE");
+    protected static final AclTemplate GROUP_READ = AclTemplate.group("READ");
 
-        principal.ifPresent(builder::setPrincipal);
-        return builder;
+    public AclDetails.Builder generateReadAcl(String topic, Optional<String> principal) {
+        return TOPIC_READ.bind(topic, principal);
     }
 
     public AclDetails.Builder generateWriteACL(String topic, Optional<String> principal) {
-        AclDetails.Builder builder = new AclDetails.Builder()
-                .setHost("*")
-                .setName(topic)
-                .setOperation("WRITE")
-                .setPermission("ALLOW")
-                .setPattern("LITERAL")
-                .setType("TOPIC");
-
-        principal.ifPresent(builder::setPrincipal);
-        return builder;
+        return TOPIC_WRITE.bind(topic, principal);
     }
 
     public AclDetails.Builder generateDescribeAcl(String topic, Optional<String> principal) {
-        AclDetails.Builder builder = new AclDetails.Builder()
-                .setHost("*")
-                .setName(topic)
-                .setOperation("DESCRIBE")
-                .setPermission("ALLOW")
-                .setPattern("LITERAL")
-                .setType("TOPIC");
-
-        principal.ifPresent(builder::setPrincipal);
-        return builder;
+        return TOPIC_DESCRIBE.bind(topic, principal);
     }
 
     public AclDetails.Builder generatePrefixedTopicACL(String topic, Optional<String> principal, String operation) {
-        AclDetails.Builder builder = new AclDetails.Builder()
-                .setHost("*")
-                .setName(topic)
-                .setOperation(operation)
-                .setPermission("ALLOW")
-                .setPattern("PREFIXED")
-                .setType("TOPIC");
-
-        principal.ifPresent(builder::setPrincipal);
-        return builder;
+        return AclTemplate.prefixedTopic(operation).bind(topic, principal);
     }
 
     public AclDetails.Builder generateConsumerGroupAcl(String consumerGroupId, Optional<String> principal, String operation) {
-        AclDetails.Builder builder = new AclDetails.Builder()
-                .setHost("*")
-                .setName(consumerGroupId)
-                .setOperation(operation)
-                .setPermission("ALLOW")
-                .setPattern("LITERAL")
-                .setType("GROUP");
-
-        principal.ifPresent(builder::setPrincipal);
-        return builder;
+        return AclTemplate.group(operation).bind(consumerGroupId, principal);
     }
 
     public AclDetails.Builder generateClusterAcl(Optional<String> principal, String operation) {
-        AclDetails.Builder builder = new AclDetails.Builder()
-                .setHost("*")
-                .setName("kafka-cluster")
-                .setOperation(operation)
-                .setPermission("ALLOW")
-                .setPattern("LITERAL")
-                .setType("CLUSTER");
-
-        principal.ifPresent(builder::setPrincipal);
-        return builder;
+        return AclTemplate.cluster(operation).bind(principal);
     }
 }
@@ -0,0 +1,22 @@
+package com.devshawn.kafka.gitops.domain.state;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.inferred.freebuilder.FreeBuilder;
+
+import java.util.List;
+
+@FreeBuilder
+@JsonDeserialize(builder = AclCompaction.Builder.class)
+public interface AclCompaction {
+
+    String getName();
+
+    AclDetails getAclDetails();
+
+    List<String> getReplacedAcls();
+
+    List<String> getReplacedTopics();
+
+    class Builder extends AclCompaction_Builder {
+    }
+}
@@ -0,0 +1,20 @@
+package com.devshawn.kafka.gitops.domain.state;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.inferred.freebuilder.FreeBuilder;
+
+import java.util.List;
+
+@FreeBuilder
+@JsonDeserialize(builder = AclDuplicate.Builder.class)
+public interface AclDuplicate {
+
+    String getName();
+
+    AclDetails getAclDetails();
+
+    List<String> getSourceNames();
+
+    class Builder extends AclDuplicate_Builder {
+    }
+}
@@ -0,0 +1,131 @@
+package com.devshawn.kafka.gitops.domain.state;
+
+import org.apache.kafka.common.acl.AclOperation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/*
+ * An immutable ACL definition with everything but the principal (and optionally the resource name) fixed. Services
+ * and roles hold their common templates as constants and only bind the variable parts at generation time; each bound
+ * ACL is still one AclDetails.Builder.
+ *
+ * The topic, group and cluster templates are precomputed for every Kafka ACL operation, so looking one up by its
+ * operation returns a shared instance instead of building a new template.
+ */
+public final class AclTemplate {
+
+    private static final String WILDCARD_HOST = "*";
+    private static final String CLUSTER_NAME = "kafka-cluster";
+
+    private static final Map<String, AclTemplate> LITERAL_TOPICS = precompute("TOPIC", "LITERAL", null);
+    private static final Map<String, AclTemplate> PREFIXED_TOPICS = precompute("TOPIC", "PREFIXED", null);
+    private static final Map<String, AclTemplate> GROUPS = precompute("GROUP", "LITERAL", null);
+    private static final Map<String, AclTemplate> CLUSTERS = precompute("CLUSTER", "LITERAL", CLUSTER_NAME);
+
+    private final String type;
+    private final String pattern;
+    private final String operation;
+    private final String permission;
+    private final String name;
+
+    private AclTemplate(String type, String pattern, String operation, String permission, String name) {
+        this.type = type;
+        this.pattern = pattern;
+        this.operation = operation;
+        this.permission = permission;
+        this.name = name;
+    }
+
+    public static AclTemplate of(String type, String pattern, String operation) {
+        return new AclTemplate(type, pattern, operation, "ALLOW", null);
+    }
+
+    public static AclTemplate literalTopic(String operation) {
+        return lookup(LITERAL_TOPICS, "TOPIC", "LITERAL", operation, null);
+    }
+
+    public static AclTemplate prefixedTopic(String operation) {
+        return lookup(PREFIXED_TOPICS, "TOPIC", "PREFIXED", operation, null);
+    }
+
+    public static AclTemplate group(String operation) {
+        return lookup(GROUPS, "GROUP", "LITERAL", operation, null);
+    }
+
+    public static AclTemplate cluster(String operation) {
+        return lookup(CLUSTERS, "CLUSTER", "LITERAL", operation, CLUSTER_NAME);
+    }
+
+    private static Map<String, AclTemplate> precompute(String type, String pattern, String name) {
+        Map<String, AclTemplate> templates = new HashMap<>();
+        for (AclOperation operation : AclOperation.values()) {
+            templates.put(operation.name(), new AclTemplate(type, pattern, operation.name(), "ALLOW", name));
+        }
+        return Collections.unmodifiableMap(templates);
+    }
+
+    /*
+     * Operations Kafka does not know are not precomputed; they fail later when the ACL is converted to a binding.
+     */
+    private static AclTemplate lookup(Map<String, AclTemplate> templates, String type, String pattern, String operation, String name) {
+        AclTemplate template = templates.get(operation);
+        return template != null ? template : new AclTemplate(type, pattern, operation, "ALLOW", name);
+    }
+
+    public static List<AclTemplate> prefixedTopics(String... operations) {
+        List<AclTemplate> templates = new ArrayList<>(operations.length);
+        for (String operation : operations) {
+            templates.add(prefixedTopic(operation));
+        }
+        return Collections.unmodifiableList(templates);
+    }
+
+    public static List<AclTemplate> groups(String... operations) {
+        List<AclTemplate> templates = new ArrayList<>(operations.length);
+        for (String operation : operations) {
+            templates.add(group(operation));
+        }
+        return Collections.unmodifiableList(templates);
+    }
+
+    public AclTemplate withName(String resourceName) {
+        return new AclTemplate(type, pattern, operation, permission, resourceName);
+    }
+
+    public AclDetails.Builder bind(String resourceName, Optional<String> principal) {
+        AclDetails.Builder builder = new AclDetails.Builder()
+                .setHost(WILDCARD_HOST)
+                .setName(resourceName)
+                .setOperation(operation)
+                .setPermission(permission)
+                .setPattern(pattern)
+                .setType(type);
+
+        principal.ifPresent(builder::setPrincipal);
+        return builder;
+    }
+
+    public AclDetails.Builder bind(Optional<String> principal) {
+        if (name == null) {
+            throw new IllegalStateException(String.format("ACL template %s %s %s has no fixed resource name", type, pattern, operation));
+        }
+        return bind(name, principal);
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+}
@@ -0,0 +1,21 @@
+package com.devshawn.kafka.gitops.domain.state;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.inferred.freebuilder.FreeBuilder;
+
+import java.util.Map;
+import java.util.Optional;
+
+@FreeBuilder
+@JsonDeserialize(builder = ClientQuota.Builder.class)
+public interface ClientQuota {
+
+    Optional<String> getUser();
+
+    Optional<String> getClientId();
+
+    Map<String, Double> getQuotas();
+
+    class Builder extends ClientQuota_Builder {
+    }
+}
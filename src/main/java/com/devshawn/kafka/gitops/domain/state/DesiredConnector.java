@@ -0,0 +1,22 @@
+package com.devshawn.kafka.gitops.domain.state;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.inferred.freebuilder.FreeBuilder;
+
+import java.util.Map;
+
+@FreeBuilder
+@JsonDeserialize(builder = DesiredConnector.Builder.class)
+public interface DesiredConnector {
+
+    String getName();
+
+    String getService();
+
+    String getConnectUrl();
+
+    Map<String, String> getConfig();
+
+    class Builder extends DesiredConnector_Builder {
+    }
+}
@@ -14,8 +14,16 @@ public interface DesiredState {
 
     Map<String, AclDetails> getAcls();
 
+    Map<String, ClientQuota> getQuotas();
+
+    List<DesiredConnector> getConnectors();
+
     List<String> getPrefixedTopicsToIgnore();
 
+    Map<String, List<String>> getAclSourceNames();
+
+    Map<String, String> getAclOwners();
+
     class Builder extends DesiredState_Builder {
     }
 }
@@ -24,6 +24,8 @@ public interface DesiredStateFile {
 
     Map<String, Map<String, CustomAclDetails>> getCustomUserAcls();
 
+    Map<String, QuotaDetails> getQuotas();
+
     class Builder extends DesiredStateFile_Builder {
     }
 }
@@ -0,0 +1,39 @@
+package com.devshawn.kafka.gitops.domain.state;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.inferred.freebuilder.FreeBuilder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+@FreeBuilder
+@JsonDeserialize(builder = QuotaDetails.Builder.class)
+public interface QuotaDetails {
+
+    Optional<String> getPrincipal();
+
+    @JsonProperty("client-id")
+    Optional<String> getClientId();
+
+    @JsonProperty("producer-byte-rate")
+    Optional<Long> getProducerByteRate();
+
+    @JsonProperty("consumer-byte-rate")
+    Optional<Long> getConsumerByteRate();
+
+    @JsonProperty("request-percentage")
+    Optional<Double> getRequestPercentage();
+
+    default Map<String, Double> toQuotaConfigs() {
+        Map<String, Double> configs = new LinkedHashMap<>();
+        getProducerByteRate().ifPresent(it -> configs.put("producer_byte_rate", it.doubleValue()));
+        getConsumerByteRate().ifPresent(it -> configs.put("consumer_byte_rate", it.doubleValue()));
+        getRequestPercentage().ifPresent(it -> configs.put("request_percentage", it));
+        return configs;
+    }
+
+    class Builder extends QuotaDetails_Builder {
+    }
+}
@@ -0,0 +1,20 @@
+package com.devshawn.kafka.gitops.domain.state;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.inferred.freebuilder.FreeBuilder;
+
+@FreeBuilder
+@JsonDeserialize(builder = RedundantAcl.Builder.class)
+public interface RedundantAcl {
+
+    String getName();
+
+    AclDetails getAclDetails();
+
+    String getCoveredBy();
+
+    AclDetails getCoveringAclDetails();
+
+    class Builder extends RedundantAcl_Builder {
+    }
+}
@@ -24,6 +24,10 @@ public abstract class ServiceDetails extends AbstractService {
     @JsonProperty("service-account")
     public abstract Optional<String> getServiceAccount();
 
+    public Optional<String> getPrincipal() {
+        return Optional.empty();
+    }
+
     public List<AclDetails.Builder> getAcls(GetAclOptions options) {
         throw new UnsupportedOperationException("Method getAcls is not implemented.");
     }
@@ -0,0 +1,32 @@
+package com.devshawn.kafka.gitops.domain.state;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.inferred.freebuilder.FreeBuilder;
+
+import java.util.Set;
+
+@FreeBuilder
+@JsonDeserialize(builder = StateDiff.Builder.class)
+public interface StateDiff {
+
+    Set<String> getTopics();
+
+    Set<String> getServices();
+
+    Set<String> getUsers();
+
+    Set<String> getPrincipals();
+
+    boolean isFullPlanRequired();
+
+    default boolean isEmpty() {
+        return getTopics().isEmpty() && getServices().isEmpty() && getUsers().isEmpty() && getPrincipals().isEmpty();
+    }
+
+    class Builder extends StateDiff_Builder {
+
+        public Builder() {
+            setFullPlanRequired(false);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.devshawn.kafka.gitops.domain.state;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import org.inferred.freebuilder.FreeBuilder;
 
@@ -10,12 +11,21 @@ import java.util.Optional;
 @JsonDeserialize(builder = TopicDetails.Builder.class)
 public interface TopicDetails {
 
+    String BALANCED_PLACEMENT = "balanced";
+
     Integer getPartitions();
 
     Optional<Integer> getReplication();
 
     Map<String, String> getConfigs();
 
+    /*
+     * How the replicas of a new topic are placed. "balanced" plans a rack-aware assignment from the current broker
+     * load; without it, the controller places the replicas.
+     */
+    @JsonInclude(JsonInclude.Include.NON_ABSENT)
+    Optional<String> getPlacement();
+
     class Builder extends TopicDetails_Builder {
     }
 }
@@ -38,7 +38,7 @@ public abstract class ApplicationService extends ServiceDetails {
 
         if (!getConsumes().isEmpty()) {
             String groupId = getGroupId().isPresent() ? getGroupId().get() : options.getServiceName();
-            acls.add(generateConsumerGroupAcl(groupId, getPrincipal(), "READ"));
+            acls.add(GROUP_READ.bind(groupId, getPrincipal()));
         }
         return acls;
     }
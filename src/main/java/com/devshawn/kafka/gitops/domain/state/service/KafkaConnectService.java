@@ -22,6 +22,9 @@ public abstract class KafkaConnectService extends ServiceDetails {
 
     public abstract Optional<String> getPrincipal();
 
+    @JsonProperty("connect-url")
+    public abstract Optional<String> getConnectUrl();
+
     @JsonProperty("storage-topics")
     public abstract Optional<KafkaConnectStorageTopics> getStorageTopics();
 
@@ -53,7 +56,7 @@ public abstract class KafkaConnectService extends ServiceDetails {
         acls.add(generateWriteACL(configTopic, getPrincipal()));
         acls.add(generateWriteACL(offsetTopic, getPrincipal()));
         acls.add(generateWriteACL(statusTopic, getPrincipal()));
-        acls.add(generateConsumerGroupAcl(groupId, getPrincipal(), "READ"));
+        acls.add(GROUP_READ.bind(groupId, getPrincipal()));
         getConnectors().forEach((connectorName, connector) -> acls.addAll(connector.getAcls(connectorName, getPrincipal(), options)));
         return acls;
     }
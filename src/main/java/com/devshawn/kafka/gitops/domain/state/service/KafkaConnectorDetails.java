@@ -9,6 +9,7 @@ import org.inferred.freebuilder.FreeBuilder;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @FreeBuilder
@@ -19,6 +20,8 @@ public abstract class KafkaConnectorDetails extends AbstractService {
 
     public abstract List<String> getConsumes();
 
+    public abstract Map<String, String> getConfig();
+
     public List<AclDetails.Builder> getAcls(String connectorName, Optional<String> principal, GetAclOptions options) {
         List<AclDetails.Builder> acls = new ArrayList<>();
         getProduces().forEach(topic -> acls.add(generateWriteACL(topic, principal)));
@@ -30,7 +33,7 @@ public abstract class KafkaConnectorDetails extends AbstractService {
         }
 
         if (!getConsumes().isEmpty()) {
-            acls.add(generateConsumerGroupAcl(String.format("connect-%s", connectorName), principal, "READ"));
+            acls.add(GROUP_READ.bind(String.format("connect-%s", connectorName), principal));
         }
         return acls;
     }
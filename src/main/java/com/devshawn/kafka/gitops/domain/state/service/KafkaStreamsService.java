@@ -2,6 +2,7 @@ package com.devshawn.kafka.gitops.domain.state.service;
 
 import com.devshawn.kafka.gitops.domain.options.GetAclOptions;
 import com.devshawn.kafka.gitops.domain.state.AclDetails;
+import com.devshawn.kafka.gitops.domain.state.AclTemplate;
 import com.devshawn.kafka.gitops.domain.state.ServiceDetails;
 import com.devshawn.kafka.gitops.util.HelperUtil;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -16,6 +17,13 @@ import java.util.Optional;
 @JsonDeserialize(builder = KafkaStreamsService.Builder.class)
 public abstract class KafkaStreamsService extends ServiceDetails {
 
+    private static final List<AclTemplate> INTERNAL_TOPIC_ACLS = AclTemplate.prefixedTopics(
+            "READ", "WRITE", "DESCRIBE", "DELETE", "CREATE", "ALTER", "ALTER_CONFIGS", "DESCRIBE_CONFIGS");
+
+    private static final List<AclTemplate> INTERNAL_GROUP_ACLS = AclTemplate.groups("READ", "DESCRIBE", "DELETE");
+
+    private static final AclTemplate CLUSTER_DESCRIBE_CONFIGS = AclTemplate.cluster("DESCRIBE_CONFIGS");
+
     public abstract Optional<String> getPrincipal();
 
     @JsonProperty("application-id")
@@ -40,19 +48,10 @@ public abstract class KafkaStreamsService extends ServiceDetails {
 
     private List<AclDetails.Builder> getInternalAcls(String serviceName) {
         String applicationId = getApplicationId().isPresent() ? getApplicationId().get() : serviceName;
-        List<AclDetails.Builder> acls = new ArrayList<>();
-        acls.add(generatePrefixedTopicACL(applicationId, getPrincipal(), "READ"));
-        acls.add(generatePrefixedTopicACL(applicationId, getPrincipal(), "WRITE"));
-        acls.add(generatePrefixedTopicACL(applicationId, getPrincipal(), "DESCRIBE"));
-        acls.add(generatePrefixedTopicACL(applicationId, getPrincipal(), "DELETE"));
-        acls.add(generatePrefixedTopicACL(applicationId, getPrincipal(), "CREATE"));
-        acls.add(generatePrefixedTopicACL(applicationId, getPrincipal(), "ALTER"));
-        acls.add(generatePrefixedTopicACL(applicationId, getPrincipal(), "ALTER_CONFIGS"));
-        acls.add(generatePrefixedTopicACL(applicationId, getPrincipal(), "DESCRIBE_CONFIGS"));
-        acls.add(generateConsumerGroupAcl(applicationId, getPrincipal(), "READ"));
-        acls.add(generateConsumerGroupAcl(applicationId, getPrincipal(), "DESCRIBE"));
-        acls.add(generateConsumerGroupAcl(applicationId, getPrincipal(), "DELETE"));
-        acls.add(generateClusterAcl(getPrincipal(), "DESCRIBE_CONFIGS"));
+        List<AclDetails.Builder> acls = new ArrayList<>(INTERNAL_TOPIC_ACLS.size() + INTERNAL_GROUP_ACLS.size() + 1);
+        INTERNAL_TOPIC_ACLS.forEach(template -> acls.add(template.bind(applicationId, getPrincipal())));
+        INTERNAL_GROUP_ACLS.forEach(template -> acls.add(template.bind(applicationId, getPrincipal())));
+        acls.add(CLUSTER_DESCRIBE_CONFIGS.bind(getPrincipal()));
         return acls;
     }
 
@@ -0,0 +1,6 @@
+package com.devshawn.kafka.gitops.enums;
+
+public enum AclCompactionMode {
+    REPORT,
+    APPLY
+}
@@ -0,0 +1,8 @@
+package com.devshawn.kafka.gitops.exception;
+
+public class ClusterUnhealthyException extends RuntimeException {
+
+    public ClusterUnhealthyException(String message) {
+        super(String.format("The cluster is not healthy enough to apply changes: %s", message));
+    }
+}
@@ -0,0 +1,8 @@
+package com.devshawn.kafka.gitops.exception;
+
+public class KafkaConnectException extends RuntimeException {
+
+    public KafkaConnectException(String message) {
+        super(message);
+    }
+}
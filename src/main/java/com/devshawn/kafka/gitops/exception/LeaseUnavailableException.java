@@ -0,0 +1,8 @@
+package com.devshawn.kafka.gitops.exception;
+
+public class LeaseUnavailableException extends RuntimeException {
+
+    public LeaseUnavailableException(String message) {
+        super(message);
+    }
+}
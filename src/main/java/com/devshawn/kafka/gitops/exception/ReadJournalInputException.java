@@ -0,0 +1,8 @@
+package com.devshawn.kafka.gitops.exception;
+
+public class ReadJournalInputException extends RuntimeException {
+
+    public ReadJournalInputException(String fileName, String message) {
+        super(String.format("Error reading apply journal from file '%s': %s", fileName, message));
+    }
+}
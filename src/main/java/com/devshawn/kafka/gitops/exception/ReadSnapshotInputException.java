@@ -0,0 +1,12 @@
+package com.devshawn.kafka.gitops.exception;
+
+public class ReadSnapshotInputException extends RuntimeException {
+
+    public ReadSnapshotInputException() {
+        super("Error reading cluster snapshot from file: Please run the snapshot command again to generate a new snapshot file.");
+    }
+
+    public ReadSnapshotInputException(String message) {
+        super(String.format("Error reading cluster snapshot from file: %s", message));
+    }
+}
@@ -0,0 +1,8 @@
+package com.devshawn.kafka.gitops.exception;
+
+public class ReadStateRevisionException extends RuntimeException {
+
+    public ReadStateRevisionException(String fileName, String revision, String message) {
+        super(String.format("Error reading state file '%s' at revision '%s': %s", fileName, revision, message));
+    }
+}
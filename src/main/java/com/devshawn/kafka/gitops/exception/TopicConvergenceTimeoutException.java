@@ -0,0 +1,8 @@
+package com.devshawn.kafka.gitops.exception;
+
+public class TopicConvergenceTimeoutException extends RuntimeException {
+
+    public TopicConvergenceTimeoutException(String message) {
+        super(String.format("New topics did not converge: %s", message));
+    }
+}
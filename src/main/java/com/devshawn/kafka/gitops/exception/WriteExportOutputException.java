@@ -0,0 +1,8 @@
+package com.devshawn.kafka.gitops.exception;
+
+public class WriteExportOutputException extends RuntimeException {
+
+    public WriteExportOutputException(String exMessage) {
+        super(String.format("Error writing exported state: %s", exMessage));
+    }
+}
@@ -0,0 +1,8 @@
+package com.devshawn.kafka.gitops.exception;
+
+public class WriteJournalOutputException extends RuntimeException {
+
+    public WriteJournalOutputException(String exMessage) {
+        super(String.format("Error writing apply journal to file: %s", exMessage));
+    }
+}
@@ -0,0 +1,8 @@
+package com.devshawn.kafka.gitops.exception;
+
+public class WriteMetricsOutputException extends RuntimeException {
+
+    public WriteMetricsOutputException(String exMessage) {
+        super(String.format("Error writing health metrics to file: %s", exMessage));
+    }
+}
@@ -1,82 +1,392 @@
 package com.devshawn.kafka.gitops.manager;
 
 import com.devshawn.kafka.gitops.config.ManagerConfig;
+import com.devshawn.kafka.gitops.domain.cluster.ClusterHealth;
+import com.devshawn.kafka.gitops.domain.cluster.HealthGate;
+import com.devshawn.kafka.gitops.domain.plan.AclPlan;
+import com.devshawn.kafka.gitops.domain.plan.ConsumerGroupPlan;
 import com.devshawn.kafka.gitops.domain.plan.DesiredPlan;
+import com.devshawn.kafka.gitops.domain.plan.JournalEntry;
+import com.devshawn.kafka.gitops.domain.plan.QuotaPlan;
 import com.devshawn.kafka.gitops.domain.plan.TopicConfigPlan;
 import com.devshawn.kafka.gitops.domain.plan.TopicPlan;
+import com.devshawn.kafka.gitops.enums.OutputFormat;
 import com.devshawn.kafka.gitops.enums.PlanAction;
+import com.devshawn.kafka.gitops.exception.ClusterUnhealthyException;
+import com.devshawn.kafka.gitops.exception.KafkaExecutionException;
+import com.devshawn.kafka.gitops.exception.TopicConvergenceTimeoutException;
 import com.devshawn.kafka.gitops.service.KafkaService;
+import com.devshawn.kafka.gitops.util.HealthMetricsWriter;
 import com.devshawn.kafka.gitops.util.LogUtil;
+import com.devshawn.kafka.gitops.util.PlanEventWriter;
+import com.devshawn.kafka.gitops.util.PlanStatistics;
 import org.apache.kafka.clients.admin.AlterConfigOp;
-import org.apache.kafka.clients.admin.ConfigEntry;
 import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.quota.ClientQuotaAlteration;
+import org.apache.kafka.common.quota.ClientQuotaEntity;
+import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.stream.Collectors;
 
 public class ApplyManager {
 
+    private static org.slf4j.Logger log = LoggerFactory.getLogger(ApplyManager.class);
+
+    private static final long CONVERGENCE_POLL_INTERVAL_MS = 500;
+
     private final ManagerConfig managerConfig;
     private final KafkaService kafkaService;
+    private final PlanStatistics progress;
+    private final List<JournalEntry> applied = new ArrayList<>();
+    private long expectedChanges = -1;
+    private long throttleMs = 0;
+    private LeaseManager leaseManager;
 
     public ApplyManager(ManagerConfig managerConfig, KafkaService kafkaService) {
         this.managerConfig = managerConfig;
         this.kafkaService = kafkaService;
+        this.progress = new PlanStatistics(managerConfig.isDeleteDisabled());
+    }
+
+    /*
+     * Once set, every change is preceded by a check that the lease is still held.
+     */
+    public void setLeaseManager(LeaseManager leaseManager) {
+        this.leaseManager = leaseManager;
+    }
+
+    public PlanStatistics getProgress() {
+        return progress;
+    }
+
+    public List<JournalEntry> getApplied() {
+        return applied;
     }
 
     public void applyTopics(DesiredPlan desiredPlan) {
         if (desiredPlan.getTopicPlans() == null) {
             return;
         }
+        expectChanges(desiredPlan);
+        List<TopicPlan> deletionWave = new ArrayList<>();
         desiredPlan.getTopicPlans().forEach(topicPlan -> {
-            LogUtil.printTopicPreApply(topicPlan);
+            if (topicPlan.getDeletionBlocker().isPresent()) {
+                log.info("[APPLY] Topic {} is not deleted: {}", topicPlan.getName(), topicPlan.getDeletionBlocker().get());
+                return;
+            }
+            printTopicPreApply(topicPlan);
             if (topicPlan.getAction() == PlanAction.ADD) {
-                LogUtil.printTopicPreApply(topicPlan);
-                kafkaService.createTopic(topicPlan.getName(), topicPlan.getTopicDetails().get());
-                LogUtil.printPostApply();
+                printTopicPreApply(topicPlan);
+                checkLease();
+                kafkaService.createTopic(topicPlan.getName(), topicPlan.getTopicDetails().get(), topicPlan.getReplicaAssignments());
+                recordApplied("topic", topicPlan.getName(), topicPlan.getAction());
+                printPostApply();
+                logProgress(() -> progress.recordTopic(topicPlan));
             } else if (topicPlan.getAction() == PlanAction.UPDATE) {
-                LogUtil.printTopicPreApply(topicPlan);
+                printTopicPreApply(topicPlan);
                 topicPlan.getTopicConfigPlans().forEach(topicConfigPlan -> applyTopicConfiguration(topicPlan, topicConfigPlan));
-                LogUtil.printPostApply();
+                recordApplied("topic", topicPlan.getName(), topicPlan.getAction());
+                printPostApply();
+                logProgress(() -> progress.recordTopic(topicPlan));
             } else if (topicPlan.getAction() == PlanAction.REMOVE && !managerConfig.isDeleteDisabled()) {
-                LogUtil.printTopicPreApply(topicPlan);
-                kafkaService.deleteTopic(topicPlan.getName());
-                LogUtil.printPostApply();
+                printTopicPreApply(topicPlan);
+                deletionWave.add(topicPlan);
+                if (deletionWave.size() >= managerConfig.getTopicDeletionWaveSize()) {
+                    deleteTopics(deletionWave);
+                }
             }
         });
+        deleteTopics(deletionWave);
+    }
+
+    /*
+     * Topics are deleted in waves of the configured size, one deleteTopics request per wave. Topics deleted before a
+     * failure in the wave are still recorded.
+     */
+    private void deleteTopics(List<TopicPlan> deletionWave) {
+        if (deletionWave.isEmpty()) {
+            return;
+        }
+        checkLease();
+        Map<String, String> errors = kafkaService.deleteTopics(deletionWave.stream().map(TopicPlan::getName).collect(Collectors.toList()));
+        deletionWave.stream()
+                .filter(it -> !errors.containsKey(it.getName()))
+                .forEach(it -> {
+                    recordApplied("topic", it.getName(), it.getAction());
+                    printPostApply();
+                    logProgress(() -> progress.recordTopic(it));
+                });
+        deletionWave.clear();
+        if (!errors.isEmpty()) {
+            String details = errors.entrySet().stream()
+                    .map(it -> String.format("%s: %s", it.getKey(), it.getValue()))
+                    .collect(Collectors.joining(", "));
+            throw new KafkaExecutionException("Error thrown when attempting to delete Kafka topics", details);
+        }
+    }
+
+    /*
+     * Refuses to apply while the cluster has more offline or under-replicated partitions than allowed. When the
+     * controller answers slower than allowed, every applied change is followed by a pause as long as the controller's
+     * response time, so a large apply slows down while the controller is busy.
+     */
+    public void checkClusterHealth() {
+        if (!managerConfig.getHealthGate().isPresent()) {
+            return;
+        }
+        HealthGate healthGate = managerConfig.getHealthGate().get();
+        ClusterHealth health = kafkaService.getClusterHealth();
+        log.info("[HEALTH] {}{} brokers, {} partitions: {} offline, {} under-replicated, controller responded in {} ms",
+                managerConfig.getClusterName().map(it -> it + ": ").orElse(""), health.getBrokers(), health.getPartitions(),
+                health.getOfflinePartitions(), health.getUnderReplicatedPartitions(), health.getControllerResponseMs());
+        managerConfig.getHealthMetricsFile().ifPresent(file -> HealthMetricsWriter.write(health, managerConfig.getClusterName(), file));
+        if (isTextOutput()) {
+            LogUtil.printClusterHealth(health);
+        } else if (managerConfig.getOutputFormat() == OutputFormat.NDJSON) {
+            PlanEventWriter.writeClusterHealth(health, managerConfig.getClusterName());
+        }
+
+        List<String> violations = new ArrayList<>();
+        if (health.getOfflinePartitions() > healthGate.getMaxOfflinePartitions()) {
+            violations.add(String.format("%s offline partitions (at most %s allowed)", health.getOfflinePartitions(), healthGate.getMaxOfflinePartitions()));
+        }
+        if (health.getUnderReplicatedPartitions() > healthGate.getMaxUnderReplicatedPartitions()) {
+            violations.add(String.format("%s under-replicated partitions (at most %s allowed)", health.getUnderReplicatedPartitions(), healthGate.getMaxUnderReplicatedPartitions()));
+        }
+        if (!violations.isEmpty()) {
+            throw new ClusterUnhealthyException(String.join(", ", violations));
+        }
+        if (health.getControllerResponseMs() > healthGate.getMaxControllerResponseMs()) {
+            throttleMs = health.getControllerResponseMs();
+            log.info("[HEALTH] The controller is slow to respond; pausing {} ms after each change.", throttleMs);
+        }
+    }
+
+    /*
+     * New topics may not be visible on every broker right after they are created. The created topics are described
+     * in one request per poll until every partition has a leader and a full ISR, or the deadline passes.
+     */
+    public void awaitTopicConvergence(DesiredPlan desiredPlan) {
+        if (!managerConfig.getTopicConvergenceTimeoutSeconds().isPresent()) {
+            return;
+        }
+        List<String> topicNames = desiredPlan.getTopicPlans().stream()
+                .filter(it -> it.getAction() == PlanAction.ADD)
+                .map(TopicPlan::getName)
+                .collect(Collectors.toList());
+        if (topicNames.isEmpty()) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        long deadline = start + managerConfig.getTopicConvergenceTimeoutSeconds().get() * 1000;
+        Map<String, String> pending = kafkaService.getUnconvergedTopics(topicNames);
+        while (!pending.isEmpty()) {
+            if (System.currentTimeMillis() >= deadline) {
+                throw new TopicConvergenceTimeoutException(pending.entrySet().stream()
+                        .map(it -> String.format("%s: %s", it.getKey(), it.getValue()))
+                        .collect(Collectors.joining(", ")));
+            }
+            sleep(CONVERGENCE_POLL_INTERVAL_MS);
+            pending = kafkaService.getUnconvergedTopics(pending.keySet());
+        }
+
+        long durationMs = System.currentTimeMillis() - start;
+        log.info("[APPLY] {}{} new topics converged in {} ms", managerConfig.getClusterName().map(it -> it + ": ").orElse(""),
+                topicNames.size(), durationMs);
+        if (isTextOutput()) {
+            LogUtil.printTopicConvergence(topicNames.size(), durationMs);
+        } else if (managerConfig.getOutputFormat() == OutputFormat.NDJSON) {
+            PlanEventWriter.writeTopicsConverged(topicNames.size(), durationMs, managerConfig.getClusterName());
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new KafkaExecutionException("Interrupted while applying changes", ex.getMessage());
+        }
     }
 
     private void applyTopicConfiguration(TopicPlan topicPlan, TopicConfigPlan topicConfigPlan) {
         Map<ConfigResource, Collection<AlterConfigOp>> configs = new HashMap<>();
         ConfigResource configResource = new ConfigResource(ConfigResource.Type.TOPIC, topicPlan.getName());
         List<AlterConfigOp> configOps = new ArrayList<>();
-
-        ConfigEntry configEntry = new ConfigEntry(topicConfigPlan.getKey(), topicConfigPlan.getValue().orElse(null));
-
-        // TODO: Make OpType work with append/subtract
-        if (topicConfigPlan.getAction() == PlanAction.ADD) {
-            configOps.add(new AlterConfigOp(configEntry, AlterConfigOp.OpType.SET));
-        } else if (topicConfigPlan.getAction() == PlanAction.UPDATE) {
-            configOps.add(new AlterConfigOp(configEntry, AlterConfigOp.OpType.SET));
-        } else if (topicConfigPlan.getAction() == PlanAction.REMOVE) {
-            configOps.add(new AlterConfigOp(configEntry, AlterConfigOp.OpType.DELETE));
-        }
+        topicConfigPlan.toAlterConfigOp().ifPresent(configOps::add);
 
         configs.put(configResource, configOps);
 
+        checkLease();
         kafkaService.updateTopicConfig(configs);
     }
 
     public void applyAcls(DesiredPlan desiredPlan) {
+        expectChanges(desiredPlan);
         desiredPlan.getAclPlans().forEach(aclPlan -> {
             if (aclPlan.getAction() == PlanAction.ADD) {
-                LogUtil.printAclPreApply(aclPlan);
+                printAclPreApply(aclPlan);
+                checkLease();
                 kafkaService.createAcl(aclPlan.getAclDetails().toAclBinding());
-                LogUtil.printPostApply();
+                recordApplied("acl", aclPlan.getName(), aclPlan.getAction());
+                printPostApply();
+                logProgress(() -> progress.recordAcl(aclPlan));
             } else if (aclPlan.getAction() == PlanAction.REMOVE && !managerConfig.isDeleteDisabled()) {
-                LogUtil.printAclPreApply(aclPlan);
+                printAclPreApply(aclPlan);
+                checkLease();
                 kafkaService.deleteAcl(aclPlan.getAclDetails().toAclBinding());
-                LogUtil.printPostApply();
+                recordApplied("acl", aclPlan.getName(), aclPlan.getAction());
+                printPostApply();
+                logProgress(() -> progress.recordAcl(aclPlan));
             }
         });
     }
+
+    /*
+     * All quota changes are sent in a single alterClientQuotas request.
+     */
+    public void applyQuotas(DesiredPlan desiredPlan) {
+        List<QuotaPlan> quotaPlans = desiredPlan.getQuotaPlans().stream()
+                .map(it -> managerConfig.isDeleteDisabled() ? it.withoutConfigRemovals() : it)
+                .filter(it -> it.getAction() == PlanAction.ADD || it.getAction() == PlanAction.UPDATE
+                        || (it.getAction() == PlanAction.REMOVE && !managerConfig.isDeleteDisabled()))
+                .collect(Collectors.toList());
+        if (quotaPlans.isEmpty()) {
+            return;
+        }
+
+        List<ClientQuotaAlteration> alterations = new ArrayList<>();
+        quotaPlans.forEach(quotaPlan -> {
+            printQuotaPreApply(quotaPlan);
+            Map<String, String> entries = new HashMap<>();
+            quotaPlan.getUser().ifPresent(it -> entries.put(ClientQuotaEntity.USER, it));
+            quotaPlan.getClientId().ifPresent(it -> entries.put(ClientQuotaEntity.CLIENT_ID, it));
+
+            List<ClientQuotaAlteration.Op> ops = quotaPlan.getQuotaConfigPlans().stream()
+                    .filter(it -> it.getAction() != PlanAction.NO_CHANGE)
+                    .map(it -> new ClientQuotaAlteration.Op(it.getKey(), it.getAction() == PlanAction.REMOVE ? null : it.getValue().get()))
+                    .collect(Collectors.toList());
+            alterations.add(new ClientQuotaAlteration(new ClientQuotaEntity(entries), ops));
+        });
+
+        checkLease();
+        kafkaService.alterClientQuotas(alterations);
+        quotaPlans.forEach(it -> recordApplied("quota", it.getName(), it.getAction()));
+        printPostApply();
+        expectChanges(desiredPlan);
+        logProgress(() -> quotaPlans.forEach(progress::recordQuota));
+    }
+
+    /*
+     * All consumer groups are deleted in a single deleteConsumerGroups request. The coordinator refuses to delete a
+     * group that gained members since the plan was made; such groups are reported after the others are recorded.
+     */
+    public void applyConsumerGroups(DesiredPlan desiredPlan) {
+        if (managerConfig.isDeleteDisabled()) {
+            return;
+        }
+        List<ConsumerGroupPlan> consumerGroupPlans = desiredPlan.getConsumerGroupPlans().stream()
+                .filter(it -> it.getAction() == PlanAction.REMOVE)
+                .collect(Collectors.toList());
+        if (consumerGroupPlans.isEmpty()) {
+            return;
+        }
+
+        consumerGroupPlans.forEach(this::printConsumerGroupPreApply);
+        checkLease();
+        Map<String, String> errors = kafkaService.deleteConsumerGroups(consumerGroupPlans.stream()
+                .map(ConsumerGroupPlan::getName)
+                .collect(Collectors.toList()));
+        expectChanges(desiredPlan);
+        consumerGroupPlans.stream()
+                .filter(it -> !errors.containsKey(it.getName()))
+                .forEach(it -> {
+                    recordApplied("consumer-group", it.getName(), it.getAction());
+                    logProgress(() -> progress.recordConsumerGroup(it));
+                });
+        if (!errors.isEmpty()) {
+            String details = errors.entrySet().stream()
+                    .map(it -> String.format("%s: %s", it.getKey(), it.getValue()))
+                    .collect(Collectors.joining(", "));
+            throw new KafkaExecutionException("Error thrown when attempting to delete Kafka consumer groups", details);
+        }
+        printPostApply();
+    }
+
+    /*
+     * The expected total is counted once, from the first plan section applied, and progress is logged against it.
+     */
+    private void expectChanges(DesiredPlan desiredPlan) {
+        if (expectedChanges < 0) {
+            expectedChanges = PlanStatistics.of(desiredPlan, managerConfig.isDeleteDisabled()).getChangeCount();
+        }
+    }
+
+    private void logProgress(Runnable record) {
+        record.run();
+        log.info("[APPLY] {}{}/{} changes applied", managerConfig.getClusterName().map(it -> it + ": ").orElse(""),
+                progress.getChangeCount(), expectedChanges);
+    }
+
+    /*
+     * When applying to several clusters at once, step output is suppressed and a summary is printed per cluster.
+     * With the ndjson output format only the result of each step is written, as an event.
+     */
+    private void printTopicPreApply(TopicPlan topicPlan) {
+        if (isTextOutput()) {
+            LogUtil.printTopicPreApply(topicPlan);
+        }
+    }
+
+    private void printAclPreApply(AclPlan aclPlan) {
+        if (isTextOutput()) {
+            LogUtil.printAclPreApply(aclPlan);
+        }
+    }
+
+    private void printConsumerGroupPreApply(ConsumerGroupPlan consumerGroupPlan) {
+        if (isTextOutput()) {
+            LogUtil.printConsumerGroupPreApply(consumerGroupPlan);
+        }
+    }
+
+    private void printQuotaPreApply(QuotaPlan quotaPlan) {
+        if (isTextOutput()) {
+            LogUtil.printQuotaPreApply(quotaPlan);
+        }
+    }
+
+    private void printPostApply() {
+        if (isTextOutput()) {
+            LogUtil.printPostApply();
+        }
+    }
+
+    /*
+     * Fails the apply if the lease was lost, so no change is made without it.
+     */
+    private void checkLease() {
+        if (leaseManager != null) {
+            leaseManager.checkLease();
+        }
+    }
+
+    /*
+     * Each applied change is added to the journal and, with the ndjson output format, written as an event.
+     */
+    private void recordApplied(String resource, String name, PlanAction action) {
+        applied.add(new JournalEntry.Builder().setResource(resource).setName(name).setAction(action).build());
+        if (managerConfig.getOutputFormat() == OutputFormat.NDJSON) {
+            PlanEventWriter.writeApplied(resource, name, action, managerConfig.getClusterName());
+        }
+        if (throttleMs > 0) {
+            sleep(throttleMs);
+        }
+    }
+
+    private boolean isTextOutput() {
+        return managerConfig.getOutputFormat() == OutputFormat.TEXT && !managerConfig.getClusterName().isPresent();
+    }
 }
@@ -0,0 +1,169 @@
+package com.devshawn.kafka.gitops.manager;
+
+import com.devshawn.kafka.gitops.config.ManagerConfig;
+import com.devshawn.kafka.gitops.domain.plan.ConnectorConfigPlan;
+import com.devshawn.kafka.gitops.domain.plan.ConnectorPlan;
+import com.devshawn.kafka.gitops.domain.plan.DesiredPlan;
+import com.devshawn.kafka.gitops.domain.plan.JournalEntry;
+import com.devshawn.kafka.gitops.domain.state.DesiredConnector;
+import com.devshawn.kafka.gitops.domain.state.DesiredState;
+import com.devshawn.kafka.gitops.enums.OutputFormat;
+import com.devshawn.kafka.gitops.enums.PlanAction;
+import com.devshawn.kafka.gitops.exception.KafkaConnectException;
+import com.devshawn.kafka.gitops.service.KafkaConnectRestService;
+import com.devshawn.kafka.gitops.util.LogUtil;
+import com.devshawn.kafka.gitops.util.PlanEventWriter;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/*
+ * Plans and applies connector configurations through the Kafka Connect REST API. Each Connect cluster is read with a
+ * single bulk request; changes are applied concurrently on a bounded pool. Connectors defined without a config are
+ * left untouched. Connectors not defined at all may have been created outside of the state file, so they are only
+ * removed when connector deletion is enabled.
+ */
+public class ConnectorManager {
+
+    private static org.slf4j.Logger log = LoggerFactory.getLogger(ConnectorManager.class);
+
+    public static final int DEFAULT_PARALLELISM = 8;
+
+    private static final String NAME_CONFIG = "name";
+
+    private final ManagerConfig managerConfig;
+    private final KafkaConnectRestService connectService;
+    private final int parallelism;
+    private final List<JournalEntry> applied = new ArrayList<>();
+
+    public ConnectorManager(ManagerConfig managerConfig, KafkaConnectRestService connectService, int parallelism) {
+        this.managerConfig = managerConfig;
+        this.connectService = connectService;
+        this.parallelism = parallelism;
+    }
+
+    public List<JournalEntry> getApplied() {
+        return applied;
+    }
+
+    public void planConnectors(DesiredState desiredState, DesiredPlan.Builder desiredPlan) {
+        Map<String, List<DesiredConnector>> connectorsByUrl = desiredState.getConnectors().stream()
+                .collect(Collectors.groupingBy(DesiredConnector::getConnectUrl, LinkedHashMap::new, Collectors.toList()));
+
+        connectorsByUrl.forEach((connectUrl, connectors) -> {
+            Map<String, Map<String, String>> currentConfigs = connectService.getConnectorConfigs(connectUrl);
+
+            connectors.forEach(connector -> {
+                Map<String, String> current = currentConfigs.remove(connector.getName());
+                if (connector.getConfig().isEmpty()) {
+                    log.info("[PLAN] Connector {} has no config; it is not managed.", connector.getName());
+                    return;
+                }
+                ConnectorPlan.Builder connectorPlan = new ConnectorPlan.Builder()
+                        .setName(connector.getName())
+                        .setConnectUrl(connectUrl)
+                        .putAllConfig(connector.getConfig())
+                        .setAction(current == null ? PlanAction.ADD : PlanAction.NO_CHANGE);
+                planConnectorConfigurations(connector, current == null ? new HashMap<>() : current, connectorPlan);
+                log.info("[PLAN] Connector {} | [{}]", connector.getName(), connectorPlan.getAction());
+                desiredPlan.addConnectorPlans(connectorPlan.build());
+            });
+
+            if (managerConfig.isConnectorDeletionEnabled() && !managerConfig.isDeleteDisabled()) {
+                currentConfigs.keySet().forEach(name -> desiredPlan.addConnectorPlans(new ConnectorPlan.Builder()
+                        .setName(name)
+                        .setConnectUrl(connectUrl)
+                        .setAction(PlanAction.REMOVE)
+                        .build()));
+            }
+        });
+    }
+
+    private void planConnectorConfigurations(DesiredConnector connector, Map<String, String> current, ConnectorPlan.Builder connectorPlan) {
+        new TreeMap<>(connector.getConfig()).forEach((key, value) -> {
+            String currentValue = current.get(key);
+            ConnectorConfigPlan.Builder configPlan = new ConnectorConfigPlan.Builder().setKey(key).setValue(value);
+            if (currentValue == null) {
+                configPlan.setAction(PlanAction.ADD);
+            } else if (!currentValue.equals(value)) {
+                configPlan.setAction(PlanAction.UPDATE);
+            } else {
+                configPlan.setAction(PlanAction.NO_CHANGE);
+            }
+            connectorPlan.addConnectorConfigPlans(configPlan.build());
+        });
+
+        new TreeSet<>(current.keySet()).stream()
+                .filter(key -> !key.equals(NAME_CONFIG) && !connector.getConfig().containsKey(key))
+                .forEach(key -> connectorPlan.addConnectorConfigPlans(new ConnectorConfigPlan.Builder()
+                        .setKey(key)
+                        .setAction(PlanAction.REMOVE)
+                        .build()));
+
+        boolean changed = connectorPlan.getConnectorConfigPlans().stream().anyMatch(it -> it.getAction() != PlanAction.NO_CHANGE);
+        if (connectorPlan.getAction() == PlanAction.NO_CHANGE && changed) {
+            connectorPlan.setAction(PlanAction.UPDATE);
+        }
+    }
+
+    /*
+     * A PUT of the full configuration creates or replaces a connector, so ADD and UPDATE are the same request.
+     */
+    public void applyConnectors(DesiredPlan desiredPlan) {
+        List<ConnectorPlan> connectorPlans = desiredPlan.getConnectorPlans().stream()
+                .filter(it -> it.getAction() == PlanAction.ADD || it.getAction() == PlanAction.UPDATE
+                        || (it.getAction() == PlanAction.REMOVE && !managerConfig.isDeleteDisabled()))
+                .collect(Collectors.toList());
+        if (connectorPlans.isEmpty()) {
+            return;
+        }
+
+        boolean textOutput = managerConfig.getOutputFormat() == OutputFormat.TEXT && !managerConfig.getClusterName().isPresent();
+        if (textOutput) {
+            connectorPlans.forEach(LogUtil::printConnectorPreApply);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, connectorPlans.size()));
+        try {
+            Map<ConnectorPlan, Future<?>> futures = new LinkedHashMap<>();
+            connectorPlans.forEach(connectorPlan -> futures.put(connectorPlan, executor.submit(() -> applyConnector(connectorPlan))));
+
+            List<String> errors = new ArrayList<>();
+            for (Map.Entry<ConnectorPlan, Future<?>> entry : futures.entrySet()) {
+                try {
+                    entry.getValue().get();
+                    applied.add(new JournalEntry.Builder().setResource("connector").setName(entry.getKey().getName()).setAction(entry.getKey().getAction()).build());
+                    if (managerConfig.getOutputFormat() == OutputFormat.NDJSON) {
+                        PlanEventWriter.writeApplied("connector", entry.getKey().getName(), entry.getKey().getAction(), managerConfig.getClusterName());
+                    }
+                } catch (ExecutionException ex) {
+                    errors.add(ex.getCause().getMessage());
+                }
+            }
+            if (!errors.isEmpty()) {
+                throw new KafkaConnectException(String.format("%s of %s connector changes failed:\n%s", errors.size(), connectorPlans.size(), String.join("\n", errors)));
+            }
+        } catch (InterruptedException ex) {
+            throw new KafkaConnectException(String.format("Interrupted while applying connector changes: %s", ex.getMessage()));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        if (textOutput) {
+            LogUtil.printPostApply();
+        }
+    }
+
+    private void applyConnector(ConnectorPlan connectorPlan) {
+        if (connectorPlan.getAction() == PlanAction.REMOVE) {
+            connectService.deleteConnector(connectorPlan.getConnectUrl(), connectorPlan.getName());
+        } else {
+            connectService.putConnectorConfig(connectorPlan.getConnectUrl(), connectorPlan.getName(), connectorPlan.getConfig());
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.devshawn.kafka.gitops.manager;
+
+import com.devshawn.kafka.gitops.exception.WriteExportOutputException;
+import com.devshawn.kafka.gitops.service.KafkaService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.fasterxml.jackson.dataformat.yaml.YAMLGenerator;
+import org.apache.kafka.clients.admin.Config;
+import org.apache.kafka.clients.admin.ConfigEntry;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.admin.TopicListing;
+import org.apache.kafka.common.acl.AclBinding;
+import org.apache.kafka.common.config.ConfigResource;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/*
+ * Streams the actual state of a cluster as a desired state file. Topics are written batch by batch as they are
+ * described; ACLs are grouped by principal into users with custom user ACLs.
+ */
+public class ExportManager {
+
+    private static org.slf4j.Logger log = LoggerFactory.getLogger(ExportManager.class);
+
+    private static final int TOPIC_BATCH_SIZE = 1000;
+
+    private final KafkaService kafkaService;
+
+    public ExportManager(KafkaService kafkaService) {
+        this.kafkaService = kafkaService;
+    }
+
+    public void export(Writer writer) {
+        YAMLFactory yamlFactory = new YAMLFactory()
+                .enable(YAMLGenerator.Feature.MINIMIZE_QUOTES)
+                .disable(YAMLGenerator.Feature.WRITE_DOC_START_MARKER)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        try (YAMLGenerator generator = yamlFactory.createGenerator(writer)) {
+            generator.writeStartObject();
+            exportTopics(generator);
+            exportAcls(generator);
+            generator.writeEndObject();
+        } catch (IOException ex) {
+            throw new WriteExportOutputException(ex.getMessage());
+        } catch (UncheckedIOException ex) {
+            throw new WriteExportOutputException(ex.getCause().getMessage());
+        }
+    }
+
+    private void exportTopics(YAMLGenerator generator) throws IOException {
+        List<String> topicNames = kafkaService.getTopics().stream()
+                .map(TopicListing::name)
+                .sorted()
+                .collect(Collectors.toList());
+
+        log.info("[EXPORT] Exporting {} topics", topicNames.size());
+        if (topicNames.isEmpty()) {
+            return;
+        }
+
+        generator.writeObjectFieldStart("topics");
+        kafkaService.describeTopicsInBatches(topicNames, TOPIC_BATCH_SIZE, (descriptions, configs) -> {
+            try {
+                List<String> batch = new ArrayList<>(descriptions.keySet());
+                Collections.sort(batch);
+                for (String topicName : batch) {
+                    writeTopic(generator, descriptions.get(topicName), configs.get(new ConfigResource(ConfigResource.Type.TOPIC, topicName)));
+                }
+                generator.flush();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        generator.writeEndObject();
+    }
+
+    private void writeTopic(YAMLGenerator generator, TopicDescription description, Config config) throws IOException {
+        generator.writeObjectFieldStart(description.name());
+        generator.writeNumberField("partitions", description.partitions().size());
+        generator.writeNumberField("replication", description.partitions().get(0).replicas().size());
+
+        List<ConfigEntry> dynamicConfigs = config == null ? Collections.emptyList() : config.entries().stream()
+                .filter(it -> it.source() == ConfigEntry.ConfigSource.DYNAMIC_TOPIC_CONFIG)
+                .sorted(Comparator.comparing(ConfigEntry::name))
+                .collect(Collectors.toList());
+        if (!dynamicConfigs.isEmpty()) {
+            generator.writeObjectFieldStart("configs");
+            for (ConfigEntry entry : dynamicConfigs) {
+                generator.writeStringField(entry.name(), entry.value());
+            }
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+    }
+
+    private void exportAcls(YAMLGenerator generator) throws IOException {
+        SortedMap<String, List<AclBinding>> aclsByPrincipal = new TreeMap<>();
+        kafkaService.getAcls().forEach(acl -> aclsByPrincipal.computeIfAbsent(acl.entry().principal(), key -> new ArrayList<>()).add(acl));
+
+        log.info("[EXPORT] Exporting ACLs for {} principals", aclsByPrincipal.size());
+        if (aclsByPrincipal.isEmpty()) {
+            return;
+        }
+
+        Map<String, String> userNames = getUserNames(aclsByPrincipal.keySet());
+
+        generator.writeObjectFieldStart("users");
+        for (String principal : aclsByPrincipal.keySet()) {
+            generator.writeObjectFieldStart(userNames.get(principal));
+            generator.writeStringField("principal", principal);
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+
+        generator.writeObjectFieldStart("customUserAcls");
+        for (Map.Entry<String, List<AclBinding>> entry : aclsByPrincipal.entrySet()) {
+            String userName = userNames.get(entry.getKey());
+            generator.writeObjectFieldStart(userName);
+            int index = 0;
+            for (AclBinding acl : entry.getValue()) {
+                generator.writeObjectFieldStart(String.format("%s-%s", userName, index++));
+                generator.writeStringField("name", acl.pattern().name());
+                generator.writeStringField("type", acl.pattern().resourceType().name());
+                generator.writeStringField("pattern", acl.pattern().patternType().name());
+                generator.writeStringField("host", acl.entry().host());
+                generator.writeStringField("operation", acl.entry().operation().name());
+                generator.writeStringField("permission", acl.entry().permissionType().name());
+                generator.writeEndObject();
+            }
+            generator.writeEndObject();
+            generator.flush();
+        }
+        generator.writeEndObject();
+    }
+
+    private Map<String, String> getUserNames(Set<String> principals) {
+        Map<String, String> userNames = new HashMap<>();
+        Set<String> usedNames = new HashSet<>();
+        principals.forEach(principal -> {
+            String baseName = principal.startsWith("User:") ? principal.substring(5) : principal.replace(":", "-");
+            String userName = baseName;
+            int suffix = 1;
+            while (!usedNames.add(userName)) {
+                userName = String.format("%s-%s", baseName, suffix++);
+            }
+            userNames.put(principal, userName);
+        });
+        return userNames;
+    }
+}
@@ -0,0 +1,83 @@
+package com.devshawn.kafka.gitops.manager;
+
+import com.devshawn.kafka.gitops.domain.plan.ApplyJournal;
+import com.devshawn.kafka.gitops.domain.plan.PlanShard;
+import com.devshawn.kafka.gitops.exception.ReadJournalInputException;
+import com.devshawn.kafka.gitops.exception.ValidationException;
+import com.devshawn.kafka.gitops.exception.WriteJournalOutputException;
+import com.devshawn.kafka.gitops.util.PlanShardUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+ * A journal records what one apply run changed and which errors stopped it. Sharded runs each write their own
+ * journal, which are merged into one covering the whole plan; a shard without a journal is reported as an error.
+ */
+public class JournalManager {
+
+    private final ObjectMapper objectMapper;
+
+    public JournalManager(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public ApplyJournal merge(List<ApplyJournal> journals) {
+        Map<Integer, ApplyJournal> shards = new TreeMap<>();
+        int count = -1;
+        for (ApplyJournal journal : journals) {
+            PlanShard shard = journal.getShard().orElseThrow(() -> new ValidationException("Only journals of sharded apply runs can be merged."));
+            if (count >= 0 && shard.getCount() != count) {
+                throw new ValidationException("The journals to merge were written for different shard counts.");
+            }
+            if (shards.put(shard.getIndex(), journal) != null) {
+                throw new ValidationException(String.format("More than one journal was given for shard %s.", PlanShardUtil.format(shard)));
+            }
+            count = shard.getCount();
+        }
+
+        ApplyJournal.Builder merged = new ApplyJournal.Builder().setPlannedChanges(0L);
+        for (int index = 1; index <= count; index++) {
+            String label = String.format("%s/%s", index, count);
+            ApplyJournal journal = shards.get(index);
+            if (journal == null) {
+                merged.addErrors(String.format("[shard %s] No journal was found.", label));
+                continue;
+            }
+            merged.setPlannedChanges(merged.getPlannedChanges() + journal.getPlannedChanges())
+                    .addAllApplied(journal.getApplied());
+            journal.getErrors().forEach(error -> merged.addErrors(String.format("[shard %s] %s", label, error)));
+        }
+        return merged.build();
+    }
+
+    public List<ApplyJournal> readJournalsFromFiles(List<File> journalFiles) {
+        List<ApplyJournal> journals = new ArrayList<>();
+        journalFiles.forEach(file -> journals.add(readJournalFromFile(file)));
+        return journals;
+    }
+
+    public ApplyJournal readJournalFromFile(File journalFile) {
+        try {
+            return objectMapper.readValue(journalFile, ApplyJournal.class);
+        } catch (FileNotFoundException ex) {
+            throw new ReadJournalInputException(journalFile.getName(), "The file could not be found.");
+        } catch (IOException ex) {
+            throw new ReadJournalInputException(journalFile.getName(), ex.getMessage());
+        }
+    }
+
+    public void writeJournalToFile(ApplyJournal journal, File journalFile) {
+        try {
+            objectMapper.writeValue(journalFile, journal);
+        } catch (IOException ex) {
+            throw new WriteJournalOutputException(ex.getMessage());
+        }
+    }
+}
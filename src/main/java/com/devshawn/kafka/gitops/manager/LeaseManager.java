@@ -0,0 +1,195 @@
+package com.devshawn.kafka.gitops.manager;
+
+import com.devshawn.kafka.gitops.domain.lease.ApplyLease;
+import com.devshawn.kafka.gitops.domain.plan.AclPlan;
+import com.devshawn.kafka.gitops.domain.plan.DesiredPlan;
+import com.devshawn.kafka.gitops.enums.PlanAction;
+import com.devshawn.kafka.gitops.exception.LeaseUnavailableException;
+import com.devshawn.kafka.gitops.service.LeaseService;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/*
+ * An apply takes a lease on the resources its plan changes: topics by name, ACLs by principal, and quotas, connectors
+ * and consumer groups by name. Leases on disjoint resources are held at the same time; an apply whose resources
+ * overlap a held lease waits for it to be released or to expire, or fails once the wait time is over. A held lease is
+ * renewed by a heartbeat, so it expires shortly after its apply dies without releasing it. If a renewal fails, the
+ * lease may expire while the apply is running, so it is treated as lost and the apply stops before its next change.
+ */
+public class LeaseManager {
+
+    private static org.slf4j.Logger log = LoggerFactory.getLogger(LeaseManager.class);
+
+    public static final long LEASE_TTL_MS = 30000;
+
+    private static final long HEARTBEAT_INTERVAL_MS = LEASE_TTL_MS / 3;
+    private static final long RETRY_INTERVAL_MS = 2000;
+
+    private final LeaseService leaseService;
+    private final String owner;
+    private final long waitMs;
+
+    private ApplyLease lease;
+    private ScheduledExecutorService heartbeat;
+    private volatile String lostReason;
+
+    public LeaseManager(LeaseService leaseService, String owner, long waitMs) {
+        this.leaseService = leaseService;
+        this.owner = owner;
+        this.waitMs = waitMs;
+    }
+
+    public static Set<String> getLeasedResources(DesiredPlan desiredPlan, boolean deleteDisabled) {
+        Set<String> resources = new TreeSet<>();
+        desiredPlan.getTopicPlans().stream()
+                .filter(it -> isChange(it.getAction(), deleteDisabled))
+                .forEach(it -> resources.add("topic:" + it.getName()));
+        desiredPlan.getAclPlans().stream()
+                .filter(it -> isChange(it.getAction(), deleteDisabled))
+                .map(AclPlan::getAclDetails)
+                .forEach(it -> resources.add("acl:" + it.getPrincipal()));
+        desiredPlan.getQuotaPlans().stream()
+                .filter(it -> isChange(it.getAction(), deleteDisabled))
+                .forEach(it -> resources.add("quota:" + it.getName()));
+        desiredPlan.getConnectorPlans().stream()
+                .filter(it -> isChange(it.getAction(), deleteDisabled))
+                .forEach(it -> resources.add("connector:" + it.getName()));
+        desiredPlan.getConsumerGroupPlans().stream()
+                .filter(it -> isChange(it.getAction(), deleteDisabled))
+                .forEach(it -> resources.add("consumer-group:" + it.getName()));
+        return resources;
+    }
+
+    /*
+     * A lease is written only when no conflicting lease is visible, then the topic is read again: if a conflicting
+     * lease was written first in the meantime, this one is withdrawn and the attempt is retried.
+     */
+    public ApplyLease acquire(Set<String> resources) {
+        leaseService.createTopicIfMissing();
+        long deadline = System.currentTimeMillis() + waitMs;
+        while (true) {
+            List<ApplyLease> conflicts = findConflicts(leaseService.readLeases(), resources, Long.MAX_VALUE);
+            if (conflicts.isEmpty()) {
+                ApplyLease candidate = createLease(UUID.randomUUID().toString(), resources, null);
+                long offset = leaseService.writeLease(candidate);
+                conflicts = findConflicts(leaseService.readLeases(), resources, offset);
+                if (conflicts.isEmpty()) {
+                    lease = new ApplyLease.Builder().mergeFrom(candidate).setAcquiredOffset(offset).build();
+                    startHeartbeat();
+                    log.info("[LEASE] Acquired lease {} on {} resources", lease.getId(), resources.size());
+                    return lease;
+                }
+                leaseService.deleteLease(candidate.getId());
+            }
+
+            if (System.currentTimeMillis() + RETRY_INTERVAL_MS > deadline) {
+                throw new LeaseUnavailableException(String.format("Could not acquire an apply lease: %s", describe(conflicts)));
+            }
+            log.info("[LEASE] Waiting for {}", describe(conflicts));
+            sleep(RETRY_INTERVAL_MS);
+        }
+    }
+
+    public void checkLease() {
+        if (lostReason != null) {
+            throw new LeaseUnavailableException(String.format("The apply lease was lost: %s", lostReason));
+        }
+    }
+
+    /*
+     * The heartbeat is stopped and awaited before the tombstone is written, so a renewal still in flight cannot write
+     * the lease again after it was released.
+     */
+    public void release() {
+        if (heartbeat != null) {
+            heartbeat.shutdownNow();
+            try {
+                heartbeat.awaitTermination(HEARTBEAT_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            heartbeat = null;
+        }
+        try {
+            if (lease != null) {
+                leaseService.deleteLease(lease.getId());
+                log.info("[LEASE] Released lease {}", lease.getId());
+            }
+        } finally {
+            lease = null;
+            leaseService.close();
+        }
+    }
+
+    private void startHeartbeat() {
+        heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "kafka-gitops-lease-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeat.scheduleAtFixedRate(this::renew, HEARTBEAT_INTERVAL_MS, HEARTBEAT_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private void renew() {
+        ApplyLease current = lease;
+        if (current == null) {
+            return;
+        }
+        try {
+            leaseService.writeLease(createLease(current.getId(), current.getResources(), current.getAcquiredOffset().get()));
+        } catch (RuntimeException ex) {
+            lostReason = String.format("failed to renew lease %s: %s", current.getId(), ex.getMessage());
+            log.error("[LEASE] {}", lostReason);
+            // Throwing cancels the heartbeat, as the lease is not renewed again once it was lost
+            throw new LeaseUnavailableException(lostReason);
+        }
+    }
+
+    private ApplyLease createLease(String id, Set<String> resources, Long acquiredOffset) {
+        return new ApplyLease.Builder()
+                .setId(id)
+                .setOwner(owner)
+                .addAllResources(resources)
+                .setExpiresAt(System.currentTimeMillis() + LEASE_TTL_MS)
+                .setNullableAcquiredOffset(acquiredOffset)
+                .build();
+    }
+
+    /*
+     * Returns the unexpired leases overlapping the resources that were first written before the given offset.
+     */
+    private static List<ApplyLease> findConflicts(List<ApplyLease> leases, Set<String> resources, long offset) {
+        long now = System.currentTimeMillis();
+        return leases.stream()
+                .filter(it -> it.getAcquiredOffset().get() < offset)
+                .filter(it -> !it.isExpired(now) && it.overlaps(resources))
+                .collect(Collectors.toList());
+    }
+
+    private static String describe(List<ApplyLease> conflicts) {
+        return conflicts.stream()
+                .map(it -> String.format("lease %s held by %s", it.getId(), it.getOwner()))
+                .collect(Collectors.joining(", "));
+    }
+
+    private static boolean isChange(PlanAction action, boolean deleteDisabled) {
+        return action != PlanAction.NO_CHANGE && !(deleteDisabled && action == PlanAction.REMOVE);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new LeaseUnavailableException("Could not acquire an apply lease: Interrupted while waiting for a lease.");
+        }
+    }
+}
@@ -2,7 +2,9 @@ package com.devshawn.kafka.gitops.manager;
 
 import com.devshawn.kafka.gitops.config.ManagerConfig;
 import com.devshawn.kafka.gitops.domain.plan.*;
+import com.devshawn.kafka.gitops.domain.snapshot.ClusterSnapshot;
 import com.devshawn.kafka.gitops.domain.state.AclDetails;
+import com.devshawn.kafka.gitops.domain.state.ClientQuota;
 import com.devshawn.kafka.gitops.domain.state.DesiredState;
 import com.devshawn.kafka.gitops.domain.state.TopicDetails;
 import com.devshawn.kafka.gitops.enums.PlanAction;
@@ -11,21 +13,40 @@ import com.devshawn.kafka.gitops.exception.ReadPlanInputException;
 import com.devshawn.kafka.gitops.exception.WritePlanOutputException;
 import com.devshawn.kafka.gitops.service.KafkaService;
 import com.devshawn.kafka.gitops.util.PlanUtil;
+import com.devshawn.kafka.gitops.util.ReplicaPlacementPlanner;
+import com.devshawn.kafka.gitops.util.TopicConfigUtil;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.admin.AlterConfigOp;
 import org.apache.kafka.clients.admin.Config;
 import org.apache.kafka.clients.admin.ConfigEntry;
 import org.apache.kafka.clients.admin.TopicListing;
+import org.apache.kafka.common.ConsumerGroupState;
+import org.apache.kafka.common.acl.AccessControlEntryFilter;
 import org.apache.kafka.common.acl.AclBinding;
+import org.apache.kafka.common.acl.AclBindingFilter;
+import org.apache.kafka.common.acl.AclOperation;
+import org.apache.kafka.common.acl.AclPermissionType;
 import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.quota.ClientQuotaEntity;
+import org.apache.kafka.common.resource.PatternType;
+import org.apache.kafka.common.resource.ResourcePatternFilter;
+import org.apache.kafka.common.resource.ResourceType;
 import org.slf4j.LoggerFactory;
 
 import java.io.FileNotFoundException;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 public class PlanManager {
@@ -34,18 +55,32 @@ public class PlanManager {
 
     private final ManagerConfig managerConfig;
     private final KafkaService kafkaService;
+    private final ClusterSnapshot snapshot;
     private final ObjectMapper objectMapper;
 
     public PlanManager(ManagerConfig managerConfig, KafkaService kafkaService, ObjectMapper objectMapper) {
         this.managerConfig = managerConfig;
         this.kafkaService = kafkaService;
+        this.snapshot = null;
+        this.objectMapper = objectMapper;
+    }
+
+    /*
+     * Plans against a previously captured snapshot instead of a live cluster; no admin client is created.
+     */
+    public PlanManager(ManagerConfig managerConfig, ClusterSnapshot snapshot, ObjectMapper objectMapper) {
+        this.managerConfig = managerConfig;
+        this.kafkaService = null;
+        this.snapshot = snapshot;
         this.objectMapper = objectMapper;
     }
 
     public void planTopics(DesiredState desiredState, DesiredPlan.Builder desiredPlan) {
-        List<TopicListing> topics = kafkaService.getTopics();
-        List<String> topicNames = topics.stream().map(TopicListing::name).collect(Collectors.toList());
-        Map<String, List<ConfigEntry>> topicConfigs = fetchTopicConfigurations(topicNames);
+        List<String> topicNames = fetchTopicNames().stream()
+                .filter(this::isTopicInScope)
+                .collect(Collectors.toList());
+        Map<String, Map<String, String>> topicConfigs = fetchTopicConfigurations(topicNames);
+        ReplicaPlacementPlanner placementPlanner = createPlacementPlanner(desiredState, topicNames);
 
         desiredState.getTopics().forEach((key, value) -> {
             TopicPlan.Builder topicPlan = new TopicPlan.Builder()
@@ -55,6 +90,9 @@ public class PlanManager {
             if (!topicNames.contains(key)) {
                 log.info("[PLAN] Topic {} does not exist; it will be created.", key);
                 topicPlan.setAction(PlanAction.ADD);
+                if (placementPlanner != null && isBalancedPlacement(value)) {
+                    topicPlan.putAllReplicaAssignments(placementPlanner.assign(key, value.getPartitions(), value.getReplication().get()));
+                }
             } else {
                 log.info("[PLAN] Topic {} exists, it will not be created.", key);
                 topicPlan.setAction(PlanAction.NO_CHANGE);
@@ -64,16 +102,16 @@ public class PlanManager {
             desiredPlan.addTopicPlans(topicPlan.build());
         });
 
-        topics.forEach(currentTopic -> {
-            boolean shouldIgnore = desiredState.getPrefixedTopicsToIgnore().stream().anyMatch(it -> currentTopic.name().startsWith(it));
+        topicNames.forEach(currentTopic -> {
+            boolean shouldIgnore = desiredState.getPrefixedTopicsToIgnore().stream().anyMatch(currentTopic::startsWith);
             if (shouldIgnore) {
-                log.info("[PLAN] Ignoring topic {} due to prefix", currentTopic.name());
+                log.info("[PLAN] Ignoring topic {} due to prefix", currentTopic);
                 return;
             }
 
-            if (!managerConfig.isDeleteDisabled() && desiredState.getTopics().getOrDefault(currentTopic.name(), null) == null) {
+            if (!managerConfig.isDeleteDisabled() && desiredState.getTopics().getOrDefault(currentTopic, null) == null) {
                 TopicPlan topicPlan = new TopicPlan.Builder()
-                        .setName(currentTopic.name())
+                        .setName(currentTopic)
                         .setAction(PlanAction.REMOVE)
                         .build();
 
@@ -82,41 +120,114 @@ public class PlanManager {
         });
     }
 
-    private void planTopicConfigurations(String topicName, TopicDetails topicDetails, List<ConfigEntry> configs, TopicPlan.Builder topicPlan) {
-        Map<String, TopicConfigPlan> configPlans = new HashMap<>();
-        List<ConfigEntry> customConfigs = configs.stream()
-                .filter(it -> it.source() == ConfigEntry.ConfigSource.DYNAMIC_TOPIC_CONFIG)
+    /*
+     * The broker load is only read when a new topic asks for balanced placement. Snapshots carry no broker load, so
+     * such topics are left to the controller.
+     */
+    private ReplicaPlacementPlanner createPlacementPlanner(DesiredState desiredState, List<String> topicNames) {
+        boolean placementRequested = desiredState.getTopics().entrySet().stream()
+                .anyMatch(it -> !topicNames.contains(it.getKey()) && isBalancedPlacement(it.getValue()));
+        if (!placementRequested) {
+            return null;
+        }
+        if (snapshot != null) {
+            log.info("[PLAN] Broker load is not captured in snapshots; new topics will be placed by the controller.");
+            return null;
+        }
+        return new ReplicaPlacementPlanner(kafkaService.getBrokerLoads());
+    }
+
+    private static boolean isBalancedPlacement(TopicDetails topicDetails) {
+        return topicDetails.getPlacement().map(TopicDetails.BALANCED_PLACEMENT::equals).orElse(false);
+    }
+
+    /*
+     * All planned topic removals are checked together: one offset lookup finds topics that still hold records and one
+     * lookup of every consumer group finds topics assigned to active consumers. As any group could be consuming them, a
+     * group that cannot be described blocks all of the removals. Those removals stay in the plan with the reason they
+     * are blocked and are not applied.
+     */
+    public void guardTopicDeletions(DesiredPlan.Builder desiredPlan) {
+        List<String> candidates = desiredPlan.getTopicPlans().stream()
+                .filter(it -> it.getAction() == PlanAction.REMOVE)
+                .map(TopicPlan::getName)
                 .collect(Collectors.toList());
+        if (candidates.isEmpty()) {
+            return;
+        }
 
-        customConfigs.forEach(currentConfig -> {
-            String newConfig = topicDetails.getConfigs().getOrDefault(currentConfig.name(), null);
+        Map<String, Long> recordCounts = kafkaService.getTopicRecordCounts(candidates);
+        List<String> groupIds = kafkaService.getConsumerGroupIds();
+        Map<String, Set<String>> groupAssignments = kafkaService.getConsumerGroupAssignments(groupIds);
+        Map<String, Set<String>> assignedGroups = new HashMap<>();
+        groupAssignments.forEach((groupId, topics) -> topics.stream()
+                .filter(candidates::contains)
+                .forEach(topic -> assignedGroups.computeIfAbsent(topic, it -> new TreeSet<>()).add(groupId)));
+        Set<String> undescribedGroups = groupIds.stream()
+                .filter(it -> !groupAssignments.containsKey(it))
+                .collect(Collectors.toCollection(TreeSet::new));
+
+        List<TopicPlan> topicPlans = new ArrayList<>(desiredPlan.getTopicPlans());
+        desiredPlan.clearTopicPlans();
+        topicPlans.forEach(topicPlan -> {
+            String blocker = topicPlan.getAction() == PlanAction.REMOVE
+                    ? getDeletionBlocker(topicPlan.getName(), recordCounts, assignedGroups, undescribedGroups) : null;
+            if (blocker != null) {
+                log.info("[PLAN] Topic {} will not be removed: {}", topicPlan.getName(), blocker);
+            }
+            desiredPlan.addTopicPlans(new TopicPlan.Builder().mergeFrom(topicPlan).setNullableDeletionBlocker(blocker).build());
+        });
+    }
+
+    private static String getDeletionBlocker(String topicName, Map<String, Long> recordCounts, Map<String, Set<String>> assignedGroups,
+                                             Set<String> undescribedGroups) {
+        List<String> reasons = new ArrayList<>();
+        long records = recordCounts.getOrDefault(topicName, 0L);
+        if (records > 0) {
+            reasons.add(String.format("holds %s records", records));
+        }
+        Set<String> groups = assignedGroups.getOrDefault(topicName, Collections.emptySet());
+        if (!groups.isEmpty()) {
+            reasons.add(String.format("assigned to consumer groups %s", String.join(", ", groups)));
+        }
+        if (!undescribedGroups.isEmpty()) {
+            reasons.add(String.format("consumer groups %s could not be described", String.join(", ", undescribedGroups)));
+        }
+        return reasons.isEmpty() ? null : String.join("; ", reasons);
+    }
+
+    private void planTopicConfigurations(String topicName, TopicDetails topicDetails, Map<String, String> customConfigs, TopicPlan.Builder topicPlan) {
+        Map<String, TopicConfigPlan> configPlans = new HashMap<>();
+
+        customConfigs.forEach((currentKey, currentValue) -> {
+            String newConfig = topicDetails.getConfigs().getOrDefault(currentKey, null);
 
             TopicConfigPlan.Builder topicConfigPlan = new TopicConfigPlan.Builder()
-                    .setKey(currentConfig.name());
+                    .setKey(currentKey);
 
-            if (currentConfig.value().equals(newConfig)) {
+            if (TopicConfigUtil.isEquivalent(currentKey, currentValue, newConfig)) {
                 topicConfigPlan.setAction(PlanAction.NO_CHANGE);
-                topicConfigPlan.setValue(currentConfig.value());
-                configPlans.put(currentConfig.name(), topicConfigPlan.build());
+                topicConfigPlan.setValue(currentValue);
+                configPlans.put(currentKey, topicConfigPlan.build());
             } else if (newConfig == null) {
                 topicConfigPlan.setAction(PlanAction.REMOVE);
-                configPlans.put(currentConfig.name(), topicConfigPlan.build());
+                configPlans.put(currentKey, topicConfigPlan.build());
                 topicPlan.setAction(PlanAction.UPDATE);
             }
         });
 
         topicDetails.getConfigs().forEach((key, value) -> {
-            ConfigEntry currentConfig = customConfigs.stream().filter(it -> it.name().equals(key)).findFirst().orElse(null);
+            String currentValue = customConfigs.get(key);
 
             TopicConfigPlan.Builder topicConfigPlan = new TopicConfigPlan.Builder()
                     .setKey(key)
                     .setValue(value);
 
-            if (currentConfig == null) {
+            if (currentValue == null) {
                 topicConfigPlan.setAction(PlanAction.ADD);
                 configPlans.put(key, topicConfigPlan.build());
                 topicPlan.setAction(PlanAction.UPDATE);
-            } else if (!currentConfig.value().equals(value)) {
+            } else if (!TopicConfigUtil.isEquivalent(key, currentValue, value)) {
                 topicConfigPlan.setAction(PlanAction.UPDATE);
                 configPlans.put(key, topicConfigPlan.build());
                 topicPlan.setAction(PlanAction.UPDATE);
@@ -130,7 +241,7 @@ public class PlanManager {
     }
 
     public void planAcls(DesiredState desiredState, DesiredPlan.Builder desiredPlan) {
-        List<AclBinding> currentAcls = kafkaService.getAcls();
+        List<AclBinding> currentAcls = fetchCurrentAcls(desiredState);
 
         currentAcls.forEach(acl -> {
             Map.Entry<String, AclDetails> detailsEntry = desiredState.getAcls().entrySet().stream()
@@ -143,6 +254,7 @@ public class PlanManager {
                 aclPlan.setName(detailsEntry.getKey());
                 aclPlan.setAclDetails(detailsEntry.getValue());
                 aclPlan.setAction(PlanAction.NO_CHANGE);
+                aclPlan.addAllSourceNames(desiredState.getAclSourceNames().getOrDefault(detailsEntry.getKey(), Collections.emptyList()));
                 desiredPlan.addAclPlans(aclPlan.build());
             } else {
                 aclPlan.setName("Unnamed ACL");
@@ -162,6 +274,7 @@ public class PlanManager {
                         .setName(key)
                         .setAclDetails(value)
                         .setAction(PlanAction.ADD)
+                        .addAllSourceNames(desiredState.getAclSourceNames().getOrDefault(key, Collections.emptyList()))
                         .build();
 
                 desiredPlan.addAclPlans(aclPlan);
@@ -169,6 +282,163 @@ public class PlanManager {
         });
     }
 
+    /*
+     * A consumer group belonged to a removed service if its LITERAL group ACLs are planned for removal and no desired
+     * ACL still refers to it. Such groups are looked up in one request, and only those the coordinator reports as empty
+     * are planned for deletion, so a group with active members, or one that could not be described, is never removed.
+     */
+    public void planConsumerGroups(DesiredState desiredState, DesiredPlan.Builder desiredPlan) {
+        if (snapshot != null) {
+            log.info("[PLAN] Consumer groups are not captured in snapshots; skipping consumer group cleanup.");
+            return;
+        }
+
+        List<AclDetails> desiredGroupAcls = desiredState.getAcls().values().stream()
+                .filter(it -> it.getType().equals("GROUP"))
+                .collect(Collectors.toList());
+        Set<String> candidates = desiredPlan.getAclPlans().stream()
+                .filter(it -> it.getAction() == PlanAction.REMOVE)
+                .map(AclPlan::getAclDetails)
+                .filter(it -> it.getType().equals("GROUP") && it.getPattern().equals("LITERAL") && !it.getName().equals("*"))
+                .map(AclDetails::getName)
+                .filter(name -> desiredGroupAcls.stream().noneMatch(acl -> isGroupReferenced(acl, name)))
+                .collect(Collectors.toCollection(TreeSet::new));
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        Map<String, ConsumerGroupState> states = kafkaService.describeConsumerGroupStates(candidates);
+        candidates.forEach(name -> {
+            ConsumerGroupState state = states.get(name);
+            if (state == null) {
+                log.info("[PLAN] Consumer group {} could not be described; it will not be removed.", name);
+            } else if (state == ConsumerGroupState.EMPTY) {
+                log.info("[PLAN] Consumer group {} | [{}]", name, PlanAction.REMOVE);
+                desiredPlan.addConsumerGroupPlans(new ConsumerGroupPlan.Builder().setName(name).setAction(PlanAction.REMOVE).build());
+            } else if (state != ConsumerGroupState.DEAD) {
+                log.info("[PLAN] Consumer group {} is {}; it will not be removed.", name, state);
+            }
+        });
+    }
+
+    private static boolean isGroupReferenced(AclDetails acl, String groupName) {
+        if (acl.getPattern().equals("PREFIXED")) {
+            return groupName.startsWith(acl.getName());
+        }
+        return acl.getName().equals(groupName);
+    }
+
+    /*
+     * Quotas are keyed by their (user, client-id) entity. Default entities and entities of other types are not managed.
+     */
+    public void planQuotas(DesiredState desiredState, DesiredPlan.Builder desiredPlan) {
+        if (snapshot != null) {
+            log.info("[PLAN] Client quotas are not captured in snapshots; skipping quota planning.");
+            return;
+        }
+
+        Map<List<String>, Map<String, Double>> currentQuotas = new LinkedHashMap<>();
+        kafkaService.getClientQuotas().forEach((entity, quotas) -> {
+            Map<String, String> entries = entity.entries();
+            boolean managed = !entries.isEmpty() && !entries.containsValue(null) && entries.keySet().stream()
+                    .allMatch(it -> it.equals(ClientQuotaEntity.USER) || it.equals(ClientQuotaEntity.CLIENT_ID));
+            if (managed) {
+                currentQuotas.put(Arrays.asList(entries.get(ClientQuotaEntity.USER), entries.get(ClientQuotaEntity.CLIENT_ID)), quotas);
+            }
+        });
+
+        desiredState.getQuotas().forEach((name, clientQuota) -> {
+            List<String> entityKey = Arrays.asList(clientQuota.getUser().orElse(null), clientQuota.getClientId().orElse(null));
+            Map<String, Double> current = currentQuotas.remove(entityKey);
+            QuotaPlan.Builder quotaPlan = new QuotaPlan.Builder()
+                    .setName(name)
+                    .setUser(clientQuota.getUser())
+                    .setClientId(clientQuota.getClientId())
+                    .setAction(current == null ? PlanAction.ADD : PlanAction.NO_CHANGE);
+
+            planQuotaConfigurations(clientQuota, current == null ? new HashMap<>() : current, quotaPlan);
+            log.info("[PLAN] Quota {} | [{}]", name, quotaPlan.getAction());
+            desiredPlan.addQuotaPlans(quotaPlan.build());
+        });
+
+        if (!managerConfig.isDeleteDisabled()) {
+            currentQuotas.forEach((entityKey, quotas) -> {
+                QuotaPlan.Builder quotaPlan = new QuotaPlan.Builder()
+                        .setName("Unnamed quota")
+                        .setNullableUser(entityKey.get(0))
+                        .setNullableClientId(entityKey.get(1))
+                        .setAction(PlanAction.REMOVE);
+                quotas.keySet().forEach(key -> quotaPlan.addQuotaConfigPlans(new QuotaConfigPlan.Builder()
+                        .setKey(key)
+                        .setAction(PlanAction.REMOVE)
+                        .build()));
+                desiredPlan.addQuotaPlans(quotaPlan.build());
+            });
+        }
+    }
+
+    private void planQuotaConfigurations(ClientQuota clientQuota, Map<String, Double> current, QuotaPlan.Builder quotaPlan) {
+        clientQuota.getQuotas().forEach((key, value) -> {
+            Double currentValue = current.get(key);
+            QuotaConfigPlan.Builder quotaConfigPlan = new QuotaConfigPlan.Builder().setKey(key).setValue(value);
+            if (currentValue == null) {
+                quotaConfigPlan.setAction(PlanAction.ADD);
+            } else if (Double.compare(currentValue, value) != 0) {
+                quotaConfigPlan.setAction(PlanAction.UPDATE);
+            } else {
+                quotaConfigPlan.setAction(PlanAction.NO_CHANGE);
+            }
+            quotaPlan.addQuotaConfigPlans(quotaConfigPlan.build());
+        });
+
+        current.keySet().stream()
+                .filter(key -> !clientQuota.getQuotas().containsKey(key))
+                .forEach(key -> quotaPlan.addQuotaConfigPlans(new QuotaConfigPlan.Builder()
+                        .setKey(key)
+                        .setAction(PlanAction.REMOVE)
+                        .build()));
+
+        boolean changed = quotaPlan.getQuotaConfigPlans().stream().anyMatch(it -> it.getAction() != PlanAction.NO_CHANGE);
+        if (quotaPlan.getAction() == PlanAction.NO_CHANGE && changed) {
+            quotaPlan.setAction(PlanAction.UPDATE);
+        }
+    }
+
+    /*
+     * Dry-runs the topic changes of a plan against the brokers: all new topics go in one validate-only createTopics
+     * request and all config changes in one validate-only incrementalAlterConfigs request. Each rejected topic plan
+     * carries the broker's error so a plan that would fail part way through apply is caught up front.
+     */
+    public DesiredPlan verifyTopicPlans(DesiredPlan desiredPlan) {
+        Map<String, TopicDetails> newTopics = new LinkedHashMap<>();
+        Map<ConfigResource, Collection<AlterConfigOp>> configChanges = new LinkedHashMap<>();
+        desiredPlan.getTopicPlans().forEach(topicPlan -> {
+            if (topicPlan.getAction() == PlanAction.ADD) {
+                newTopics.put(topicPlan.getName(), topicPlan.getTopicDetails().get());
+            } else if (topicPlan.getAction() == PlanAction.UPDATE) {
+                List<AlterConfigOp> configOps = new ArrayList<>();
+                topicPlan.getTopicConfigPlans().forEach(it -> it.toAlterConfigOp().ifPresent(configOps::add));
+                configChanges.put(new ConfigResource(ConfigResource.Type.TOPIC, topicPlan.getName()), configOps);
+            }
+        });
+
+        Map<String, String> errors = new HashMap<>();
+        if (!newTopics.isEmpty()) {
+            errors.putAll(kafkaService.validateCreateTopics(newTopics));
+        }
+        if (!configChanges.isEmpty()) {
+            errors.putAll(kafkaService.validateTopicConfigs(configChanges));
+        }
+        log.info("[VERIFY] Verified {} new topics and {} config changes: {} rejected", newTopics.size(), configChanges.size(), errors.size());
+
+        DesiredPlan.Builder builder = new DesiredPlan.Builder().mergeFrom(desiredPlan).clearTopicPlans();
+        desiredPlan.getTopicPlans().forEach(topicPlan -> builder.addTopicPlans(new TopicPlan.Builder()
+                .mergeFrom(topicPlan)
+                .setNullableVerificationError(errors.get(topicPlan.getName()))
+                .build()));
+        return builder.build();
+    }
+
     public void validatePlanHasChanges(DesiredPlan desiredPlan, boolean deleteDisabled) {
         PlanOverview planOverview = PlanUtil.getOverview(desiredPlan, deleteDisabled);
         if (planOverview.getAdd() == 0 && planOverview.getUpdate() == 0 && planOverview.getRemove() == 0) {
@@ -204,10 +474,82 @@ public class PlanManager {
         }
     }
 
-    private Map<String, List<ConfigEntry>> fetchTopicConfigurations(List<String> topicNames) {
-        Map<String, List<ConfigEntry>> map = new HashMap<>();
+    private List<AclBinding> fetchCurrentAcls(DesiredState desiredState) {
+        if (snapshot != null) {
+            return fetchSnapshotAcls(desiredState);
+        } else if (managerConfig.isPrincipalScoped()) {
+            List<AclBindingFilter> filters = getScopedPrincipals(desiredState).stream()
+                    .map(principal -> new AclBindingFilter(ResourcePatternFilter.ANY,
+                            new AccessControlEntryFilter(principal, null, AclOperation.ANY, AclPermissionType.ANY)))
+                    .collect(Collectors.toList());
+            return filters.isEmpty() ? new ArrayList<>() : kafkaService.getAcls(filters);
+        } else if (!managerConfig.getScopedTopicPrefixes().isEmpty()) {
+            AclBindingFilter filter = new AclBindingFilter(new ResourcePatternFilter(ResourceType.TOPIC, null, PatternType.ANY),
+                    AccessControlEntryFilter.ANY);
+            return kafkaService.getAcls(Collections.singletonList(filter)).stream()
+                    .filter(it -> isTopicInScope(it.pattern().name()))
+                    .collect(Collectors.toList());
+        } else if (!managerConfig.getScopedTopics().isEmpty()) {
+            List<AclBindingFilter> filters = managerConfig.getScopedTopics().stream()
+                    .map(name -> new AclBindingFilter(new ResourcePatternFilter(ResourceType.TOPIC, name, PatternType.ANY),
+                            AccessControlEntryFilter.ANY))
+                    .collect(Collectors.toList());
+            return kafkaService.getAcls(filters);
+        }
+        return kafkaService.getAcls();
+    }
+
+    private List<AclBinding> fetchSnapshotAcls(DesiredState desiredState) {
+        if (managerConfig.isPrincipalScoped()) {
+            Set<String> principals = getScopedPrincipals(desiredState);
+            return snapshot.getAcls().stream()
+                    .filter(it -> principals.contains(it.getPrincipal()))
+                    .map(AclDetails::toAclBinding)
+                    .collect(Collectors.toList());
+        }
+        return snapshot.getAcls().stream()
+                .filter(it -> !managerConfig.isTopicScoped() || (it.getType().equals("TOPIC") && isTopicInScope(it.getName())))
+                .map(AclDetails::toAclBinding)
+                .collect(Collectors.toList());
+    }
+
+    /*
+     * Principals of the scoped services and users, plus principals that are scoped explicitly because the services or
+     * users they belonged to were removed from the desired state.
+     */
+    private Set<String> getScopedPrincipals(DesiredState desiredState) {
+        Set<String> principals = desiredState.getAcls().values().stream()
+                .map(AclDetails::getPrincipal)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        principals.addAll(managerConfig.getScopedPrincipals());
+        return principals;
+    }
+
+    private List<String> fetchTopicNames() {
+        if (snapshot != null) {
+            return new ArrayList<>(snapshot.getTopics().keySet());
+        }
+        return kafkaService.getTopics().stream().map(TopicListing::name).collect(Collectors.toList());
+    }
+
+    private boolean isTopicInScope(String topicName) {
+        return !managerConfig.isScoped() || managerConfig.isTopicInScope(topicName);
+    }
+
+    private Map<String, Map<String, String>> fetchTopicConfigurations(List<String> topicNames) {
+        Map<String, Map<String, String>> map = new HashMap<>();
+        if (snapshot != null) {
+            topicNames.forEach(name -> map.put(name, snapshot.getTopics().get(name).getConfigs()));
+            return map;
+        }
         Map<ConfigResource, Config> configs = kafkaService.describeConfigsForTopics(topicNames);
-        configs.forEach((key, value) -> map.put(key.name(), new ArrayList<ConfigEntry>(value.entries())));
+        configs.forEach((key, value) -> {
+            Map<String, String> customConfigs = new HashMap<>();
+            value.entries().stream()
+                    .filter(it -> it.source() == ConfigEntry.ConfigSource.DYNAMIC_TOPIC_CONFIG)
+                    .forEach(it -> customConfigs.put(it.name(), it.value()));
+            map.put(key.name(), customConfigs);
+        });
         return map;
     }
 }
@@ -0,0 +1,88 @@
+package com.devshawn.kafka.gitops.manager;
+
+import com.devshawn.kafka.gitops.domain.snapshot.ClusterSnapshot;
+import com.devshawn.kafka.gitops.domain.state.AclDetails;
+import com.devshawn.kafka.gitops.domain.state.TopicDetails;
+import com.devshawn.kafka.gitops.exception.ReadSnapshotInputException;
+import com.devshawn.kafka.gitops.exception.WriteSnapshotOutputException;
+import com.devshawn.kafka.gitops.service.KafkaService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.admin.Config;
+import org.apache.kafka.clients.admin.ConfigEntry;
+import org.apache.kafka.clients.admin.TopicListing;
+import org.apache.kafka.common.config.ConfigResource;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/*
+ * A snapshot holds what planning reads from a cluster: topic names with their dynamic configs, and every ACL binding.
+ * Planning against a snapshot needs no connection to the cluster.
+ */
+public class SnapshotManager {
+
+    private static org.slf4j.Logger log = LoggerFactory.getLogger(SnapshotManager.class);
+
+    private static final int TOPIC_BATCH_SIZE = 1000;
+
+    private final ObjectMapper objectMapper;
+
+    public SnapshotManager(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public ClusterSnapshot capture(KafkaService kafkaService) {
+        ClusterSnapshot.Builder snapshot = new ClusterSnapshot.Builder().setCapturedAt(System.currentTimeMillis());
+
+        List<String> topicNames = kafkaService.getTopics().stream()
+                .map(TopicListing::name)
+                .sorted()
+                .collect(Collectors.toList());
+        log.info("[SNAPSHOT] Capturing {} topics", topicNames.size());
+
+        kafkaService.describeTopicsInBatches(topicNames, TOPIC_BATCH_SIZE, (descriptions, configs) ->
+                descriptions.forEach((name, description) -> {
+                    TopicDetails.Builder topicDetails = new TopicDetails.Builder()
+                            .setPartitions(description.partitions().size())
+                            .setReplication(description.partitions().get(0).replicas().size());
+                    Config config = configs.get(new ConfigResource(ConfigResource.Type.TOPIC, name));
+                    if (config != null) {
+                        config.entries().stream()
+                                .filter(it -> it.source() == ConfigEntry.ConfigSource.DYNAMIC_TOPIC_CONFIG)
+                                .forEach(it -> topicDetails.putConfigs(it.name(), it.value()));
+                    }
+                    snapshot.putTopics(name, topicDetails.build());
+                }));
+
+        List<AclDetails> acls = kafkaService.getAcls().stream()
+                .map(AclDetails::fromAclBinding)
+                .sorted(Comparator.comparing(AclDetails::getPrincipal).thenComparing(AclDetails::getType).thenComparing(AclDetails::getName))
+                .collect(Collectors.toList());
+        log.info("[SNAPSHOT] Capturing {} ACLs", acls.size());
+
+        return snapshot.addAllAcls(acls).build();
+    }
+
+    public ClusterSnapshot readSnapshotFromFile(File snapshotFile) {
+        try {
+            return objectMapper.readValue(snapshotFile, ClusterSnapshot.class);
+        } catch (FileNotFoundException ex) {
+            throw new ReadSnapshotInputException("The specified snapshot file could not be found.");
+        } catch (IOException ex) {
+            throw new ReadSnapshotInputException();
+        }
+    }
+
+    public void writeSnapshotToFile(ClusterSnapshot snapshot, File snapshotFile) {
+        try {
+            objectMapper.writeValue(snapshotFile, snapshot);
+        } catch (IOException ex) {
+            throw new WriteSnapshotOutputException(ex.getMessage());
+        }
+    }
+}
@@ -2,56 +2,195 @@ package com.devshawn.kafka.gitops.service;
 
 import com.devshawn.kafka.gitops.domain.confluent.ServiceAccount;
 import com.devshawn.kafka.gitops.exception.ConfluentCloudException;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.devshawn.kafka.gitops.exception.MissingConfigurationException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import okhttp3.*;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
+/*
+ * Talks to the Confluent Cloud IAM API directly instead of forking the ccloud tool. One HTTP client is shared by
+ * all requests so connections are reused, listing follows the API's pagination, and creates run on a bounded pool.
+ */
 public class ConfluentCloudService {
 
     private static org.slf4j.Logger log = LoggerFactory.getLogger(ConfluentCloudService.class);
 
+    public static final String DEFAULT_API_URL = "https://api.confluent.cloud";
+
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+    private static final int PAGE_SIZE = 100;
+    private static final int PARALLELISM = 8;
+    private static final int MAX_ATTEMPTS = 3;
+
     private final ObjectMapper objectMapper;
+    private final String apiUrl;
+    private final String apiKey;
+    private final String apiSecret;
+    private final OkHttpClient httpClient;
 
     public ConfluentCloudService(ObjectMapper objectMapper) {
+        this(objectMapper, System.getenv().getOrDefault("CONFLUENT_CLOUD_API_URL", DEFAULT_API_URL),
+                System.getenv("CONFLUENT_CLOUD_API_KEY"), System.getenv("CONFLUENT_CLOUD_API_SECRET"));
+    }
+
+    public ConfluentCloudService(ObjectMapper objectMapper, String apiUrl, String apiKey, String apiSecret) {
         this.objectMapper = objectMapper;
+        this.apiUrl = apiUrl;
+        this.apiKey = apiKey;
+        this.apiSecret = apiSecret;
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequestsPerHost(PARALLELISM);
+        this.httpClient = new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(PARALLELISM, 5, TimeUnit.MINUTES))
+                .connectTimeout(10, TimeUnit.SECONDS)
+                .readTimeout(30, TimeUnit.SECONDS)
+                .build();
     }
 
+    /*
+     * The API authenticates every request with a Cloud API key, so there is no session to establish; this only checks
+     * that the credentials are configured before any work is done.
+     */
     public void loginCCloud() {
-        try {
-            execCmd(new String[]{"ccloud", "login"});
-        } catch (IOException ex) {
-            throw new ConfluentCloudException("Error Logging in to Confluent Cloud. Are credentials defined in environment variables?");
+        if (apiKey == null || apiKey.isEmpty()) {
+            throw new MissingConfigurationException("CONFLUENT_CLOUD_API_KEY");
+        }
+        if (apiSecret == null || apiSecret.isEmpty()) {
+            throw new MissingConfigurationException("CONFLUENT_CLOUD_API_SECRET");
         }
     }
 
     public List<ServiceAccount> getServiceAccounts() {
-        log.info("Fetching service account list from Confluent Cloud via ccloud tool.");
-        try {
-            String result = execCmd(new String[]{"ccloud", "service-account", "list", "-o", "json"});
-            return objectMapper.readValue(result, new TypeReference<List<ServiceAccount>>() {
-            });
-        } catch (IOException ex) {
-            throw new ConfluentCloudException("There was an error listing Confluent Cloud service accounts. Are you logged in?");
+        log.info("Fetching service account list from Confluent Cloud.");
+        List<ServiceAccount> serviceAccounts = new ArrayList<>();
+        HttpUrl url = buildUrl().newBuilder()
+                .addQueryParameter("page_size", String.valueOf(PAGE_SIZE))
+                .build();
+        while (url != null) {
+            JsonNode page = execute(new Request.Builder().url(url).get(), "list Confluent Cloud service accounts");
+            page.path("data").forEach(it -> serviceAccounts.add(toServiceAccount(it)));
+            String next = page.path("metadata").path("next").asText("");
+            url = next.isEmpty() ? null : HttpUrl.parse(next);
         }
+        log.info("Fetched {} service accounts from Confluent Cloud.", serviceAccounts.size());
+        return serviceAccounts;
     }
 
     public ServiceAccount createServiceAccount(String name, boolean isUser) {
-        log.info("Creating service account {} in Confluent Cloud via ccloud tool.", name);
+        log.info("Creating service account {} in Confluent Cloud.", name);
+        String serviceName = isUser ? String.format("user-%s", name) : name;
+        String description = isUser ? String.format("User: %s", name) : String.format("Service account: %s", name);
+        ObjectNode body = objectMapper.createObjectNode()
+                .put("display_name", serviceName)
+                .put("description", description);
         try {
-            String serviceName = isUser ? String.format("user-%s", name) : name;
-            String description = isUser ? String.format("User: %s", name) : String.format("Service account: %s", name);
-            String result = execCmd(new String[]{"ccloud", "service-account", "create", serviceName, "--description", description, "-o", "json"});
-            return objectMapper.readValue(result, ServiceAccount.class);
+            RequestBody requestBody = RequestBody.create(JSON, objectMapper.writeValueAsString(body));
+            JsonNode result = execute(new Request.Builder().url(buildUrl()).post(requestBody), String.format("create Confluent Cloud service account: %s", name));
+            return toServiceAccount(result);
         } catch (IOException ex) {
             throw new ConfluentCloudException(String.format("There was an error creating Confluent Cloud service account: %s.", name));
         }
     }
 
-    public static String execCmd(String[] cmd) throws java.io.IOException {
-        java.util.Scanner s = new java.util.Scanner(Runtime.getRuntime().exec(cmd).getInputStream()).useDelimiter("\\A");
-        return s.hasNext() ? s.next() : "";
+    /*
+     * Creates the given service and user accounts concurrently. Every create is attempted; failures are reported
+     * together once all requests have finished.
+     */
+    public List<ServiceAccount> createServiceAccounts(List<String> serviceNames, List<String> userNames) {
+        Map<String, Future<ServiceAccount>> futures = new LinkedHashMap<>();
+        int total = serviceNames.size() + userNames.size();
+        if (total == 0) {
+            return new ArrayList<>();
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(PARALLELISM, total));
+        try {
+            serviceNames.forEach(name -> futures.put(name, executor.submit(() -> createServiceAccount(name, false))));
+            userNames.forEach(name -> futures.put(String.format("user-%s", name), executor.submit(() -> createServiceAccount(name, true))));
+
+            List<ServiceAccount> created = new ArrayList<>();
+            List<String> errors = new ArrayList<>();
+            for (Map.Entry<String, Future<ServiceAccount>> entry : futures.entrySet()) {
+                try {
+                    created.add(entry.getValue().get());
+                } catch (ExecutionException ex) {
+                    errors.add(ex.getCause().getMessage());
+                }
+            }
+            if (!errors.isEmpty()) {
+                throw new ConfluentCloudException(String.format("%s of %s service accounts could not be created:\n%s", errors.size(), total, String.join("\n", errors)));
+            }
+            return created;
+        } catch (InterruptedException ex) {
+            throw new ConfluentCloudException("Interrupted while creating Confluent Cloud service accounts.");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private JsonNode execute(Request.Builder request, String action) {
+        request.header("Authorization", Credentials.basic(apiKey, apiSecret));
+        for (int attempt = 1; ; attempt++) {
+            try (Response response = httpClient.newCall(request.build()).execute()) {
+                String body = response.body() == null ? "" : response.body().string();
+                if (response.code() == 429 && attempt < MAX_ATTEMPTS) {
+                    sleep(response.header("Retry-After"), attempt);
+                    continue;
+                }
+                if (!response.isSuccessful()) {
+                    throw new ConfluentCloudException(String.format("There was an error when attempting to %s: HTTP %s %s", action, response.code(), body));
+                }
+                return body.isEmpty() ? objectMapper.createObjectNode() : objectMapper.readTree(body);
+            } catch (IOException ex) {
+                throw new ConfluentCloudException(String.format("There was an error when attempting to %s: %s", action, ex.getMessage()));
+            }
+        }
+    }
+
+    private void sleep(String retryAfter, int attempt) {
+        long seconds;
+        try {
+            seconds = retryAfter == null ? attempt : Long.parseLong(retryAfter);
+        } catch (NumberFormatException ex) {
+            seconds = attempt;
+        }
+        try {
+            TimeUnit.SECONDS.sleep(seconds);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ConfluentCloudException("Interrupted while waiting to retry a Confluent Cloud request.");
+        }
+    }
+
+    private HttpUrl buildUrl() {
+        HttpUrl url = HttpUrl.parse(apiUrl);
+        if (url == null) {
+            throw new ConfluentCloudException(String.format("Invalid Confluent Cloud API URL: %s", apiUrl));
+        }
+        return url.newBuilder()
+                .addPathSegments("iam/v2/service-accounts")
+                .build();
+    }
+
+    private ServiceAccount toServiceAccount(JsonNode node) {
+        return new ServiceAccount.Builder()
+                .setId(node.path("id").asText())
+                .setName(node.path("display_name").asText())
+                .build();
     }
 }
@@ -0,0 +1,59 @@
+package com.devshawn.kafka.gitops.service;
+
+import com.devshawn.kafka.gitops.exception.ReadStateRevisionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/*
+ * Reads files as they were at a revision of the git repository containing them, using the git executable so no
+ * repository library is needed.
+ */
+public class GitService {
+
+    private static Logger log = LoggerFactory.getLogger(GitService.class);
+
+    public String readFile(File file, String revision) {
+        File absoluteFile = file.getAbsoluteFile();
+        log.info("Reading {} at revision {}...", absoluteFile.getName(), revision);
+        ProcessBuilder processBuilder = new ProcessBuilder("git", "show", String.format("%s:./%s", revision, absoluteFile.getName()))
+                .directory(absoluteFile.getParentFile());
+        try {
+            Process process = processBuilder.start();
+            // stderr is drained on another thread so git never blocks on a full pipe while stdout is read
+            CompletableFuture<String> error = CompletableFuture.supplyAsync(() -> readFully(process.getErrorStream()));
+            String output = readFully(process.getInputStream());
+            if (process.waitFor() != 0) {
+                throw new ReadStateRevisionException(file.getName(), revision, error.join().trim());
+            }
+            return output;
+        } catch (IOException | UncheckedIOException | CompletionException ex) {
+            throw new ReadStateRevisionException(file.getName(), revision, ex.getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ReadStateRevisionException(file.getName(), revision, "Interrupted while waiting for git.");
+        }
+    }
+
+    private String readFully(InputStream inputStream) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        try {
+            while ((read = inputStream.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
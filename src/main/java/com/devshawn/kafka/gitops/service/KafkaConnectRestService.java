@@ -0,0 +1,101 @@
+package com.devshawn.kafka.gitops.service;
+
+import com.devshawn.kafka.gitops.exception.KafkaConnectException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.*;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public class KafkaConnectRestService {
+
+    private static org.slf4j.Logger log = LoggerFactory.getLogger(KafkaConnectRestService.class);
+
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+    private final ObjectMapper objectMapper;
+    private final OkHttpClient httpClient;
+
+    /*
+     * One client is shared by all requests so connections to a Connect cluster are pooled and reused.
+     */
+    public KafkaConnectRestService(ObjectMapper objectMapper, int maxConnections) {
+        this.objectMapper = objectMapper;
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequestsPerHost(maxConnections);
+        this.httpClient = new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(maxConnections, 5, TimeUnit.MINUTES))
+                .connectTimeout(10, TimeUnit.SECONDS)
+                .readTimeout(60, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /*
+     * Reads the configuration of every connector with a single request.
+     */
+    public Map<String, Map<String, String>> getConnectorConfigs(String connectUrl) {
+        HttpUrl url = buildUrl(connectUrl).newBuilder()
+                .addPathSegment("connectors")
+                .addQueryParameter("expand", "info")
+                .addQueryParameter("expand", "status")
+                .build();
+        JsonNode connectors = execute(new Request.Builder().url(url).get().build(), "list connectors");
+
+        Map<String, Map<String, String>> configs = new LinkedHashMap<>();
+        connectors.fields().forEachRemaining(entry -> {
+            Map<String, String> config = new HashMap<>();
+            entry.getValue().path("info").path("config").fields().forEachRemaining(it -> config.put(it.getKey(), it.getValue().asText()));
+            configs.put(entry.getKey(), config);
+            log.info("[CONNECT] Connector {} is {}", entry.getKey(), entry.getValue().path("status").path("connector").path("state").asText("UNKNOWN"));
+        });
+        return configs;
+    }
+
+    public void putConnectorConfig(String connectUrl, String name, Map<String, String> config) {
+        HttpUrl url = buildUrl(connectUrl).newBuilder()
+                .addPathSegment("connectors")
+                .addPathSegment(name)
+                .addPathSegment("config")
+                .build();
+        try {
+            RequestBody body = RequestBody.create(JSON, objectMapper.writeValueAsString(config));
+            execute(new Request.Builder().url(url).put(body).build(), String.format("update connector %s", name));
+        } catch (IOException ex) {
+            throw new KafkaConnectException(String.format("Error serializing the configuration of connector %s: %s", name, ex.getMessage()));
+        }
+    }
+
+    public void deleteConnector(String connectUrl, String name) {
+        HttpUrl url = buildUrl(connectUrl).newBuilder()
+                .addPathSegment("connectors")
+                .addPathSegment(name)
+                .build();
+        execute(new Request.Builder().url(url).delete().build(), String.format("delete connector %s", name));
+    }
+
+    private JsonNode execute(Request request, String action) {
+        try (Response response = httpClient.newCall(request).execute()) {
+            String body = response.body() == null ? "" : response.body().string();
+            if (!response.isSuccessful()) {
+                throw new KafkaConnectException(String.format("Error thrown when attempting to %s: HTTP %s %s", action, response.code(), body));
+            }
+            return body.isEmpty() ? objectMapper.createObjectNode() : objectMapper.readTree(body);
+        } catch (IOException ex) {
+            throw new KafkaConnectException(String.format("Error thrown when attempting to %s: %s", action, ex.getMessage()));
+        }
+    }
+
+    private HttpUrl buildUrl(String connectUrl) {
+        HttpUrl url = HttpUrl.parse(connectUrl);
+        if (url == null) {
+            throw new KafkaConnectException(String.format("Invalid Kafka Connect URL: %s", connectUrl));
+        }
+        return url;
+    }
+}
@@ -1,19 +1,30 @@
 package com.devshawn.kafka.gitops.service;
 
 import com.devshawn.kafka.gitops.config.KafkaGitopsConfig;
+import com.devshawn.kafka.gitops.domain.cluster.BrokerLoad;
+import com.devshawn.kafka.gitops.domain.cluster.ClusterHealth;
 import com.devshawn.kafka.gitops.domain.state.TopicDetails;
 import com.devshawn.kafka.gitops.exception.KafkaExecutionException;
 import com.devshawn.kafka.gitops.util.LogUtil;
 import org.apache.kafka.clients.admin.*;
+import org.apache.kafka.common.ConsumerGroupState;
 import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.acl.*;
 import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
+import org.apache.kafka.common.quota.ClientQuotaAlteration;
+import org.apache.kafka.common.quota.ClientQuotaEntity;
+import org.apache.kafka.common.quota.ClientQuotaFilter;
 import org.apache.kafka.common.resource.PatternType;
 import org.apache.kafka.common.resource.ResourcePatternFilter;
 import org.apache.kafka.common.resource.ResourceType;
 
 import java.util.*;
 import java.util.concurrent.ExecutionException;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 
 public class KafkaService {
@@ -25,11 +36,21 @@ public class KafkaService {
     }
 
     public List<AclBinding> getAcls() {
+        ResourcePatternFilter resourcePatternFilter = new ResourcePatternFilter(ResourceType.ANY, null, PatternType.ANY);
+        AccessControlEntryFilter accessFilter = new AccessControlEntryFilter(null, null, AclOperation.ANY, AclPermissionType.ANY);
+        return getAcls(Collections.singletonList(new AclBindingFilter(resourcePatternFilter, accessFilter)));
+    }
+
+    public List<AclBinding> getAcls(List<AclBindingFilter> filters) {
         try (final AdminClient adminClient = buildAdminClient()) {
-            ResourcePatternFilter resourcePatternFilter = new ResourcePatternFilter(ResourceType.ANY, null, PatternType.ANY);
-            AccessControlEntryFilter accessFilter = new AccessControlEntryFilter(null, null, AclOperation.ANY, AclPermissionType.ANY);
-            AclBindingFilter filter = new AclBindingFilter(resourcePatternFilter, accessFilter);
-            return new ArrayList<>(adminClient.describeAcls(filter).values().get());
+            List<KafkaFuture<Collection<AclBinding>>> futures = filters.stream()
+                    .map(filter -> adminClient.describeAcls(filter).values())
+                    .collect(Collectors.toList());
+            Set<AclBinding> acls = new LinkedHashSet<>();
+            for (KafkaFuture<Collection<AclBinding>> future : futures) {
+                acls.addAll(future.get());
+            }
+            return new ArrayList<>(acls);
         } catch (InterruptedException | ExecutionException ex) {
             throw new KafkaExecutionException("Error thrown when attempting to list Kafka ACLs", ex.getMessage());
         }
@@ -51,9 +72,15 @@ public class KafkaService {
         }
     }
 
-    public void createTopic(String topicName, TopicDetails topicDetails) {
+    /*
+     * Without replica assignments the controller places the replicas; otherwise the topic is created with exactly the
+     * given replicas per partition.
+     */
+    public void createTopic(String topicName, TopicDetails topicDetails, Map<Integer, List<Integer>> replicaAssignments) {
         try (final AdminClient adminClient = buildAdminClient()) {
-            NewTopic newTopic = new NewTopic(topicName, topicDetails.getPartitions(), topicDetails.getReplication().get().shortValue());
+            NewTopic newTopic = replicaAssignments.isEmpty()
+                    ? new NewTopic(topicName, topicDetails.getPartitions(), topicDetails.getReplication().get().shortValue())
+                    : new NewTopic(topicName, replicaAssignments);
             newTopic.configs(topicDetails.getConfigs());
             adminClient.createTopics(Collections.singletonList(newTopic)).all().get();
         } catch (InterruptedException | ExecutionException | NoSuchElementException ex) {
@@ -61,11 +88,214 @@ public class KafkaService {
         }
     }
 
-    public void deleteTopic(String topicName) {
+    /*
+     * Returns every broker with its rack and the number of partition replicas and leaders it currently holds, counted
+     * over all topics with one describe request.
+     */
+    public List<BrokerLoad> getBrokerLoads() {
+        try (final AdminClient adminClient = buildAdminClient()) {
+            Collection<Node> nodes = adminClient.describeCluster().nodes().get();
+            Set<String> topicNames = adminClient.listTopics(new ListTopicsOptions().listInternal(true)).names().get();
+            Map<Integer, Integer> replicas = new HashMap<>();
+            Map<Integer, Integer> leaders = new HashMap<>();
+            if (!topicNames.isEmpty()) {
+                adminClient.describeTopics(topicNames).all().get().values().forEach(description -> description.partitions().forEach(partition -> {
+                    partition.replicas().forEach(node -> replicas.merge(node.id(), 1, Integer::sum));
+                    if (partition.leader() != null) {
+                        leaders.merge(partition.leader().id(), 1, Integer::sum);
+                    }
+                }));
+            }
+
+            return nodes.stream()
+                    .map(node -> new BrokerLoad.Builder()
+                            .setId(node.id())
+                            .setNullableRack(node.rack())
+                            .setReplicas(replicas.getOrDefault(node.id(), 0))
+                            .setLeaders(leaders.getOrDefault(node.id(), 0))
+                            .build())
+                    .collect(Collectors.toList());
+        } catch (InterruptedException | ExecutionException ex) {
+            throw new KafkaExecutionException("Error thrown when attempting to describe the Kafka cluster", ex.getMessage());
+        }
+    }
+
+    /*
+     * Counts offline and under-replicated partitions over all topics with one describe request. The controller
+     * response time is the round trip of listPartitionReassignments, which only the controller answers; it is measured
+     * after describeCluster, so connection setup is not included.
+     */
+    public ClusterHealth getClusterHealth() {
+        try (final AdminClient adminClient = buildAdminClient()) {
+            int brokers = adminClient.describeCluster().nodes().get().size();
+            long start = System.nanoTime();
+            int reassigningPartitions = adminClient.listPartitionReassignments().reassignments().get().size();
+            long controllerResponseMs = (System.nanoTime() - start) / 1_000_000;
+
+            int[] partitions = new int[3];
+            Set<String> topicNames = adminClient.listTopics(new ListTopicsOptions().listInternal(true)).names().get();
+            if (!topicNames.isEmpty()) {
+                adminClient.describeTopics(topicNames).all().get().values().forEach(description -> description.partitions().forEach(partition -> {
+                    partitions[0]++;
+                    if (partition.isr().size() < partition.replicas().size()) {
+                        partitions[1]++;
+                    }
+                    if (partition.leader() == null || partition.leader().isEmpty()) {
+                        partitions[2]++;
+                    }
+                }));
+            }
+
+            return new ClusterHealth.Builder()
+                    .setBrokers(brokers)
+                    .setPartitions(partitions[0])
+                    .setUnderReplicatedPartitions(partitions[1])
+                    .setOfflinePartitions(partitions[2])
+                    .setReassigningPartitions(reassigningPartitions)
+                    .setControllerResponseMs(controllerResponseMs)
+                    .build();
+        } catch (InterruptedException | ExecutionException ex) {
+            throw new KafkaExecutionException("Error thrown when attempting to check the health of the Kafka cluster", ex.getMessage());
+        }
+    }
+
+    /*
+     * Sends every topic in one validate-only request and returns the broker's rejection reason per topic name.
+     */
+    public Map<String, String> validateCreateTopics(Map<String, TopicDetails> topics) {
+        try (final AdminClient adminClient = buildAdminClient()) {
+            List<NewTopic> newTopics = topics.entrySet().stream()
+                    .map(it -> new NewTopic(it.getKey(), Optional.of(it.getValue().getPartitions()), it.getValue().getReplication().map(Integer::shortValue))
+                            .configs(it.getValue().getConfigs()))
+                    .collect(Collectors.toList());
+            CreateTopicsResult result = adminClient.createTopics(newTopics, new CreateTopicsOptions().validateOnly(true));
+            return collectErrors(result.values());
+        } catch (InterruptedException ex) {
+            throw new KafkaExecutionException("Error thrown when attempting to validate Kafka topic creation", ex.getMessage());
+        }
+    }
+
+    /*
+     * Sends every config change in one validate-only request and returns the broker's rejection reason per topic name.
+     */
+    public Map<String, String> validateTopicConfigs(Map<ConfigResource, Collection<AlterConfigOp>> configs) {
         try (final AdminClient adminClient = buildAdminClient()) {
-            adminClient.deleteTopics(Collections.singletonList(topicName)).all().get();
+            AlterConfigsResult result = adminClient.incrementalAlterConfigs(configs, new AlterConfigsOptions().validateOnly(true));
+            Map<String, KafkaFuture<Void>> futures = new LinkedHashMap<>();
+            result.values().forEach((resource, future) -> futures.put(resource.name(), future));
+            return collectErrors(futures);
+        } catch (InterruptedException ex) {
+            throw new KafkaExecutionException("Error thrown when attempting to validate Kafka topic configs", ex.getMessage());
+        }
+    }
+
+    private Map<String, String> collectErrors(Map<String, KafkaFuture<Void>> futures) throws InterruptedException {
+        Map<String, String> errors = new LinkedHashMap<>();
+        for (Map.Entry<String, KafkaFuture<Void>> entry : futures.entrySet()) {
+            try {
+                entry.getValue().get();
+            } catch (ExecutionException ex) {
+                errors.put(entry.getKey(), ex.getCause() == null ? ex.getMessage() : ex.getCause().getMessage());
+            }
+        }
+        return errors;
+    }
+
+    /*
+     * Deletes the topics in one request and returns the error of each topic that could not be deleted.
+     */
+    public Map<String, String> deleteTopics(Collection<String> topicNames) {
+        try (final AdminClient adminClient = buildAdminClient()) {
+            return collectErrors(adminClient.deleteTopics(topicNames).values());
+        } catch (InterruptedException ex) {
+            throw new KafkaExecutionException("Error thrown when attempting to delete Kafka topics", ex.getMessage());
+        }
+    }
+
+    /*
+     * Returns the span between the earliest and latest offset of each topic, summed over its partitions. All
+     * partitions are looked up in one describe request and two listOffsets requests.
+     */
+    public Map<String, Long> getTopicRecordCounts(Collection<String> topicNames) {
+        try (final AdminClient adminClient = buildAdminClient()) {
+            Map<TopicPartition, OffsetSpec> earliest = new HashMap<>();
+            Map<TopicPartition, OffsetSpec> latest = new HashMap<>();
+            adminClient.describeTopics(topicNames).all().get().values().forEach(description -> description.partitions().forEach(partition -> {
+                TopicPartition topicPartition = new TopicPartition(description.name(), partition.partition());
+                earliest.put(topicPartition, OffsetSpec.earliest());
+                latest.put(topicPartition, OffsetSpec.latest());
+            }));
+
+            Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> earliestOffsets = adminClient.listOffsets(earliest).all().get();
+            Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> latestOffsets = adminClient.listOffsets(latest).all().get();
+            Map<String, Long> recordCounts = new HashMap<>();
+            latestOffsets.forEach((topicPartition, info) ->
+                    recordCounts.merge(topicPartition.topic(), info.offset() - earliestOffsets.get(topicPartition).offset(), Long::sum));
+            return recordCounts;
         } catch (InterruptedException | ExecutionException ex) {
-            throw new KafkaExecutionException("Error thrown when attempting to delete a Kafka topic", ex.getMessage());
+            throw new KafkaExecutionException("Error thrown when attempting to list Kafka topic offsets", ex.getMessage());
+        }
+    }
+
+    public List<String> getConsumerGroupIds() {
+        try (final AdminClient adminClient = buildAdminClient()) {
+            return adminClient.listConsumerGroups().all().get().stream()
+                    .map(ConsumerGroupListing::groupId)
+                    .collect(Collectors.toList());
+        } catch (InterruptedException | ExecutionException ex) {
+            throw new KafkaExecutionException("Error thrown when attempting to list Kafka consumer groups", ex.getMessage());
+        }
+    }
+
+    /*
+     * Describes the groups in one request and returns, for each group, the topics assigned to its members. A group that
+     * cannot be described, e.g. because its coordinator is not available, is left out of the result rather than failing
+     * the others.
+     */
+    public Map<String, Set<String>> getConsumerGroupAssignments(Collection<String> groupIds) {
+        Map<String, Set<String>> assignments = new HashMap<>();
+        if (groupIds.isEmpty()) {
+            return assignments;
+        }
+        try (final AdminClient adminClient = buildAdminClient()) {
+            for (Map.Entry<String, KafkaFuture<ConsumerGroupDescription>> entry : adminClient.describeConsumerGroups(groupIds).describedGroups().entrySet()) {
+                try {
+                    assignments.put(entry.getKey(), entry.getValue().get().members().stream()
+                            .flatMap(member -> member.assignment().topicPartitions().stream())
+                            .map(TopicPartition::topic)
+                            .collect(Collectors.toSet()));
+                } catch (ExecutionException ex) {
+                    // Left out of the result, see above
+                }
+            }
+            return assignments;
+        } catch (InterruptedException ex) {
+            throw new KafkaExecutionException("Error thrown when attempting to describe Kafka consumer groups", ex.getMessage());
+        }
+    }
+
+    /*
+     * Describes the topics in one request and returns, for each topic that is not fully available yet, the reason:
+     * not yet visible to the broker answering, a partition without a leader, or a partition with an incomplete ISR.
+     */
+    public Map<String, String> getUnconvergedTopics(Collection<String> topicNames) {
+        try (final AdminClient adminClient = buildAdminClient()) {
+            Map<String, String> unconverged = new TreeMap<>();
+            for (Map.Entry<String, KafkaFuture<TopicDescription>> entry : adminClient.describeTopics(topicNames).values().entrySet()) {
+                try {
+                    entry.getValue().get().partitions().stream()
+                            .filter(it -> it.leader() == null || it.leader().isEmpty() || it.isr().size() < it.replicas().size())
+                            .findFirst()
+                            .ifPresent(it -> unconverged.put(entry.getKey(), it.leader() == null || it.leader().isEmpty()
+                                    ? String.format("partition %s has no leader", it.partition())
+                                    : String.format("partition %s has %s of %s replicas in sync", it.partition(), it.isr().size(), it.replicas().size())));
+                } catch (ExecutionException ex) {
+                    unconverged.put(entry.getKey(), ex.getCause() instanceof UnknownTopicOrPartitionException ? "not visible yet" : ex.getMessage());
+                }
+            }
+            return unconverged;
+        } catch (InterruptedException ex) {
+            throw new KafkaExecutionException("Error thrown when attempting to describe Kafka topics", ex.getMessage());
         }
     }
 
@@ -77,6 +307,53 @@ public class KafkaService {
         }
     }
 
+    /*
+     * Describes the groups in one request. A group that cannot be described, e.g. because its coordinator is not
+     * available, is left out of the result rather than failing the others.
+     */
+    public Map<String, ConsumerGroupState> describeConsumerGroupStates(Collection<String> groupIds) {
+        try (final AdminClient adminClient = buildAdminClient()) {
+            Map<String, ConsumerGroupState> states = new HashMap<>();
+            for (Map.Entry<String, KafkaFuture<ConsumerGroupDescription>> entry : adminClient.describeConsumerGroups(groupIds).describedGroups().entrySet()) {
+                try {
+                    states.put(entry.getKey(), entry.getValue().get().state());
+                } catch (ExecutionException ex) {
+                    // Left out of the result, see above
+                }
+            }
+            return states;
+        } catch (InterruptedException ex) {
+            throw new KafkaExecutionException("Error thrown when attempting to describe Kafka consumer groups", ex.getMessage());
+        }
+    }
+
+    /*
+     * Deletes the groups in one request and returns the error of each group that could not be deleted.
+     */
+    public Map<String, String> deleteConsumerGroups(Collection<String> groupIds) {
+        try (final AdminClient adminClient = buildAdminClient()) {
+            return collectErrors(adminClient.deleteConsumerGroups(groupIds).deletedGroups());
+        } catch (InterruptedException ex) {
+            throw new KafkaExecutionException("Error thrown when attempting to delete Kafka consumer groups", ex.getMessage());
+        }
+    }
+
+    public Map<ClientQuotaEntity, Map<String, Double>> getClientQuotas() {
+        try (final AdminClient adminClient = buildAdminClient()) {
+            return adminClient.describeClientQuotas(ClientQuotaFilter.all()).entities().get();
+        } catch (InterruptedException | ExecutionException ex) {
+            throw new KafkaExecutionException("Error thrown when attempting to describe Kafka client quotas", ex.getMessage());
+        }
+    }
+
+    public void alterClientQuotas(Collection<ClientQuotaAlteration> alterations) {
+        try (final AdminClient adminClient = buildAdminClient()) {
+            adminClient.alterClientQuotas(alterations).all().get();
+        } catch (InterruptedException | ExecutionException ex) {
+            throw new KafkaExecutionException("Error thrown when attempting to alter Kafka client quotas", ex.getMessage());
+        }
+    }
+
     public List<TopicListing> getTopics() {
         try (final AdminClient adminClient = buildAdminClient()) {
             Collection<TopicListing> topics = adminClient.listTopics().listings().get();
@@ -95,6 +372,43 @@ public class KafkaService {
         }
     }
 
+    /*
+     * Describes topics and their configurations in batches over a single admin client. The next batch is requested
+     * before the current one is handed to the consumer so that network calls overlap with processing.
+     */
+    public void describeTopicsInBatches(List<String> topicNames, int batchSize, BiConsumer<Map<String, TopicDescription>, Map<ConfigResource, Config>> consumer) {
+        try (final AdminClient adminClient = buildAdminClient()) {
+            List<List<String>> batches = new ArrayList<>();
+            for (int i = 0; i < topicNames.size(); i += batchSize) {
+                batches.add(topicNames.subList(i, Math.min(i + batchSize, topicNames.size())));
+            }
+
+            TopicBatchFutures current = batches.isEmpty() ? null : describeTopicBatch(adminClient, batches.get(0));
+            for (int i = 0; i < batches.size(); i++) {
+                TopicBatchFutures next = i + 1 < batches.size() ? describeTopicBatch(adminClient, batches.get(i + 1)) : null;
+                consumer.accept(current.descriptions.all().get(), current.configs.all().get());
+                current = next;
+            }
+        } catch (InterruptedException | ExecutionException ex) {
+            throw new KafkaExecutionException("Error thrown when attempting to describe Kafka topics", ex.getMessage());
+        }
+    }
+
+    private TopicBatchFutures describeTopicBatch(AdminClient adminClient, List<String> topicNames) {
+        List<ConfigResource> resources = topicNames.stream().map(it -> new ConfigResource(ConfigResource.Type.TOPIC, it)).collect(Collectors.toList());
+        return new TopicBatchFutures(adminClient.describeTopics(topicNames), adminClient.describeConfigs(resources));
+    }
+
+    private static class TopicBatchFutures {
+        private final DescribeTopicsResult descriptions;
+        private final DescribeConfigsResult configs;
+
+        private TopicBatchFutures(DescribeTopicsResult descriptions, DescribeConfigsResult configs) {
+            this.descriptions = descriptions;
+            this.configs = configs;
+        }
+    }
+
     private AdminClient buildAdminClient() {
         try {
             return KafkaAdminClient.create(config.getConfig());
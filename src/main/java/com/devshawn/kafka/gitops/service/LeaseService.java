@@ -0,0 +1,155 @@
+package com.devshawn.kafka.gitops.service;
+
+import com.devshawn.kafka.gitops.config.KafkaGitopsConfig;
+import com.devshawn.kafka.gitops.domain.lease.ApplyLease;
+import com.devshawn.kafka.gitops.exception.KafkaExecutionException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.KafkaAdminClient;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.common.errors.TopicExistsException;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+
+/*
+ * Stores apply leases in a single-partition compacted topic, keyed by lease id. A lease is written again to renew it
+ * and deleted with a tombstone, so reading the topic from the beginning yields the latest record of every lease. The
+ * partition orders lease records, which is what decides between two applies that took overlapping leases at once.
+ */
+public class LeaseService implements AutoCloseable {
+
+    public static final String DEFAULT_LEASE_TOPIC = "_kafka-gitops-leases";
+
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+
+    private final KafkaGitopsConfig config;
+    private final ObjectMapper objectMapper;
+    private final String topic;
+    private final TopicPartition partition;
+
+    private KafkaProducer<String, String> producer;
+
+    public LeaseService(KafkaGitopsConfig config, ObjectMapper objectMapper, String topic) {
+        this.config = config;
+        this.objectMapper = objectMapper;
+        this.topic = topic;
+        this.partition = new TopicPartition(topic, 0);
+    }
+
+    public void createTopicIfMissing() {
+        NewTopic newTopic = new NewTopic(topic, Optional.of(1), Optional.empty())
+                .configs(Collections.singletonMap(TopicConfig.CLEANUP_POLICY_CONFIG, TopicConfig.CLEANUP_POLICY_COMPACT));
+        try (final AdminClient adminClient = KafkaAdminClient.create(config.getConfig())) {
+            adminClient.createTopics(Collections.singletonList(newTopic)).all().get();
+        } catch (ExecutionException ex) {
+            if (!(ex.getCause() instanceof TopicExistsException)) {
+                throw new KafkaExecutionException("Error thrown when attempting to create the apply lease topic", ex.getMessage());
+            }
+        } catch (InterruptedException | KafkaException ex) {
+            throw new KafkaExecutionException("Error thrown when attempting to create the apply lease topic", ex.getMessage());
+        }
+    }
+
+    /*
+     * Returns the current leases in the order they were first written.
+     */
+    public List<ApplyLease> readLeases() {
+        Map<String, ApplyLease> leases = new HashMap<>();
+        try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(getConsumerConfig(), new StringDeserializer(), new StringDeserializer())) {
+            consumer.assign(Collections.singletonList(partition));
+            consumer.seekToBeginning(Collections.singletonList(partition));
+            long endOffset = consumer.endOffsets(Collections.singletonList(partition)).get(partition);
+            while (consumer.position(partition) < endOffset) {
+                for (ConsumerRecord<String, String> record : consumer.poll(POLL_TIMEOUT)) {
+                    if (record.value() == null) {
+                        leases.remove(record.key());
+                    } else {
+                        leases.put(record.key(), parseLease(record));
+                    }
+                }
+            }
+        } catch (KafkaException ex) {
+            throw new KafkaExecutionException("Error thrown when attempting to read apply leases", ex.getMessage());
+        }
+        List<ApplyLease> result = new ArrayList<>(leases.values());
+        result.sort(Comparator.comparing(it -> it.getAcquiredOffset().get()));
+        return result;
+    }
+
+    /*
+     * Returns the offset the lease was written at.
+     */
+    public long writeLease(ApplyLease lease) {
+        try {
+            return send(lease.getId(), objectMapper.writeValueAsString(lease));
+        } catch (JsonProcessingException ex) {
+            throw new KafkaExecutionException("Error thrown when attempting to write an apply lease", ex.getMessage());
+        }
+    }
+
+    public void deleteLease(String id) {
+        send(id, null);
+    }
+
+    @Override
+    public void close() {
+        if (producer != null) {
+            producer.close();
+            producer = null;
+        }
+    }
+
+    private synchronized long send(String key, String value) {
+        try {
+            if (producer == null) {
+                producer = new KafkaProducer<>(getProducerConfig(), new StringSerializer(), new StringSerializer());
+            }
+            return producer.send(new ProducerRecord<>(topic, 0, key, value)).get().offset();
+        } catch (InterruptedException | ExecutionException | KafkaException ex) {
+            throw new KafkaExecutionException("Error thrown when attempting to write an apply lease", ex.getMessage());
+        }
+    }
+
+    /*
+     * The first record of a lease carries no offset; later renewals copy it so it survives compaction.
+     */
+    private ApplyLease parseLease(ConsumerRecord<String, String> record) {
+        try {
+            ApplyLease lease = objectMapper.readValue(record.value(), ApplyLease.class);
+            if (lease.getAcquiredOffset().isPresent()) {
+                return lease;
+            }
+            return new ApplyLease.Builder().mergeFrom(lease).setAcquiredOffset(record.offset()).build();
+        } catch (IOException ex) {
+            throw new KafkaExecutionException("Error thrown when attempting to read apply leases", ex.getMessage());
+        }
+    }
+
+    private Map<String, Object> getProducerConfig() {
+        Map<String, Object> producerConfig = new HashMap<>(config.getConfig());
+        producerConfig.put(ProducerConfig.ACKS_CONFIG, "all");
+        return producerConfig;
+    }
+
+    private Map<String, Object> getConsumerConfig() {
+        Map<String, Object> consumerConfig = new HashMap<>(config.getConfig());
+        consumerConfig.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        consumerConfig.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+        return consumerConfig;
+    }
+}
@@ -20,6 +20,7 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 public class ParserService {
@@ -30,29 +31,43 @@ public class ParserService {
 
     private final File file;
 
+    private final GitService gitService;
+
     public ParserService(File file) {
         this.objectMapper = new ObjectMapper(new YAMLFactory());
         objectMapper.enable(DeserializationFeature.FAIL_ON_READING_DUP_TREE_KEY);
         objectMapper.enable(JsonParser.Feature.STRICT_DUPLICATE_DETECTION);
         objectMapper.registerModule(new Jdk8Module());
         this.file = file;
+        this.gitService = new GitService();
     }
 
     public DesiredStateFile parseStateFile() {
-        DesiredStateFile desiredStateFile = parseStateFile(file);
+        return parseStateFile(Optional.empty());
+    }
+
+    /*
+     * Parses the state file, and the files referenced from its settings, as they were at the given git revision.
+     */
+    public DesiredStateFile parseStateFileAtRevision(String revision) {
+        return parseStateFile(Optional.of(revision));
+    }
+
+    private DesiredStateFile parseStateFile(Optional<String> revision) {
+        DesiredStateFile desiredStateFile = parseFile(file, revision);
         if (desiredStateFile.getSettings().isPresent() && desiredStateFile.getSettings().get().getFiles().isPresent()) {
             DesiredStateFile.Builder builder = new DesiredStateFile.Builder().mergeFrom(desiredStateFile);
             SettingsFiles settingsFiles = desiredStateFile.getSettings().get().getFiles().get();
             if (settingsFiles.getServices().isPresent()) {
-                DesiredStateFile servicesFile = loadExternalFile(settingsFiles.getServices().get(), "Services");
+                DesiredStateFile servicesFile = loadExternalFile(settingsFiles.getServices().get(), "Services", revision);
                 builder.putAllServices(servicesFile.getServices());
             }
             if (settingsFiles.getTopics().isPresent()) {
-                DesiredStateFile topicsFile = loadExternalFile(settingsFiles.getTopics().get(), "Topics");
+                DesiredStateFile topicsFile = loadExternalFile(settingsFiles.getTopics().get(), "Topics", revision);
                 builder.putAllTopics(topicsFile.getTopics());
             }
             if (settingsFiles.getUsers().isPresent()) {
-                DesiredStateFile usersFile = loadExternalFile(settingsFiles.getUsers().get(), "Users");
+                DesiredStateFile usersFile = loadExternalFile(settingsFiles.getUsers().get(), "Users", revision);
                 builder.putAllUsers(usersFile.getUsers());
             }
             return builder.build();
@@ -61,10 +76,22 @@ public class ParserService {
     }
 
     public DesiredStateFile parseStateFile(File stateFile) {
+        return parse(() -> objectMapper.readValue(stateFile, DesiredStateFile.class));
+    }
+
+    private DesiredStateFile parseFile(File stateFile, Optional<String> revision) {
+        if (revision.isPresent()) {
+            String content = gitService.readFile(stateFile, revision.get());
+            return parse(() -> objectMapper.readValue(content, DesiredStateFile.class));
+        }
+        return parseStateFile(stateFile);
+    }
+
+    private DesiredStateFile parse(StateFileReader reader) {
         log.info("Parsing desired state file...");
 
         try {
-            return objectMapper.readValue(stateFile, DesiredStateFile.class);
+            return reader.read();
         } catch (ValueInstantiationException ex) {
             List<String> fields = getYamlFields(ex);
             String joinedFields = String.join(" -> ", fields);
@@ -91,12 +118,12 @@ public class ParserService {
         }
     }
 
-    private DesiredStateFile loadExternalFile(String fileName, String type) {
+    private DesiredStateFile loadExternalFile(String fileName, String type, Optional<String> revision) {
         File externalFile = getAdditionalFile(fileName);
-        if (!externalFile.exists()) {
+        if (!revision.isPresent() && !externalFile.exists()) {
             throw new ValidationException(String.format("%s file '%s' could not be found.", type, fileName));
         }
-        return parseStateFile(externalFile);
+        return parseFile(externalFile, revision);
     }
 
     private File getAdditionalFile(String fileName) {
@@ -108,4 +135,8 @@ public class ParserService {
                 .map(JsonMappingException.Reference::getFieldName)
                 .collect(Collectors.toList());
     }
+
+    private interface StateFileReader {
+        DesiredStateFile read() throws IOException;
+    }
 }
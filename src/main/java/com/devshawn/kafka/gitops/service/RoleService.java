@@ -1,73 +1,55 @@
 package com.devshawn.kafka.gitops.service;
 
 import com.devshawn.kafka.gitops.domain.state.AclDetails;
+import com.devshawn.kafka.gitops.domain.state.AclTemplate;
 import com.devshawn.kafka.gitops.domain.state.ServiceDetails;
 import com.devshawn.kafka.gitops.exception.ValidationException;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 public class RoleService extends ServiceDetails {
 
+    private static final List<AclTemplate> READER_ACLS = Collections.unmodifiableList(Arrays.asList(
+            AclTemplate.literalTopic("READ").withName("*"),
+            AclTemplate.group("READ").withName("*")
+    ));
+
+    private static final List<AclTemplate> WRITER_ACLS = Collections.singletonList(
+            AclTemplate.literalTopic("WRITE").withName("*")
+    );
+
+    private static final List<AclTemplate> OPERATOR_ACLS = Collections.unmodifiableList(Arrays.asList(
+            AclTemplate.cluster("DESCRIBE"),
+            AclTemplate.literalTopic("DESCRIBE").withName("*"),
+            AclTemplate.literalTopic("DESCRIBE_CONFIGS").withName("*"),
+            AclTemplate.group("READ").withName("*"),
+            AclTemplate.group("DESCRIBE").withName("*")
+    ));
+
     public List<AclDetails.Builder> getAcls(String role, String principal) {
         switch (role.toLowerCase()) {
             case "reader":
-                return getReaderAcls(principal);
+                return bindAcls(READER_ACLS, principal);
             case "writer":
-                return getWriterAcls(principal);
+                return bindAcls(WRITER_ACLS, principal);
             case "operator":
-                return getOperatorAcls(principal);
+                return bindAcls(OPERATOR_ACLS, principal);
             default:
                 throw new ValidationException(String.format("Role '%s' does not exist. Supported roles: 'reader', 'writer', 'operator'.", role));
         }
     }
 
-    private List<AclDetails.Builder> getReaderAcls(String principal) {
-        List<AclDetails.Builder> acls = new ArrayList<>();
-        acls.add(generateReadAcl("*", Optional.of(principal)));
-        acls.add(generateConsumerGroupAcl("*", Optional.of(principal), "READ"));
+    private List<AclDetails.Builder> bindAcls(List<AclTemplate> templates, String principal) {
+        Optional<String> boundPrincipal = Optional.of(principal);
+        List<AclDetails.Builder> acls = new ArrayList<>(templates.size());
+        templates.forEach(template -> acls.add(template.bind(boundPrincipal)));
         return acls;
     }
 
-    private List<AclDetails.Builder> getWriterAcls(String principal) {
-        List<AclDetails.Builder> acls = new ArrayList<>();
-        acls.add(generateWriteACL("*", Optional.of(principal)));
-        return acls;
-    }
-
-    private List<AclDetails.Builder> getOperatorAcls(String principal) {
-        List<AclDetails.Builder> acls = new ArrayList<>();
-        acls.add(getClusterDescribeAcl(principal));
-        acls.add(getWildcardTopicAcl(principal, "DESCRIBE"));
-        acls.add(getWildcardTopicAcl(principal, "DESCRIBE_CONFIGS"));
-        acls.add(generateConsumerGroupAcl("*", Optional.of(principal), "READ"));
-        acls.add(generateConsumerGroupAcl("*", Optional.of(principal), "DESCRIBE"));
-        return acls;
-    }
-
-    private AclDetails.Builder getWildcardTopicAcl(String principal, String operation) {
-        return new AclDetails.Builder()
-                .setHost("*")
-                .setType("TOPIC")
-                .setPermission("ALLOW")
-                .setPrincipal(principal)
-                .setOperation(operation)
-                .setPattern("LITERAL")
-                .setName("*");
-    }
-
-    private AclDetails.Builder getClusterDescribeAcl(String principal) {
-        return new AclDetails.Builder()
-                .setHost("*")
-                .setType("CLUSTER")
-                .setPermission("ALLOW")
-                .setPrincipal(principal)
-                .setOperation("DESCRIBE")
-                .setPattern("LITERAL")
-                .setName("kafka-cluster");
-    }
-
     @Override
     public Optional<String> getServiceAccount() {
         return Optional.empty();
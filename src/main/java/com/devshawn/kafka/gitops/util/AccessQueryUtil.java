@@ -0,0 +1,78 @@
+package com.devshawn.kafka.gitops.util;
+
+import com.devshawn.kafka.gitops.exception.ValidationException;
+import org.apache.kafka.common.acl.AclOperation;
+import org.apache.kafka.common.resource.ResourceType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Optional;
+
+public class AccessQueryUtil {
+
+    public static final String BATCH_HEADER = "principal,type,resource,operation,result";
+
+    /*
+     * Answers one query per CSV line of the form principal,type,resource,operation. An empty principal asks which
+     * principals are allowed; the result column is then a semicolon separated list of principals.
+     */
+    public static int runBatch(AclIndex aclIndex, BufferedReader reader, Writer writer, Optional<String> host) throws IOException {
+        writer.write(BATCH_HEADER);
+        writer.write('\n');
+
+        int count = 0;
+        int lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.trim().isEmpty() || (lineNumber == 1 && line.trim().startsWith("principal,"))) {
+                continue;
+            }
+
+            String[] columns = line.split(",", -1);
+            if (columns.length != 4) {
+                throw new ValidationException(String.format("Invalid access query on line %s: expected principal,type,resource,operation.", lineNumber));
+            }
+
+            String principal = columns[0].trim();
+            String type = validateResourceType(columns[1]);
+            String resource = columns[2].trim();
+            String operation = validateOperation(columns[3]);
+
+            String result = principal.isEmpty()
+                    ? String.join(";", aclIndex.getAllowedPrincipals(type, resource, operation, host))
+                    : aclIndex.isAllowed(principal, type, resource, operation, host) ? "ALLOWED" : "DENIED";
+            writer.write(String.join(",", principal, type, resource, operation, result));
+            writer.write('\n');
+            count++;
+        }
+        return count;
+    }
+
+    public static String validateResourceType(String type) {
+        String value = type.trim().toUpperCase();
+        try {
+            ResourceType resourceType = ResourceType.valueOf(value);
+            if (resourceType == ResourceType.ANY || resourceType == ResourceType.UNKNOWN) {
+                throw new IllegalArgumentException();
+            }
+        } catch (IllegalArgumentException ex) {
+            throw new ValidationException(String.format("Invalid resource type: %s", type.trim()));
+        }
+        return value;
+    }
+
+    public static String validateOperation(String operation) {
+        String value = operation.trim().toUpperCase();
+        try {
+            AclOperation aclOperation = AclOperation.valueOf(value);
+            if (aclOperation == AclOperation.ANY || aclOperation == AclOperation.UNKNOWN) {
+                throw new IllegalArgumentException();
+            }
+        } catch (IllegalArgumentException ex) {
+            throw new ValidationException(String.format("Invalid operation: %s", operation.trim()));
+        }
+        return value;
+    }
+}
@@ -0,0 +1,124 @@
+package com.devshawn.kafka.gitops.util;
+
+import com.devshawn.kafka.gitops.domain.state.AclCompaction;
+import com.devshawn.kafka.gitops.domain.state.AclDetails;
+import com.devshawn.kafka.gitops.domain.state.DesiredState;
+
+import java.util.*;
+
+public class AclCompactionUtil {
+
+    private static final int MINIMUM_GROUP_SIZE = 2;
+
+    private static final String DELIMITERS = ".-_";
+
+    /*
+     * Finds groups of LITERAL topic ACLs sharing a principal, host and operation that can be replaced by a single
+     * PREFIXED ACL. A prefix is only proposed if every known topic starting with it is already granted by the group,
+     * and it must end on a delimiter so it does not cut a topic name segment in half.
+     */
+    public static List<AclCompaction> findCompactions(Map<String, AclDetails> acls, NavigableSet<String> knownTopics) {
+        Map<List<String>, SortedMap<String, List<String>>> groups = new LinkedHashMap<>();
+        acls.forEach((name, acl) -> {
+            if (isCompactable(acl)) {
+                List<String> groupKey = Arrays.asList(acl.getPrincipal(), acl.getHost(), acl.getOperation());
+                groups.computeIfAbsent(groupKey, key -> new TreeMap<>())
+                        .computeIfAbsent(acl.getName(), key -> new ArrayList<>())
+                        .add(name);
+            }
+        });
+
+        List<AclCompaction> compactions = new ArrayList<>();
+        groups.forEach((groupKey, topics) -> {
+            if (topics.size() >= MINIMUM_GROUP_SIZE) {
+                compactGroup(groupKey, topics, knownTopics, compactions);
+            }
+        });
+        return compactions;
+    }
+
+    public static NavigableSet<String> getKnownTopics(DesiredState desiredState) {
+        NavigableSet<String> knownTopics = new TreeSet<>(desiredState.getTopics().keySet());
+        desiredState.getAcls().values().stream()
+                .filter(it -> it.getType().equals("TOPIC") && it.getPattern().equals("LITERAL") && !it.getName().equals("*"))
+                .forEach(it -> knownTopics.add(it.getName()));
+        return knownTopics;
+    }
+
+    public static DesiredState applyCompactions(DesiredState desiredState, List<AclCompaction> compactions) {
+        Map<String, AclCompaction> replacements = new HashMap<>();
+        compactions.forEach(compaction -> compaction.getReplacedAcls().forEach(name -> replacements.put(name, compaction)));
+
+        DesiredState.Builder builder = new DesiredState.Builder()
+                .mergeFrom(desiredState)
+                .clearAcls();
+
+        desiredState.getAcls().forEach((name, acl) -> {
+            AclCompaction compaction = replacements.get(name);
+            if (compaction == null) {
+                builder.putAcls(name, acl);
+            } else if (compaction.getName().equals(name)) {
+                builder.putAcls(name, compaction.getAclDetails());
+            }
+        });
+        return builder.build();
+    }
+
+    private static void compactGroup(List<String> groupKey, SortedMap<String, List<String>> topics, NavigableSet<String> knownTopics, List<AclCompaction> compactions) {
+        Map<String, Boolean> checkedPrefixes = new HashMap<>();
+        String coveredBy = null;
+
+        for (String topic : topics.keySet()) {
+            if (coveredBy != null && topic.startsWith(coveredBy)) {
+                continue;
+            }
+            coveredBy = null;
+
+            for (int i = 1; i < topic.length(); i++) {
+                if (DELIMITERS.indexOf(topic.charAt(i - 1)) < 0) {
+                    continue;
+                }
+                String prefix = topic.substring(0, i);
+                if (checkedPrefixes.computeIfAbsent(prefix, it -> isExactPrefix(it, topics, knownTopics))) {
+                    coveredBy = prefix;
+                    compactions.add(buildCompaction(groupKey, prefix, topics));
+                    break;
+                }
+            }
+        }
+    }
+
+    private static boolean isExactPrefix(String prefix, SortedMap<String, List<String>> topics, NavigableSet<String> knownTopics) {
+        SortedSet<String> known = knownTopics.subSet(prefix, true, prefix + Character.MAX_VALUE, false);
+        return known.size() >= MINIMUM_GROUP_SIZE && topics.keySet().containsAll(known);
+    }
+
+    private static AclCompaction buildCompaction(List<String> groupKey, String prefix, SortedMap<String, List<String>> topics) {
+        SortedMap<String, List<String>> covered = topics.subMap(prefix, prefix + Character.MAX_VALUE);
+        List<String> replacedAcls = new ArrayList<>();
+        covered.values().forEach(replacedAcls::addAll);
+        Collections.sort(replacedAcls);
+
+        AclDetails aclDetails = new AclDetails.Builder()
+                .setName(prefix)
+                .setType("TOPIC")
+                .setPattern("PREFIXED")
+                .setPrincipal(groupKey.get(0))
+                .setHost(groupKey.get(1))
+                .setOperation(groupKey.get(2))
+                .setPermission("ALLOW")
+                .build();
+
+        return new AclCompaction.Builder()
+                .setName(replacedAcls.get(0))
+                .setAclDetails(aclDetails)
+                .addAllReplacedAcls(replacedAcls)
+                .addAllReplacedTopics(covered.keySet())
+                .build();
+    }
+
+    private static boolean isCompactable(AclDetails acl) {
+        return acl.getType().equals("TOPIC") && acl.getPattern().equals("LITERAL")
+                && acl.getPermission().equals("ALLOW") && !acl.getName().equals("*");
+    }
+}
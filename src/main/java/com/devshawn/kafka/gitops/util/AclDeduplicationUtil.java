@@ -0,0 +1,53 @@
+package com.devshawn.kafka.gitops.util;
+
+import com.devshawn.kafka.gitops.domain.state.AclDetails;
+import com.devshawn.kafka.gitops.domain.state.AclDuplicate;
+import com.devshawn.kafka.gitops.domain.state.DesiredState;
+
+import java.util.*;
+
+public class AclDeduplicationUtil {
+
+    /*
+     * Finds ACLs generated more than once under different names, e.g. by two roles granting the same binding.
+     * The first name is kept; every name that produced the binding is recorded as a source.
+     */
+    public static List<AclDuplicate> findDuplicates(Map<String, AclDetails> acls) {
+        Map<AclDetails, List<String>> sourcesByAcl = new LinkedHashMap<>();
+        acls.forEach((name, acl) -> sourcesByAcl.computeIfAbsent(acl, key -> new ArrayList<>()).add(name));
+
+        List<AclDuplicate> duplicates = new ArrayList<>();
+        sourcesByAcl.forEach((acl, sourceNames) -> {
+            if (sourceNames.size() > 1) {
+                duplicates.add(new AclDuplicate.Builder()
+                        .setName(sourceNames.get(0))
+                        .setAclDetails(acl)
+                        .addAllSourceNames(sourceNames)
+                        .build());
+            }
+        });
+        return duplicates;
+    }
+
+    public static DesiredState removeDuplicates(DesiredState desiredState, List<AclDuplicate> duplicates) {
+        if (duplicates.isEmpty()) {
+            return desiredState;
+        }
+
+        Set<String> removedNames = new HashSet<>();
+        duplicates.forEach(duplicate -> duplicate.getSourceNames().stream()
+                .filter(name -> !name.equals(duplicate.getName()))
+                .forEach(removedNames::add));
+
+        DesiredState.Builder builder = new DesiredState.Builder()
+                .mergeFrom(desiredState)
+                .clearAcls();
+        duplicates.forEach(duplicate -> builder.putAclSourceNames(duplicate.getName(), duplicate.getSourceNames()));
+        desiredState.getAcls().forEach((name, acl) -> {
+            if (!removedNames.contains(name)) {
+                builder.putAcls(name, acl);
+            }
+        });
+        return builder.build();
+    }
+}
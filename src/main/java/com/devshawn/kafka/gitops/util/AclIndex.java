@@ -0,0 +1,154 @@
+package com.devshawn.kafka.gitops.util;
+
+import com.devshawn.kafka.gitops.domain.state.AclDetails;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/*
+ * An in-memory index of ACLs answering effective-access queries. ACLs are indexed per resource type: LITERAL names in
+ * a hash map, PREFIXED names in a trie and the LITERAL '*' wildcard in a list, so finding the ACLs that apply to a
+ * resource costs one hash lookup plus one walk of the resource name. Matching follows the Kafka authorizer: DENY
+ * wins over ALLOW, ALL matches any operation, and READ, WRITE, DELETE and ALTER imply DESCRIBE while ALTER_CONFIGS
+ * implies DESCRIBE_CONFIGS.
+ */
+public class AclIndex {
+
+    private static final String WILDCARD = "*";
+
+    private static final String WILDCARD_PRINCIPAL = "User:*";
+
+    private static final Map<String, Set<String>> IMPLIED_BY;
+
+    static {
+        Map<String, Set<String>> impliedBy = new HashMap<>();
+        impliedBy.put("DESCRIBE", new HashSet<>(Arrays.asList("READ", "WRITE", "DELETE", "ALTER")));
+        impliedBy.put("DESCRIBE_CONFIGS", Collections.singleton("ALTER_CONFIGS"));
+        IMPLIED_BY = Collections.unmodifiableMap(impliedBy);
+    }
+
+    private final Map<String, ResourceIndex> resourceIndexes = new HashMap<>();
+    private final Map<String, List<AclDetails>> aclsByPrincipal = new HashMap<>();
+
+    public AclIndex(Collection<AclDetails> acls) {
+        acls.forEach(this::add);
+    }
+
+    public int size() {
+        return aclsByPrincipal.values().stream().mapToInt(List::size).sum();
+    }
+
+    /*
+     * Returns the ACLs that grant or deny the operation on the resource to the principal. The result is empty if
+     * access is not granted; if any DENY binding matches, only the DENY bindings are returned.
+     */
+    public List<AclDetails> getDecidingAcls(String principal, String resourceType, String resourceName, String operation, Optional<String> host) {
+        List<AclDetails> matching = getAclsForResource(resourceType, resourceName).stream()
+                .filter(it -> matchesPrincipal(it, principal) && matchesHost(it, host))
+                .collect(Collectors.toList());
+
+        List<AclDetails> denies = matching.stream()
+                .filter(it -> it.getPermission().equals("DENY") && matchesDeniedOperation(it, operation))
+                .collect(Collectors.toList());
+        if (!denies.isEmpty()) {
+            return denies;
+        }
+        return matching.stream()
+                .filter(it -> it.getPermission().equals("ALLOW") && matchesAllowedOperation(it, operation))
+                .collect(Collectors.toList());
+    }
+
+    public boolean isAllowed(String principal, String resourceType, String resourceName, String operation, Optional<String> host) {
+        List<AclDetails> deciding = getDecidingAcls(principal, resourceType, resourceName, operation, host);
+        return !deciding.isEmpty() && deciding.get(0).getPermission().equals("ALLOW");
+    }
+
+    /*
+     * Returns the principals allowed to perform the operation on the resource. A wildcard principal is returned as-is.
+     */
+    public SortedSet<String> getAllowedPrincipals(String resourceType, String resourceName, String operation, Optional<String> host) {
+        List<AclDetails> acls = getAclsForResource(resourceType, resourceName).stream()
+                .filter(it -> matchesHost(it, host))
+                .collect(Collectors.toList());
+        SortedSet<String> principals = new TreeSet<>();
+        acls.stream()
+                .filter(it -> it.getPermission().equals("ALLOW") && matchesAllowedOperation(it, operation))
+                .forEach(it -> principals.add(it.getPrincipal()));
+        principals.removeIf(principal -> !isAllowed(principal, resourceType, resourceName, operation, host));
+        return principals;
+    }
+
+    public List<AclDetails> getAclsForPrincipal(String principal) {
+        return aclsByPrincipal.getOrDefault(principal, Collections.emptyList());
+    }
+
+    public List<AclDetails> getAclsForResource(String resourceType, String resourceName) {
+        ResourceIndex resourceIndex = resourceIndexes.get(resourceType);
+        if (resourceIndex == null) {
+            return Collections.emptyList();
+        }
+
+        List<AclDetails> acls = new ArrayList<>(resourceIndex.wildcard);
+        acls.addAll(resourceIndex.literal.getOrDefault(resourceName, Collections.emptyList()));
+        resourceIndex.prefixed.collectPrefixesOf(resourceName, acls);
+        return acls;
+    }
+
+    private void add(AclDetails acl) {
+        ResourceIndex resourceIndex = resourceIndexes.computeIfAbsent(acl.getType(), key -> new ResourceIndex());
+        if (acl.getPattern().equals("PREFIXED")) {
+            resourceIndex.prefixed.add(acl.getName(), acl);
+        } else if (acl.getName().equals(WILDCARD)) {
+            resourceIndex.wildcard.add(acl);
+        } else {
+            resourceIndex.literal.computeIfAbsent(acl.getName(), key -> new ArrayList<>()).add(acl);
+        }
+        aclsByPrincipal.computeIfAbsent(acl.getPrincipal(), key -> new ArrayList<>()).add(acl);
+    }
+
+    private static boolean matchesPrincipal(AclDetails acl, String principal) {
+        return acl.getPrincipal().equals(principal) || acl.getPrincipal().equals(WILDCARD_PRINCIPAL);
+    }
+
+    private static boolean matchesHost(AclDetails acl, Optional<String> host) {
+        return !host.isPresent() || acl.getHost().equals(WILDCARD) || acl.getHost().equals(host.get());
+    }
+
+    private static boolean matchesDeniedOperation(AclDetails acl, String operation) {
+        return acl.getOperation().equals("ALL") || acl.getOperation().equals(operation);
+    }
+
+    private static boolean matchesAllowedOperation(AclDetails acl, String operation) {
+        return matchesDeniedOperation(acl, operation)
+                || IMPLIED_BY.getOrDefault(operation, Collections.emptySet()).contains(acl.getOperation());
+    }
+
+    private static class ResourceIndex {
+        private final Map<String, List<AclDetails>> literal = new HashMap<>();
+        private final PrefixTrie prefixed = new PrefixTrie();
+        private final List<AclDetails> wildcard = new ArrayList<>();
+    }
+
+    private static class PrefixTrie {
+        private final Map<Character, PrefixTrie> children = new HashMap<>();
+        private final List<AclDetails> acls = new ArrayList<>();
+
+        private void add(String prefix, AclDetails acl) {
+            PrefixTrie node = this;
+            for (int i = 0; i < prefix.length(); i++) {
+                node = node.children.computeIfAbsent(prefix.charAt(i), key -> new PrefixTrie());
+            }
+            node.acls.add(acl);
+        }
+
+        private void collectPrefixesOf(String name, List<AclDetails> result) {
+            PrefixTrie node = this;
+            for (int i = 0; i < name.length() && node != null; i++) {
+                node = node.children.get(name.charAt(i));
+                if (node != null) {
+                    result.addAll(node.acls);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.devshawn.kafka.gitops.util;
+
+import com.devshawn.kafka.gitops.domain.state.AclDetails;
+import com.devshawn.kafka.gitops.domain.state.DesiredState;
+import com.devshawn.kafka.gitops.domain.state.RedundantAcl;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+public class AclPruningUtil {
+
+    private static final String WILDCARD = "*";
+
+    private static final String WILDCARD_PRINCIPAL = "User:*";
+
+    /*
+     * Finds ALLOW ACLs already granted by a broader ALLOW ACL for the same principal, resource type and host: a
+     * LITERAL '*' covers every name and a PREFIXED ACL covers names and longer prefixes starting with it. An ACL with
+     * operation ALL covers every operation on the same or a narrower resource. ACLs of a principal with any DENY on
+     * the same resource type are kept, so the effective access never changes when the redundant ACLs are removed.
+     */
+    public static List<RedundantAcl> findRedundantAcls(Map<String, AclDetails> acls) {
+        AclIndex aclIndex = new AclIndex(acls.values());
+        Map<AclDetails, String> names = new HashMap<>();
+        acls.forEach((name, acl) -> names.putIfAbsent(acl, name));
+
+        Set<List<String>> denied = acls.values().stream()
+                .filter(it -> it.getPermission().equals("DENY"))
+                .map(it -> Arrays.asList(it.getPrincipal(), it.getType()))
+                .collect(Collectors.toSet());
+
+        List<RedundantAcl> redundantAcls = new ArrayList<>();
+        acls.forEach((name, acl) -> {
+            if (!acl.getPermission().equals("ALLOW") || isDenied(acl, denied)) {
+                return;
+            }
+
+            aclIndex.getAclsForResource(acl.getType(), acl.getName()).stream()
+                    .filter(candidate -> covers(candidate, acl))
+                    .findFirst()
+                    .ifPresent(covering -> redundantAcls.add(new RedundantAcl.Builder()
+                            .setName(name)
+                            .setAclDetails(acl)
+                            .setCoveredBy(names.get(covering))
+                            .setCoveringAclDetails(covering)
+                            .build()));
+        });
+        return redundantAcls;
+    }
+
+    public static DesiredState removeRedundantAcls(DesiredState desiredState, List<RedundantAcl> redundantAcls) {
+        if (redundantAcls.isEmpty()) {
+            return desiredState;
+        }
+
+        Set<String> removedNames = redundantAcls.stream().map(RedundantAcl::getName).collect(Collectors.toSet());
+        DesiredState.Builder builder = new DesiredState.Builder()
+                .mergeFrom(desiredState)
+                .clearAcls();
+        desiredState.getAcls().forEach((name, acl) -> {
+            if (!removedNames.contains(name)) {
+                builder.putAcls(name, acl);
+            }
+        });
+        return builder.build();
+    }
+
+    private static boolean isDenied(AclDetails acl, Set<List<String>> denied) {
+        return denied.contains(Arrays.asList(acl.getPrincipal(), acl.getType()))
+                || denied.contains(Arrays.asList(WILDCARD_PRINCIPAL, acl.getType()));
+    }
+
+    private static boolean covers(AclDetails candidate, AclDetails acl) {
+        if (!candidate.getPermission().equals("ALLOW") || !candidate.getPrincipal().equals(acl.getPrincipal())) {
+            return false;
+        }
+        if (!candidate.getHost().equals(WILDCARD) && !candidate.getHost().equals(acl.getHost())) {
+            return false;
+        }
+        if (!candidate.getOperation().equals("ALL") && !candidate.getOperation().equals(acl.getOperation())) {
+            return false;
+        }
+        if (candidate.getPattern().equals(acl.getPattern()) && candidate.getName().equals(acl.getName())) {
+            return candidate.getOperation().equals("ALL") && !acl.getOperation().equals("ALL");
+        }
+        return isBroaderPattern(candidate, acl);
+    }
+
+    private static boolean isBroaderPattern(AclDetails candidate, AclDetails acl) {
+        boolean candidateIsWildcard = candidate.getPattern().equals("LITERAL") && candidate.getName().equals(WILDCARD);
+        boolean aclIsWildcard = acl.getPattern().equals("LITERAL") && acl.getName().equals(WILDCARD);
+        if (aclIsWildcard) {
+            return false;
+        } else if (candidateIsWildcard) {
+            return true;
+        } else if (candidate.getPattern().equals("PREFIXED")) {
+            return acl.getPattern().equals("LITERAL") || candidate.getName().length() < acl.getName().length();
+        }
+        return false;
+    }
+}
@@ -0,0 +1,34 @@
+package com.devshawn.kafka.gitops.util;
+
+import java.io.BufferedOutputStream;
+import java.io.PrintStream;
+
+/*
+ * Swaps System.out for a buffered, non-autoflushing stream for the duration of a command. Every writer in the tool
+ * prints through System.out, so ordering is preserved; output is flushed when the buffer fills, when a step asks for
+ * it (e.g. after each apply) and when the command finishes.
+ */
+public class BufferedOutput implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final PrintStream original;
+    private final PrintStream buffered;
+
+    private BufferedOutput(PrintStream original) {
+        this.original = original;
+        this.buffered = new PrintStream(new BufferedOutputStream(original, BUFFER_SIZE), false);
+    }
+
+    public static BufferedOutput install() {
+        BufferedOutput output = new BufferedOutput(System.out);
+        System.setOut(output.buffered);
+        return output;
+    }
+
+    @Override
+    public void close() {
+        buffered.flush();
+        System.setOut(original);
+    }
+}
@@ -0,0 +1,46 @@
+package com.devshawn.kafka.gitops.util;
+
+import com.devshawn.kafka.gitops.domain.cluster.ClusterHealth;
+import com.devshawn.kafka.gitops.exception.WriteMetricsOutputException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+/*
+ * Writes the result of a cluster health check in the Prometheus text format, e.g. for the node exporter's textfile
+ * collector. The metrics are written to a temporary file which is then moved into place, so a scraper never reads a
+ * partly written file.
+ */
+public class HealthMetricsWriter {
+
+    public static void write(ClusterHealth health, Optional<String> cluster, File file) {
+        String labels = cluster.map(it -> String.format("{cluster=\"%s\"}", it.replace("\\", "\\\\").replace("\"", "\\\""))).orElse("");
+        StringBuilder metrics = new StringBuilder();
+        append(metrics, "kafka_gitops_cluster_brokers", "Brokers in the cluster.", labels, health.getBrokers());
+        append(metrics, "kafka_gitops_cluster_partitions", "Partitions over all topics.", labels, health.getPartitions());
+        append(metrics, "kafka_gitops_cluster_under_replicated_partitions", "Partitions with fewer in-sync replicas than replicas.", labels, health.getUnderReplicatedPartitions());
+        append(metrics, "kafka_gitops_cluster_offline_partitions", "Partitions without a leader.", labels, health.getOfflinePartitions());
+        append(metrics, "kafka_gitops_cluster_reassigning_partitions", "Partitions being reassigned.", labels, health.getReassigningPartitions());
+        append(metrics, "kafka_gitops_cluster_controller_response_ms", "Round trip of a request answered by the controller.", labels, health.getControllerResponseMs());
+        append(metrics, "kafka_gitops_cluster_health_checked_seconds", "Time of the health check.", labels, System.currentTimeMillis() / 1000);
+
+        File target = file.getAbsoluteFile();
+        File temporary = new File(target.getParentFile(), target.getName() + ".tmp");
+        try {
+            Files.write(temporary.toPath(), metrics.toString().getBytes(StandardCharsets.UTF_8));
+            Files.move(temporary.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            throw new WriteMetricsOutputException(ex.getMessage());
+        }
+    }
+
+    private static void append(StringBuilder metrics, String name, String help, String labels, long value) {
+        metrics.append(String.format("# HELP %s %s\n", name, help));
+        metrics.append(String.format("# TYPE %s gauge\n", name));
+        metrics.append(String.format("%s%s %s\n", name, labels, value));
+    }
+}
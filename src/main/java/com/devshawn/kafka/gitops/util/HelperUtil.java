@@ -1,5 +1,7 @@
 package com.devshawn.kafka.gitops.util;
 
+import java.net.InetAddress;
+import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -12,4 +14,12 @@ public class HelperUtil {
         set.addAll(listTwo);
         return new ArrayList<>(set);
     }
+
+    public static String getHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException ex) {
+            return "unknown";
+        }
+    }
 }
@@ -1,29 +1,63 @@
 package com.devshawn.kafka.gitops.util;
 
+import com.devshawn.kafka.gitops.domain.cluster.ClusterHealth;
 import com.devshawn.kafka.gitops.domain.plan.*;
+import com.devshawn.kafka.gitops.domain.state.AclCompaction;
 import com.devshawn.kafka.gitops.domain.state.AclDetails;
+import com.devshawn.kafka.gitops.domain.state.RedundantAcl;
 import com.devshawn.kafka.gitops.domain.state.TopicDetails;
 import com.devshawn.kafka.gitops.enums.PlanAction;
 import com.devshawn.kafka.gitops.exception.KafkaExecutionException;
+import com.devshawn.kafka.gitops.exception.WriteExportOutputException;
 import com.devshawn.kafka.gitops.exception.WritePlanOutputException;
 import picocli.CommandLine;
 
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 public class LogUtil {
 
+    private static final int BREAKDOWN_LIMIT = 10;
+
     public static void printPlan(DesiredPlan desiredPlan, boolean deleteDisabled) {
-        PlanOverview planOverview = PlanUtil.getOverview(desiredPlan, deleteDisabled);
+        PlanStatistics statistics = PlanStatistics.of(desiredPlan, deleteDisabled);
 
-        printLegend(planOverview);
+        printLegend(statistics.getOverview());
 
         if (desiredPlan.getTopicPlans() != null) {
-            printTopicOverview(desiredPlan, deleteDisabled);
+            printCategoryOverview("Topics", statistics.getOverview(PlanStatistics.Category.TOPIC));
             desiredPlan.getTopicPlans().forEach(LogUtil::printTopicPlan);
         }
 
-        printAclOverview(desiredPlan, deleteDisabled);
+        printCategoryOverview("ACLs", statistics.getOverview(PlanStatistics.Category.ACL));
         desiredPlan.getAclPlans().forEach(LogUtil::printAclPlan);
 
-        printOverview(desiredPlan, deleteDisabled);
+        if (!desiredPlan.getQuotaPlans().isEmpty()) {
+            printCategoryOverview("Quotas", statistics.getOverview(PlanStatistics.Category.QUOTA));
+            desiredPlan.getQuotaPlans().forEach(LogUtil::printQuotaPlan);
+        }
+
+        if (!desiredPlan.getConnectorPlans().isEmpty()) {
+            printCategoryOverview("Connectors", statistics.getOverview(PlanStatistics.Category.CONNECTOR));
+            desiredPlan.getConnectorPlans().forEach(LogUtil::printConnectorPlan);
+        }
+
+        if (!desiredPlan.getConsumerGroupPlans().isEmpty()) {
+            printCategoryOverview("Consumer Groups", statistics.getOverview(PlanStatistics.Category.CONSUMER_GROUP));
+            desiredPlan.getConsumerGroupPlans().forEach(LogUtil::printConsumerGroupPlan);
+        }
+
+        printOverview(statistics.getOverview());
+    }
+
+    public static void printPlanStatistics(DesiredPlan desiredPlan, boolean deleteDisabled) {
+        PlanStatistics statistics = PlanStatistics.of(desiredPlan, deleteDisabled);
+        System.out.println();
+        printBreakdown("Changes by principal", statistics.getByPrincipal());
+        printBreakdown("Changes by ACL resource type", statistics.getByResourceType());
+        printBreakdown("Changes by topic prefix", statistics.getByTopicPrefix());
     }
 
     public static void printValidationResult(String message, boolean success) {
@@ -39,22 +73,37 @@ public class LogUtil {
         switch (topicPlan.getAction()) {
             case ADD:
                 System.out.println(green(String.format("+ [TOPIC] %s", topicPlan.getName())));
+                printVerificationError(topicPlan);
                 printTopicConfigPlanForNewTopics(topicPlan.getTopicDetails().get());
+                printReplicaAssignments(topicPlan);
                 System.out.println("\n");
                 break;
             case UPDATE:
                 System.out.println(yellow(String.format("~ [TOPIC] %s", topicPlan.getName())));
+                printVerificationError(topicPlan);
                 System.out.println(yellow("\t~ configs:"));
                 topicPlan.getTopicConfigPlans().forEach(LogUtil::printTopicConfigPlan);
                 System.out.println("\n");
                 break;
             case REMOVE:
                 System.out.println(red(String.format("- [TOPIC] %s", topicPlan.getName())));
+                topicPlan.getDeletionBlocker().ifPresent(blocker -> System.out.println(yellow(String.format("\t! not deleted: %s", blocker))));
                 System.out.println("\n");
                 break;
         }
     }
 
+    private static void printVerificationError(TopicPlan topicPlan) {
+        topicPlan.getVerificationError().ifPresent(error -> System.out.println(red(String.format("\t! rejected: %s", error))));
+    }
+
+    private static void printReplicaAssignments(TopicPlan topicPlan) {
+        if (!topicPlan.getReplicaAssignments().isEmpty()) {
+            System.out.println(green("\t+ replicas:"));
+            topicPlan.getReplicaAssignments().forEach((partition, replicas) -> System.out.println(green(String.format("\t\t+ %s: %s", partition, replicas))));
+        }
+    }
+
     private static void printTopicConfigPlanForNewTopics(TopicDetails topicDetails) {
         System.out.println(green(String.format("\t+ partitions: %s", topicDetails.getPartitions())));
         System.out.println(green(String.format("\t+ replication: %s", topicDetails.getReplication().get())));
@@ -91,6 +140,9 @@ public class LogUtil {
                 System.out.println(green(String.format("\t + host: %s", aclDetails.getHost())));
                 System.out.println(green(String.format("\t + operation: %s", aclDetails.getOperation())));
                 System.out.println(green(String.format("\t + permission: %s", aclDetails.getPermission())));
+                if (!aclPlan.getSourceNames().isEmpty()) {
+                    System.out.println(green(String.format("\t + merged from: %s", String.join(", ", aclPlan.getSourceNames()))));
+                }
                 System.out.println("\n");
                 break;
             case REMOVE:
@@ -107,6 +159,170 @@ public class LogUtil {
         }
     }
 
+    private static void printQuotaPlan(QuotaPlan quotaPlan) {
+        switch (quotaPlan.getAction()) {
+            case ADD:
+                System.out.println(green(String.format("+ [QUOTA] %s", quotaPlan.getName())));
+                printQuotaEntity(quotaPlan, "+");
+                quotaPlan.getQuotaConfigPlans().forEach(LogUtil::printQuotaConfigPlan);
+                System.out.println("\n");
+                break;
+            case UPDATE:
+                System.out.println(yellow(String.format("~ [QUOTA] %s", quotaPlan.getName())));
+                printQuotaEntity(quotaPlan, "~");
+                quotaPlan.getQuotaConfigPlans().forEach(LogUtil::printQuotaConfigPlan);
+                System.out.println("\n");
+                break;
+            case REMOVE:
+                System.out.println(red(String.format("- [QUOTA] %s", quotaPlan.getName())));
+                printQuotaEntity(quotaPlan, "-");
+                System.out.println("\n");
+                break;
+        }
+    }
+
+    private static void printQuotaEntity(QuotaPlan quotaPlan, String symbol) {
+        String user = String.format("\t %s user: %s", symbol, quotaPlan.getUser().orElse("(any)"));
+        String clientId = String.format("\t %s client_id: %s", symbol, quotaPlan.getClientId().orElse("(any)"));
+        if (quotaPlan.getAction() == PlanAction.ADD) {
+            System.out.println(green(user));
+            System.out.println(green(clientId));
+        } else if (quotaPlan.getAction() == PlanAction.REMOVE) {
+            System.out.println(red(user));
+            System.out.println(red(clientId));
+        } else {
+            System.out.println(yellow(user));
+            System.out.println(yellow(clientId));
+        }
+    }
+
+    private static void printQuotaConfigPlan(QuotaConfigPlan quotaConfigPlan) {
+        switch (quotaConfigPlan.getAction()) {
+            case ADD:
+                System.out.println(green(String.format("\t\t+ %s: %s", quotaConfigPlan.getKey(), toQuotaValue(quotaConfigPlan.getValue().get()))));
+                break;
+            case UPDATE:
+                System.out.println(yellow(String.format("\t\t~ %s: %s", quotaConfigPlan.getKey(), toQuotaValue(quotaConfigPlan.getValue().get()))));
+                break;
+            case REMOVE:
+                System.out.println(red(String.format("\t\t- %s", quotaConfigPlan.getKey())));
+                break;
+        }
+    }
+
+    private static String toQuotaValue(Double value) {
+        return value == Math.rint(value) ? String.valueOf(value.longValue()) : String.valueOf(value);
+    }
+
+    private static void printConnectorPlan(ConnectorPlan connectorPlan) {
+        switch (connectorPlan.getAction()) {
+            case ADD:
+                System.out.println(green(String.format("+ [CONNECTOR] %s", connectorPlan.getName())));
+                System.out.println(green("\t+ config:"));
+                connectorPlan.getConnectorConfigPlans().forEach(LogUtil::printConnectorConfigPlan);
+                System.out.println("\n");
+                break;
+            case UPDATE:
+                System.out.println(yellow(String.format("~ [CONNECTOR] %s", connectorPlan.getName())));
+                System.out.println(yellow("\t~ config:"));
+                connectorPlan.getConnectorConfigPlans().forEach(LogUtil::printConnectorConfigPlan);
+                System.out.println("\n");
+                break;
+            case REMOVE:
+                System.out.println(red(String.format("- [CONNECTOR] %s", connectorPlan.getName())));
+                System.out.println("\n");
+                break;
+        }
+    }
+
+    private static void printConsumerGroupPlan(ConsumerGroupPlan consumerGroupPlan) {
+        if (consumerGroupPlan.getAction() == PlanAction.REMOVE) {
+            System.out.println(red(String.format("- [CONSUMER GROUP] %s", consumerGroupPlan.getName())));
+            System.out.println("\n");
+        }
+    }
+
+    private static void printConnectorConfigPlan(ConnectorConfigPlan configPlan) {
+        switch (configPlan.getAction()) {
+            case ADD:
+                System.out.println(green(String.format("\t\t+ %s: %s", configPlan.getKey(), configPlan.getValue().get())));
+                break;
+            case UPDATE:
+                System.out.println(yellow(String.format("\t\t~ %s: %s", configPlan.getKey(), configPlan.getValue().get())));
+                break;
+            case REMOVE:
+                System.out.println(red(String.format("\t\t- %s", configPlan.getKey())));
+                break;
+        }
+    }
+
+    public static void printAclCompactions(List<AclCompaction> compactions) {
+        if (compactions.isEmpty()) {
+            System.out.println("ACL compaction: no LITERAL topic ACLs can be replaced by PREFIXED ACLs.\n");
+            return;
+        }
+
+        int replaced = compactions.stream().mapToInt(it -> it.getReplacedAcls().size()).sum();
+        System.out.println(String.format("ACL compaction: %s LITERAL topic ACLs can be replaced by %s PREFIXED ACLs.", replaced, compactions.size()));
+        compactions.forEach(compaction -> {
+            AclDetails aclDetails = compaction.getAclDetails();
+            System.out.println(yellow(String.format("\t~ %s %s %s* (replaces %s ACLs)", aclDetails.getPrincipal(), aclDetails.getOperation(),
+                    aclDetails.getName(), compaction.getReplacedAcls().size())));
+        });
+        System.out.println();
+    }
+
+    public static void printRedundantAcls(List<RedundantAcl> redundantAcls) {
+        if (redundantAcls.isEmpty()) {
+            System.out.println("ACL pruning: no ACLs are already granted by a broader ACL.\n");
+            return;
+        }
+
+        System.out.println(String.format("ACL pruning: %s ACLs are already granted by a broader ACL.", redundantAcls.size()));
+        redundantAcls.forEach(redundantAcl -> {
+            AclDetails aclDetails = redundantAcl.getAclDetails();
+            AclDetails covering = redundantAcl.getCoveringAclDetails();
+            System.out.println(yellow(String.format("\t- %s %s %s %s %s (covered by %s: %s %s %s)", redundantAcl.getName(), aclDetails.getPrincipal(),
+                    aclDetails.getOperation(), aclDetails.getPattern(), aclDetails.getName(), redundantAcl.getCoveredBy(),
+                    covering.getOperation(), covering.getPattern(), covering.getName())));
+        });
+        System.out.println();
+    }
+
+    /*
+     * Access
+     */
+
+    public static void printAccessDecision(String principal, String type, String resource, String operation, boolean allowed, List<AclDetails> acls) {
+        String decision = allowed ? green("ALLOWED") : red("DENIED");
+        System.out.println(String.format("[%s] %s %s %s %s\n", decision, principal, operation, type, resource));
+        acls.forEach(acl -> System.out.println(String.format("\t%s", toAclDescription(acl))));
+        if (!acls.isEmpty()) {
+            System.out.println();
+        }
+    }
+
+    public static void printAllowedPrincipals(String type, String resource, String operation, Set<String> principals) {
+        System.out.println(String.format("Principals allowed to %s %s %s: %s\n", operation, type, resource, principals.size()));
+        principals.forEach(principal -> System.out.println(String.format("\t%s", principal)));
+        if (!principals.isEmpty()) {
+            System.out.println();
+        }
+    }
+
+    public static void printPrincipalAcls(String principal, List<AclDetails> acls) {
+        System.out.println(String.format("ACLs for %s: %s\n", principal, acls.size()));
+        acls.forEach(acl -> System.out.println(String.format("\t%s", toAclDescription(acl))));
+        if (!acls.isEmpty()) {
+            System.out.println();
+        }
+    }
+
+    private static String toAclDescription(AclDetails acl) {
+        return String.format("%s %s %s %s %s (host: %s, principal: %s)", acl.getPermission(), acl.getOperation(),
+                acl.getType(), acl.getPattern(), acl.getName(), acl.getHost(), acl.getPrincipal());
+    }
+
     /*
      * Apply
      */
@@ -121,30 +337,58 @@ public class LogUtil {
         printAclPlan(aclPlan);
     }
 
+    public static void printQuotaPreApply(QuotaPlan quotaPlan) {
+        System.out.println(String.format("Applying: [%s]\n", toAction(quotaPlan.getAction())));
+        printQuotaPlan(quotaPlan);
+    }
+
+    public static void printConnectorPreApply(ConnectorPlan connectorPlan) {
+        System.out.println(String.format("Applying: [%s]\n", toAction(connectorPlan.getAction())));
+        printConnectorPlan(connectorPlan);
+    }
+
+    public static void printConsumerGroupPreApply(ConsumerGroupPlan consumerGroupPlan) {
+        System.out.println(String.format("Applying: [%s]\n", toAction(consumerGroupPlan.getAction())));
+        printConsumerGroupPlan(consumerGroupPlan);
+    }
+
     public static void printPostApply() {
         System.out.println("Successfully applied.\n");
+        System.out.flush();
     }
 
     /*
      * Helpers
      */
 
-    private static void printOverview(DesiredPlan desiredPlan, boolean deleteDisabled) {
-        PlanOverview planOverview = PlanUtil.getOverview(desiredPlan, deleteDisabled);
+    private static void printOverview(PlanOverview planOverview) {
         System.out.println(String.format("%s: %s, %s, %s.", bold("Plan"), toCreate(planOverview.getAdd()),
                 toUpdate(planOverview.getUpdate()), toDelete(planOverview.getRemove())));
     }
 
-    private static void printTopicOverview(DesiredPlan desiredPlan, boolean deleteDisabled) {
-        PlanOverview topicPlanOverview = PlanUtil.getTopicPlanOverview(desiredPlan, deleteDisabled);
-        System.out.println(String.format("Topics: %s, %s, %s.\n", toCreate(topicPlanOverview.getAdd()),
-                toUpdate(topicPlanOverview.getUpdate()), toDelete(topicPlanOverview.getRemove())));
+    private static void printCategoryOverview(String category, PlanOverview planOverview) {
+        System.out.println(String.format("%s: %s, %s, %s.\n", category, toCreate(planOverview.getAdd()),
+                toUpdate(planOverview.getUpdate()), toDelete(planOverview.getRemove())));
     }
 
-    private static void printAclOverview(DesiredPlan desiredPlan, boolean deleteDisabled) {
-        PlanOverview aclPlanOverview = PlanUtil.getAclPlanOverview(desiredPlan, deleteDisabled);
-        System.out.println(String.format("ACLs: %s, %s, %s.\n", toCreate(aclPlanOverview.getAdd()),
-                toUpdate(aclPlanOverview.getUpdate()), toDelete(aclPlanOverview.getRemove())));
+    private static void printBreakdown(String title, Map<String, PlanOverview> breakdown) {
+        if (breakdown.isEmpty()) {
+            return;
+        }
+        System.out.println(bold(String.format("%s:", title)));
+        breakdown.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, PlanOverview> it) -> getChangeCount(it.getValue())).reversed())
+                .limit(BREAKDOWN_LIMIT)
+                .forEach(it -> System.out.println(String.format("  %s: %s, %s, %s", it.getKey(), toCreate(it.getValue().getAdd()),
+                        toUpdate(it.getValue().getUpdate()), toDelete(it.getValue().getRemove()))));
+        if (breakdown.size() > BREAKDOWN_LIMIT) {
+            System.out.println(String.format("  ... and %s more", breakdown.size() - BREAKDOWN_LIMIT));
+        }
+        System.out.println();
+    }
+
+    private static long getChangeCount(PlanOverview planOverview) {
+        return planOverview.getAdd() + planOverview.getUpdate() + planOverview.getRemove();
     }
 
     private static void printLegend(PlanOverview planOverview) {
@@ -166,15 +410,66 @@ public class LogUtil {
 
     }
 
+    public static void printVerificationFailure(Map<String, String> errors) {
+        System.out.println(String.format("[%s] %s topic changes were rejected by the brokers during verification:", red("ERROR"), errors.size()));
+        errors.forEach((name, error) -> System.out.println(String.format("- %s: %s", bold(name), error)));
+        System.out.println("\nThe plan file was written with these errors, but it cannot be applied.");
+    }
+
     public static void printNoChangesMessage() {
         System.out.println(String.format("[%s] There are no necessary changes; the actual state matches the desired state.", green("SUCCESS")));
     }
 
+    public static void printClusterHealth(ClusterHealth health) {
+        System.out.println(String.format("[%s] %s brokers, %s partitions: %s offline, %s under-replicated, controller responded in %s ms.\n",
+                bold("HEALTH"), health.getBrokers(), health.getPartitions(), health.getOfflinePartitions(),
+                health.getUnderReplicatedPartitions(), health.getControllerResponseMs()));
+    }
+
+    public static void printTopicConvergence(int topics, long durationMs) {
+        System.out.println(String.format("[%s] %s new topics converged in %s ms.\n", green("READY"), topics, durationMs));
+    }
+
     public static void printApplyOverview(PlanOverview planOverview) {
         System.out.println(String.format("[%s] Apply complete! Resources: %s created, %s updated, %s deleted.", green("SUCCESS"),
                 planOverview.getAdd(), planOverview.getUpdate(), planOverview.getRemove()));
     }
 
+    public static void printClusterSummary(List<ClusterResult> results, boolean deleteDisabled, boolean apply) {
+        System.out.println(bold("Clusters:"));
+        results.forEach(result -> {
+            String name = bold(result.getName());
+            if (result.getError().isPresent()) {
+                System.out.println(String.format("[%s] %s: %s (%s ms)", red("ERROR"), name, result.getError().get(), result.getDurationMs()));
+                return;
+            }
+
+            PlanOverview planOverview = PlanUtil.getOverview(result.getDesiredPlan().get(), deleteDisabled);
+            if (planOverview.getAdd() == 0 && planOverview.getUpdate() == 0 && planOverview.getRemove() == 0) {
+                System.out.println(String.format("[%s] %s: No changes (%s ms)", green("SUCCESS"), name, result.getDurationMs()));
+            } else if (apply) {
+                System.out.println(String.format("[%s] %s: %s created, %s updated, %s deleted (%s ms)", green("SUCCESS"), name,
+                        planOverview.getAdd(), planOverview.getUpdate(), planOverview.getRemove(), result.getDurationMs()));
+            } else {
+                System.out.println(String.format("[%s] %s: %s, %s, %s (%s ms)", green("SUCCESS"), name, toCreate(planOverview.getAdd()),
+                        toUpdate(planOverview.getUpdate()), toDelete(planOverview.getRemove()), result.getDurationMs()));
+            }
+        });
+    }
+
+    public static void printJournalReport(ApplyJournal journal) {
+        long created = journal.getApplied().stream().filter(it -> it.getAction() == PlanAction.ADD).count();
+        long updated = journal.getApplied().stream().filter(it -> it.getAction() == PlanAction.UPDATE).count();
+        long deleted = journal.getApplied().stream().filter(it -> it.getAction() == PlanAction.REMOVE).count();
+        journal.getErrors().forEach(error -> System.out.println(String.format("[%s] %s", red("ERROR"), error)));
+        if (!journal.getErrors().isEmpty()) {
+            System.out.println();
+        }
+        String status = journal.getErrors().isEmpty() ? green("SUCCESS") : red("ERROR");
+        System.out.println(String.format("[%s] %s of %s changes applied: %s created, %s updated, %s deleted.", status,
+                journal.getApplied().size(), journal.getPlannedChanges(), created, updated, deleted));
+    }
+
     public static void printSimpleSuccess(String message) {
         System.out.println(String.format("[%s] %s\n", green("SUCCESS"), message));
     }
@@ -217,6 +512,10 @@ public class LogUtil {
         System.out.println(String.format("[%s] %s", red("ERROR"), ex.getMessage()));
     }
 
+    public static void printExportOutputError(WriteExportOutputException ex) {
+        System.out.println(String.format("[%s] %s", red("ERROR"), ex.getMessage()));
+    }
+
     private static void printPlanErrorMessage() {
         System.out.println(String.format("[%s] An error has occurred during the planning process. No plan was created.", red("ERROR")));
     }
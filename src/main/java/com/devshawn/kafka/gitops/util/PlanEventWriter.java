@@ -0,0 +1,116 @@
+package com.devshawn.kafka.gitops.util;
+
+import com.devshawn.kafka.gitops.domain.cluster.ClusterHealth;
+import com.devshawn.kafka.gitops.domain.plan.ClusterResult;
+import com.devshawn.kafka.gitops.domain.plan.DesiredPlan;
+import com.devshawn.kafka.gitops.domain.plan.PlanOverview;
+import com.devshawn.kafka.gitops.enums.PlanAction;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+
+import java.io.UncheckedIOException;
+import java.util.Optional;
+
+/*
+ * Writes plan entries and apply results as newline-delimited JSON, one event per line, for the ndjson output format.
+ * Plan events are left to the output buffer; apply and error events are flushed immediately so consumers can follow
+ * progress.
+ */
+public class PlanEventWriter {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().registerModule(new Jdk8Module());
+
+    public static void writePlan(DesiredPlan desiredPlan, boolean deleteDisabled, Optional<String> cluster) {
+        desiredPlan.getTopicPlans().forEach(it -> writePlanEntry("topic", it.getName(), it.getAction(), it, cluster));
+        desiredPlan.getAclPlans().forEach(it -> writePlanEntry("acl", it.getName(), it.getAction(), it, cluster));
+        desiredPlan.getQuotaPlans().forEach(it -> writePlanEntry("quota", it.getName(), it.getAction(), it, cluster));
+        desiredPlan.getConnectorPlans().forEach(it -> writePlanEntry("connector", it.getName(), it.getAction(), it, cluster));
+        desiredPlan.getConsumerGroupPlans().forEach(it -> writePlanEntry("consumer-group", it.getName(), it.getAction(), it, cluster));
+        writeOverview("plan-summary", PlanUtil.getOverview(desiredPlan, deleteDisabled), cluster, false);
+    }
+
+    public static void writeClusterResults(Iterable<ClusterResult> results, boolean deleteDisabled, boolean apply) {
+        results.forEach(result -> {
+            Optional<String> cluster = Optional.of(result.getName());
+            if (result.getError().isPresent()) {
+                writeError(result.getError().get(), cluster);
+            } else if (apply) {
+                writeOverview("apply-summary", PlanUtil.getOverview(result.getDesiredPlan().get(), deleteDisabled), cluster, true);
+            } else {
+                writePlan(result.getDesiredPlan().get(), deleteDisabled, cluster);
+            }
+        });
+    }
+
+    public static void writeApplied(String resource, String name, PlanAction action, Optional<String> cluster) {
+        ObjectNode event = createEvent("applied", cluster)
+                .put("resource", resource)
+                .put("name", name)
+                .put("action", action.name());
+        write(event, true);
+    }
+
+    public static void writeClusterHealth(ClusterHealth health, Optional<String> cluster) {
+        ObjectNode event = createEvent("cluster-health", cluster)
+                .put("brokers", health.getBrokers())
+                .put("partitions", health.getPartitions())
+                .put("underReplicatedPartitions", health.getUnderReplicatedPartitions())
+                .put("offlinePartitions", health.getOfflinePartitions())
+                .put("reassigningPartitions", health.getReassigningPartitions())
+                .put("controllerResponseMs", health.getControllerResponseMs());
+        write(event, true);
+    }
+
+    public static void writeTopicsConverged(int topics, long durationMs, Optional<String> cluster) {
+        write(createEvent("topics-converged", cluster).put("topics", topics).put("durationMs", durationMs), true);
+    }
+
+    public static void writeApplySummary(PlanOverview planOverview) {
+        writeOverview("apply-summary", planOverview, Optional.empty(), true);
+    }
+
+    public static void writeNoChanges() {
+        write(createEvent("no-changes", Optional.empty()), true);
+    }
+
+    public static void writeError(String message, Optional<String> cluster) {
+        write(createEvent("error", cluster).put("message", message), true);
+    }
+
+    private static void writePlanEntry(String resource, String name, PlanAction action, Object plan, Optional<String> cluster) {
+        ObjectNode event = createEvent("plan", cluster)
+                .put("resource", resource)
+                .put("name", name)
+                .put("action", action.name());
+        event.set("plan", OBJECT_MAPPER.valueToTree(plan));
+        write(event, false);
+    }
+
+    private static void writeOverview(String type, PlanOverview planOverview, Optional<String> cluster, boolean flush) {
+        ObjectNode event = createEvent(type, cluster)
+                .put("add", planOverview.getAdd())
+                .put("update", planOverview.getUpdate())
+                .put("remove", planOverview.getRemove())
+                .put("noChange", planOverview.getNoChange());
+        write(event, flush);
+    }
+
+    private static ObjectNode createEvent(String type, Optional<String> cluster) {
+        ObjectNode event = OBJECT_MAPPER.createObjectNode().put("event", type);
+        cluster.ifPresent(it -> event.put("cluster", it));
+        return event;
+    }
+
+    private static void write(ObjectNode event, boolean flush) {
+        try {
+            System.out.println(OBJECT_MAPPER.writeValueAsString(event));
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        if (flush) {
+            System.out.flush();
+        }
+    }
+}
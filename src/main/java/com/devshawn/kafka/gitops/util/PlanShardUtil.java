@@ -0,0 +1,87 @@
+package com.devshawn.kafka.gitops.util;
+
+import com.devshawn.kafka.gitops.domain.plan.AclPlan;
+import com.devshawn.kafka.gitops.domain.plan.DesiredPlan;
+import com.devshawn.kafka.gitops.domain.plan.PlanShard;
+import com.devshawn.kafka.gitops.domain.state.AclDetails;
+import com.devshawn.kafka.gitops.exception.ValidationException;
+import org.apache.kafka.common.utils.Utils;
+
+import java.nio.charset.StandardCharsets;
+
+/*
+ * Splits a plan into shards so it can be applied by several runners. Entries are assigned by a jump consistent hash
+ * of their resource name, so every runner computes the same assignment from the same plan file without coordination,
+ * and changing the shard count only moves the entries of the added or removed shards. LITERAL topic ACLs are keyed by
+ * their topic, keeping them in the shard that creates the topic, where topics are applied before ACLs. Other entries,
+ * including consumer groups, are keyed by name.
+ */
+public class PlanShardUtil {
+
+    public static PlanShard parse(String value) {
+        String[] parts = value.split("/");
+        try {
+            if (parts.length == 2) {
+                int index = Integer.parseInt(parts[0].trim());
+                int count = Integer.parseInt(parts[1].trim());
+                if (count > 0 && index > 0 && index <= count) {
+                    return new PlanShard.Builder().setIndex(index).setCount(count).build();
+                }
+            }
+        } catch (NumberFormatException ex) {
+            /* reported below */
+        }
+        throw new ValidationException(String.format("Invalid shard '%s'. Expected <index>/<count> with 1 <= index <= count.", value));
+    }
+
+    public static String format(PlanShard shard) {
+        return String.format("%s/%s", shard.getIndex(), shard.getCount());
+    }
+
+    public static DesiredPlan getShardPlan(DesiredPlan desiredPlan, PlanShard shard) {
+        DesiredPlan.Builder shardPlan = new DesiredPlan.Builder();
+        desiredPlan.getTopicPlans().stream()
+                .filter(it -> isInShard(it.getName(), shard))
+                .forEach(shardPlan::addTopicPlans);
+        desiredPlan.getAclPlans().stream()
+                .filter(it -> isInShard(getShardKey(it), shard))
+                .forEach(shardPlan::addAclPlans);
+        desiredPlan.getQuotaPlans().stream()
+                .filter(it -> isInShard(it.getName(), shard))
+                .forEach(shardPlan::addQuotaPlans);
+        desiredPlan.getConnectorPlans().stream()
+                .filter(it -> isInShard(it.getName(), shard))
+                .forEach(shardPlan::addConnectorPlans);
+        desiredPlan.getConsumerGroupPlans().stream()
+                .filter(it -> isInShard(it.getName(), shard))
+                .forEach(shardPlan::addConsumerGroupPlans);
+        return shardPlan.build();
+    }
+
+    /*
+     * Returns the 1-based shard the key is assigned to.
+     */
+    public static int getShardIndex(String key, int count) {
+        long hash = Utils.murmur2(key.getBytes(StandardCharsets.UTF_8)) & 0xffffffffL;
+        long bucket = -1;
+        long next = 0;
+        while (next < count) {
+            bucket = next;
+            hash = hash * 2862933555777941757L + 1;
+            next = (long) ((bucket + 1) * ((double) (1L << 31) / (double) ((hash >>> 33) + 1)));
+        }
+        return (int) bucket + 1;
+    }
+
+    private static boolean isInShard(String key, PlanShard shard) {
+        return getShardIndex(key, shard.getCount()) == shard.getIndex();
+    }
+
+    private static String getShardKey(AclPlan aclPlan) {
+        AclDetails aclDetails = aclPlan.getAclDetails();
+        if (aclDetails.getType().equals("TOPIC") && aclDetails.getPattern().equals("LITERAL")) {
+            return aclDetails.getName();
+        }
+        return String.join(":", aclDetails.getType(), aclDetails.getPattern(), aclDetails.getName(), aclDetails.getPrincipal());
+    }
+}
@@ -0,0 +1,150 @@
+package com.devshawn.kafka.gitops.util;
+
+import com.devshawn.kafka.gitops.domain.plan.*;
+import com.devshawn.kafka.gitops.domain.state.AclDetails;
+import com.devshawn.kafka.gitops.enums.PlanAction;
+
+import java.util.*;
+
+/*
+ * Counts plan actions per resource kind in a single pass with primitive counters, along with change breakdowns by
+ * ACL principal, ACL resource type and topic prefix. Plans can be recorded one at a time, so the same aggregator
+ * tracks apply progress. Removals are not counted when deletes are disabled.
+ */
+public class PlanStatistics {
+
+    public enum Category {
+        TOPIC,
+        ACL,
+        QUOTA,
+        CONNECTOR,
+        CONSUMER_GROUP
+    }
+
+    private static final String DELIMITERS = ".-_";
+
+    private static final int ACTIONS = PlanAction.values().length;
+
+    private final boolean deleteDisabled;
+    private final long[][] counts = new long[Category.values().length][ACTIONS];
+    private final Map<String, long[]> byPrincipal = new HashMap<>();
+    private final Map<String, long[]> byResourceType = new HashMap<>();
+    private final Map<String, long[]> byTopicPrefix = new HashMap<>();
+
+    public PlanStatistics(boolean deleteDisabled) {
+        this.deleteDisabled = deleteDisabled;
+    }
+
+    public static PlanStatistics of(DesiredPlan desiredPlan, boolean deleteDisabled) {
+        PlanStatistics statistics = new PlanStatistics(deleteDisabled);
+        desiredPlan.getTopicPlans().forEach(statistics::recordTopic);
+        desiredPlan.getAclPlans().forEach(statistics::recordAcl);
+        desiredPlan.getQuotaPlans().forEach(statistics::recordQuota);
+        desiredPlan.getConnectorPlans().forEach(statistics::recordConnector);
+        desiredPlan.getConsumerGroupPlans().forEach(statistics::recordConsumerGroup);
+        return statistics;
+    }
+
+    /*
+     * A removal blocked by the deletion guard is not applied, so it is counted as unchanged.
+     */
+    public void recordTopic(TopicPlan topicPlan) {
+        PlanAction action = topicPlan.getDeletionBlocker().isPresent() ? PlanAction.NO_CHANGE : topicPlan.getAction();
+        if (record(Category.TOPIC, action)) {
+            increment(byTopicPrefix, getTopicPrefix(topicPlan.getName()), action);
+        }
+    }
+
+    public void recordAcl(AclPlan aclPlan) {
+        if (record(Category.ACL, aclPlan.getAction())) {
+            AclDetails aclDetails = aclPlan.getAclDetails();
+            increment(byPrincipal, aclDetails.getPrincipal(), aclPlan.getAction());
+            increment(byResourceType, aclDetails.getType(), aclPlan.getAction());
+            if (aclDetails.getType().equals("TOPIC")) {
+                increment(byTopicPrefix, getTopicPrefix(aclDetails.getName()), aclPlan.getAction());
+            }
+        }
+    }
+
+    public void recordQuota(QuotaPlan quotaPlan) {
+        record(Category.QUOTA, (deleteDisabled ? quotaPlan.withoutConfigRemovals() : quotaPlan).getAction());
+    }
+
+    public void recordConnector(ConnectorPlan connectorPlan) {
+        record(Category.CONNECTOR, connectorPlan.getAction());
+    }
+
+    public void recordConsumerGroup(ConsumerGroupPlan consumerGroupPlan) {
+        record(Category.CONSUMER_GROUP, consumerGroupPlan.getAction());
+    }
+
+    public PlanOverview getOverview() {
+        long[] total = new long[ACTIONS];
+        for (long[] categoryCounts : counts) {
+            for (int i = 0; i < ACTIONS; i++) {
+                total[i] += categoryCounts[i];
+            }
+        }
+        return toOverview(total);
+    }
+
+    public PlanOverview getOverview(Category category) {
+        return toOverview(counts[category.ordinal()]);
+    }
+
+    public long getChangeCount() {
+        PlanOverview overview = getOverview();
+        return overview.getAdd() + overview.getUpdate() + overview.getRemove();
+    }
+
+    public SortedMap<String, PlanOverview> getByPrincipal() {
+        return toOverviews(byPrincipal);
+    }
+
+    public SortedMap<String, PlanOverview> getByResourceType() {
+        return toOverviews(byResourceType);
+    }
+
+    public SortedMap<String, PlanOverview> getByTopicPrefix() {
+        return toOverviews(byTopicPrefix);
+    }
+
+    /*
+     * Returns true if the action is a counted change, i.e. breakdowns should be updated.
+     */
+    private boolean record(Category category, PlanAction action) {
+        if (deleteDisabled && action == PlanAction.REMOVE) {
+            return false;
+        }
+        counts[category.ordinal()][action.ordinal()]++;
+        return action != PlanAction.NO_CHANGE;
+    }
+
+    private static void increment(Map<String, long[]> breakdown, String key, PlanAction action) {
+        breakdown.computeIfAbsent(key, it -> new long[ACTIONS])[action.ordinal()]++;
+    }
+
+    private static String getTopicPrefix(String topicName) {
+        for (int i = 0; i < topicName.length(); i++) {
+            if (DELIMITERS.indexOf(topicName.charAt(i)) >= 0) {
+                return topicName.substring(0, i + 1);
+            }
+        }
+        return topicName;
+    }
+
+    private static SortedMap<String, PlanOverview> toOverviews(Map<String, long[]> breakdown) {
+        SortedMap<String, PlanOverview> overviews = new TreeMap<>();
+        breakdown.forEach((key, value) -> overviews.put(key, toOverview(value)));
+        return overviews;
+    }
+
+    private static PlanOverview toOverview(long[] actionCounts) {
+        return new PlanOverview.Builder()
+                .setAdd(actionCounts[PlanAction.ADD.ordinal()])
+                .setUpdate(actionCounts[PlanAction.UPDATE.ordinal()])
+                .setRemove(actionCounts[PlanAction.REMOVE.ordinal()])
+                .setNoChange(actionCounts[PlanAction.NO_CHANGE.ordinal()])
+                .build();
+    }
+}
@@ -0,0 +1,75 @@
+package com.devshawn.kafka.gitops.util;
+
+import com.devshawn.kafka.gitops.domain.cluster.BrokerLoad;
+import com.devshawn.kafka.gitops.exception.ValidationException;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/*
+ * Computes replica assignments for new topics that balance replicas and preferred leaders across brokers. Each
+ * partition's leader is the broker leading the fewest partitions; followers are taken from racks the partition does
+ * not use yet, then from the brokers holding the fewest replicas. Ties go to the lowest broker id, so the same cluster
+ * load always gives the same assignment. Assignments made by one planner count towards the load of later topics.
+ */
+public class ReplicaPlacementPlanner {
+
+    private final List<Broker> brokers;
+
+    public ReplicaPlacementPlanner(List<BrokerLoad> brokerLoads) {
+        this.brokers = brokerLoads.stream()
+                .map(Broker::new)
+                .sorted(Comparator.comparingInt(it -> it.id))
+                .collect(Collectors.toList());
+    }
+
+    public Map<Integer, List<Integer>> assign(String topicName, int partitions, int replication) {
+        if (replication > brokers.size()) {
+            throw new ValidationException(String.format("Topic %s has a replication factor of %s but only %s brokers are available for balanced placement.",
+                    topicName, replication, brokers.size()));
+        }
+
+        Map<Integer, List<Integer>> assignments = new LinkedHashMap<>();
+        for (int partition = 0; partition < partitions; partition++) {
+            List<Broker> replicas = new ArrayList<>();
+            Set<String> racks = new HashSet<>();
+            Broker leader = brokers.stream()
+                    .min(Comparator.<Broker>comparingInt(it -> it.leaders).thenComparingInt(it -> it.replicas))
+                    .get();
+            addReplica(leader, replicas, racks);
+            while (replicas.size() < replication) {
+                Broker follower = brokers.stream()
+                        .filter(it -> !replicas.contains(it))
+                        .min(Comparator.<Broker>comparingInt(it -> it.rack != null && racks.contains(it.rack) ? 1 : 0).thenComparingInt(it -> it.replicas))
+                        .get();
+                addReplica(follower, replicas, racks);
+            }
+            leader.leaders++;
+            assignments.put(partition, replicas.stream().map(it -> it.id).collect(Collectors.toList()));
+        }
+        return assignments;
+    }
+
+    private static void addReplica(Broker broker, List<Broker> replicas, Set<String> racks) {
+        broker.replicas++;
+        replicas.add(broker);
+        if (broker.rack != null) {
+            racks.add(broker.rack);
+        }
+    }
+
+    private static class Broker {
+
+        private final int id;
+        private final String rack;
+        private int replicas;
+        private int leaders;
+
+        private Broker(BrokerLoad brokerLoad) {
+            this.id = brokerLoad.getId();
+            this.rack = brokerLoad.getRack().orElse(null);
+            this.replicas = brokerLoad.getReplicas();
+            this.leaders = brokerLoad.getLeaders();
+        }
+    }
+}
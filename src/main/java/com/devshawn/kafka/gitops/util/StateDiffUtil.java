@@ -0,0 +1,96 @@
+package com.devshawn.kafka.gitops.util;
+
+import com.devshawn.kafka.gitops.domain.state.CustomAclDetails;
+import com.devshawn.kafka.gitops.domain.state.DesiredStateFile;
+import com.devshawn.kafka.gitops.domain.state.ServiceDetails;
+import com.devshawn.kafka.gitops.domain.state.StateDiff;
+import com.devshawn.kafka.gitops.domain.state.UserDetails;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/*
+ * Compares two parsed state files entry by entry. Topics, services and users that were added, changed or removed are
+ * collected so a plan can be scoped to them; custom ACLs count as part of the service or user they belong to.
+ * Services and users that were removed, or whose principal changed, are resolved to their previous principals so
+ * their ACLs are still planned for removal, as are explicit principals of changed custom ACLs. Settings and quota
+ * changes affect every resource, so they require a full plan, as does a removed service or user whose principal
+ * cannot be determined from the state file alone.
+ */
+public class StateDiffUtil {
+
+    public static StateDiff diff(DesiredStateFile base, DesiredStateFile head) {
+        StateDiff.Builder stateDiff = new StateDiff.Builder();
+        if (!Objects.equals(base.getSettings(), head.getSettings()) || !Objects.equals(base.getQuotas(), head.getQuotas())) {
+            return stateDiff.setFullPlanRequired(true).build();
+        }
+
+        stateDiff.addAllTopics(getChangedKeys(base.getTopics(), head.getTopics()));
+
+        Set<String> services = getChangedKeys(base.getServices(), head.getServices());
+        services.addAll(getChangedKeys(base.getCustomServiceAcls(), head.getCustomServiceAcls()));
+        addCustomAclPrincipals(stateDiff, base.getCustomServiceAcls(), services);
+        for (String name : services) {
+            if (!addPrincipalChange(stateDiff, base.getServices().get(name), head.getServices().get(name), ServiceDetails::getPrincipal)) {
+                return stateDiff.setFullPlanRequired(true).build();
+            }
+            if (head.getServices().containsKey(name)) {
+                stateDiff.addServices(name);
+            }
+        }
+
+        Set<String> users = getChangedKeys(base.getUsers(), head.getUsers());
+        users.addAll(getChangedKeys(base.getCustomUserAcls(), head.getCustomUserAcls()));
+        addCustomAclPrincipals(stateDiff, base.getCustomUserAcls(), users);
+        for (String name : users) {
+            if (!addPrincipalChange(stateDiff, base.getUsers().get(name), head.getUsers().get(name), UserDetails::getPrincipal)) {
+                return stateDiff.setFullPlanRequired(true).build();
+            }
+            if (head.getUsers().containsKey(name)) {
+                stateDiff.addUsers(name);
+            }
+        }
+
+        return stateDiff.build();
+    }
+
+    private static void addCustomAclPrincipals(StateDiff.Builder stateDiff, Map<String, Map<String, CustomAclDetails>> customAcls, Set<String> names) {
+        names.stream()
+                .filter(customAcls::containsKey)
+                .flatMap(name -> customAcls.get(name).values().stream())
+                .forEach(acl -> acl.getPrincipal().ifPresent(stateDiff::addPrincipals));
+    }
+
+    /*
+     * Returns false if the previous principal is needed but cannot be determined.
+     */
+    private static <T> boolean addPrincipalChange(StateDiff.Builder stateDiff, T previous, T current, Function<T, Optional<String>> getPrincipal) {
+        if (previous == null) {
+            return true;
+        }
+        Optional<String> previousPrincipal = getPrincipal.apply(previous);
+        if (current == null) {
+            previousPrincipal.ifPresent(stateDiff::addPrincipals);
+            return previousPrincipal.isPresent();
+        }
+        if (previousPrincipal.isPresent() && !previousPrincipal.equals(getPrincipal.apply(current))) {
+            stateDiff.addPrincipals(previousPrincipal.get());
+        }
+        return true;
+    }
+
+    private static <V> Set<String> getChangedKeys(Map<String, V> base, Map<String, V> head) {
+        Set<String> changed = new HashSet<>();
+        base.forEach((key, value) -> {
+            if (!value.equals(head.get(key))) {
+                changed.add(key);
+            }
+        });
+        head.keySet().stream().filter(key -> !base.containsKey(key)).forEach(changed::add);
+        return changed;
+    }
+}
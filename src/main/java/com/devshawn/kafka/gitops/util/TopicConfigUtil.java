@@ -0,0 +1,82 @@
+package com.devshawn.kafka.gitops.util;
+
+import org.apache.kafka.common.config.ConfigDef;
+import org.apache.kafka.common.config.ConfigException;
+import org.apache.kafka.common.config.TopicConfig;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+public class TopicConfigUtil {
+
+    /*
+     * Types of the topic-level configs as defined by the broker's LogConfig. LogConfig lives in the broker, not in
+     * kafka-clients, so the definitions are mirrored here; keys not listed are compared as trimmed strings.
+     */
+    private static final Map<String, ConfigDef.Type> CONFIG_TYPES = new HashMap<>();
+
+    private static final Map<String, Function<String, Object>> NORMALIZERS = new ConcurrentHashMap<>();
+
+    static {
+        CONFIG_TYPES.put(TopicConfig.SEGMENT_BYTES_CONFIG, ConfigDef.Type.INT);
+        CONFIG_TYPES.put(TopicConfig.SEGMENT_MS_CONFIG, ConfigDef.Type.LONG);
+        CONFIG_TYPES.put(TopicConfig.SEGMENT_JITTER_MS_CONFIG, ConfigDef.Type.LONG);
+        CONFIG_TYPES.put(TopicConfig.SEGMENT_INDEX_BYTES_CONFIG, ConfigDef.Type.INT);
+        CONFIG_TYPES.put(TopicConfig.FLUSH_MESSAGES_INTERVAL_CONFIG, ConfigDef.Type.LONG);
+        CONFIG_TYPES.put(TopicConfig.FLUSH_MS_CONFIG, ConfigDef.Type.LONG);
+        CONFIG_TYPES.put(TopicConfig.RETENTION_BYTES_CONFIG, ConfigDef.Type.LONG);
+        CONFIG_TYPES.put(TopicConfig.RETENTION_MS_CONFIG, ConfigDef.Type.LONG);
+        CONFIG_TYPES.put(TopicConfig.MAX_MESSAGE_BYTES_CONFIG, ConfigDef.Type.INT);
+        CONFIG_TYPES.put(TopicConfig.INDEX_INTERVAL_BYTES_CONFIG, ConfigDef.Type.INT);
+        CONFIG_TYPES.put(TopicConfig.DELETE_RETENTION_MS_CONFIG, ConfigDef.Type.LONG);
+        CONFIG_TYPES.put(TopicConfig.MIN_COMPACTION_LAG_MS_CONFIG, ConfigDef.Type.LONG);
+        CONFIG_TYPES.put(TopicConfig.MAX_COMPACTION_LAG_MS_CONFIG, ConfigDef.Type.LONG);
+        CONFIG_TYPES.put(TopicConfig.FILE_DELETE_DELAY_MS_CONFIG, ConfigDef.Type.LONG);
+        CONFIG_TYPES.put(TopicConfig.MIN_CLEANABLE_DIRTY_RATIO_CONFIG, ConfigDef.Type.DOUBLE);
+        CONFIG_TYPES.put(TopicConfig.CLEANUP_POLICY_CONFIG, ConfigDef.Type.LIST);
+        CONFIG_TYPES.put(TopicConfig.UNCLEAN_LEADER_ELECTION_ENABLE_CONFIG, ConfigDef.Type.BOOLEAN);
+        CONFIG_TYPES.put(TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG, ConfigDef.Type.INT);
+        CONFIG_TYPES.put(TopicConfig.PREALLOCATE_CONFIG, ConfigDef.Type.BOOLEAN);
+        CONFIG_TYPES.put(TopicConfig.MESSAGE_TIMESTAMP_DIFFERENCE_MAX_MS_CONFIG, ConfigDef.Type.LONG);
+        CONFIG_TYPES.put(TopicConfig.MESSAGE_DOWNCONVERSION_ENABLE_CONFIG, ConfigDef.Type.BOOLEAN);
+        CONFIG_TYPES.put("leader.replication.throttled.replicas", ConfigDef.Type.LIST);
+        CONFIG_TYPES.put("follower.replication.throttled.replicas", ConfigDef.Type.LIST);
+    }
+
+    /*
+     * Compares two values of a topic config by what they mean rather than how they are written, e.g. "1" and "1.0"
+     * for a double, "compact,delete" and "delete, compact" for a list. Values that do not parse as the config's type
+     * fall back to a trimmed string comparison so the broker still gets to reject them.
+     */
+    public static boolean isEquivalent(String key, String currentValue, String newValue) {
+        if (currentValue == null || newValue == null) {
+            return currentValue == null && newValue == null;
+        }
+        if (currentValue.equals(newValue)) {
+            return true;
+        }
+        Function<String, Object> normalizer = NORMALIZERS.computeIfAbsent(key, TopicConfigUtil::buildNormalizer);
+        return normalizer.apply(currentValue).equals(normalizer.apply(newValue));
+    }
+
+    private static Function<String, Object> buildNormalizer(String key) {
+        ConfigDef.Type type = CONFIG_TYPES.get(key);
+        if (type == null) {
+            return String::trim;
+        }
+        return value -> {
+            try {
+                Object parsed = ConfigDef.parseType(key, value, type);
+                if (type == ConfigDef.Type.LIST) {
+                    return new TreeSet<Object>((List<?>) parsed);
+                } else if (type == ConfigDef.Type.INT) {
+                    return ((Integer) parsed).longValue();
+                }
+                return parsed;
+            } catch (ConfigException ex) {
+                return value.trim();
+            }
+        };
+    }
+}
@@ -0,0 +1,97 @@
+package com.devshawn.kafka.gitops
+
+import com.devshawn.kafka.gitops.config.KafkaClustersConfig
+import com.devshawn.kafka.gitops.config.ManagerConfig
+import com.devshawn.kafka.gitops.domain.plan.ClusterResult
+import com.devshawn.kafka.gitops.domain.plan.DesiredPlan
+import com.devshawn.kafka.gitops.domain.state.AclDetails
+import com.devshawn.kafka.gitops.domain.state.DesiredState
+import com.devshawn.kafka.gitops.domain.state.DesiredStateFile
+import com.devshawn.kafka.gitops.domain.state.service.ApplicationService
+import com.devshawn.kafka.gitops.service.ParserService
+import spock.lang.Specification
+
+import java.util.concurrent.ConcurrentHashMap
+
+class StateManagerSpec extends Specification {
+
+    void 'test runs the task once per cluster with its own config and plan file'() {
+        setup:
+        ManagerConfig managerConfig = new ManagerConfig.Builder()
+                .setVerboseRequested(false)
+                .setDeleteDisabled(false)
+                .setIncludeUnchangedEnabled(false)
+                .setStateFile(new File("state.yaml"))
+                .setPlanFile(new File("plan.json"))
+                .build()
+        StateManager stateManager = new StateManager(managerConfig, new ParserService(new File("state.yaml")))
+        KafkaClustersConfig clustersConfig = new KafkaClustersConfig.Builder()
+                .setParallelism(2)
+                .putClusters("us-east", ["bootstrap.servers": "kafka-us-east:9092"])
+                .putClusters("eu-west", ["bootstrap.servers": "kafka-eu-west:9092"])
+                .putClusters("ap-south", ["bootstrap.servers": "kafka-ap-south:9092"])
+                .build()
+        Map<String, ManagerConfig> clusterConfigs = new ConcurrentHashMap<>()
+
+        when:
+        List<ClusterResult> results = stateManager.runForClusters(clustersConfig, { clusterConfig, kafkaService ->
+            clusterConfigs.put(clusterConfig.clusterName.get(), clusterConfig)
+            if (clusterConfig.clusterName.get() == "eu-west") {
+                throw new IllegalStateException("cluster unavailable")
+            }
+            return new DesiredPlan.Builder().build()
+        })
+
+        then:
+        results*.name == ["us-east", "eu-west", "ap-south"]
+        results.find { it.name == "eu-west" }.error.get() == "cluster unavailable"
+        !results.find { it.name == "us-east" }.error.isPresent()
+        results.find { it.name == "us-east" }.desiredPlan.isPresent()
+        clusterConfigs.keySet() == ["us-east", "eu-west", "ap-south"] as Set
+        clusterConfigs["us-east"].planFile.get().name == "plan.us-east.json"
+        clusterConfigs["ap-south"].planFile.get().name == "plan.ap-south.json"
+    }
+
+    void 'test scoped principals are found through the owner of each generated ACL'() {
+        setup:
+        ManagerConfig managerConfig = new ManagerConfig.Builder()
+                .setVerboseRequested(false)
+                .setDeleteDisabled(false)
+                .setIncludeUnchangedEnabled(false)
+                .setStateFile(new File("state.yaml"))
+                .addScopedServices("orders")
+                .addScopedPrincipals("User:audit")
+                .build()
+        StateManager stateManager = new StateManager(managerConfig, new ParserService(new File("state.yaml")))
+        DesiredStateFile desiredStateFile = new DesiredStateFile.Builder()
+                .putServices("orders", new ApplicationService.Builder().build())
+                .putServices("orders-app", new ApplicationService.Builder().build())
+                .build()
+        DesiredState generatedState = new DesiredState.Builder()
+                .putAcls("orders-0", acl("User:orders"))
+                .putAclOwners("orders-0", "orders")
+                .putAcls("orders-app-0", acl("User:orders-app"))
+                .putAclOwners("orders-app-0", "orders-app")
+                .putAcls("orders-app-1", acl("User:orders-shared"))
+                .putAclOwners("orders-app-1", "orders")
+                .build()
+
+        when:
+        Set<String> principals = stateManager.getScopedPrincipals(generatedState, desiredStateFile)
+
+        then:
+        principals == ["User:orders", "User:orders-shared", "User:audit"] as Set
+    }
+
+    private static AclDetails acl(String principal) {
+        return new AclDetails.Builder()
+                .setName("orders")
+                .setType("TOPIC")
+                .setPattern("LITERAL")
+                .setHost("*")
+                .setOperation("READ")
+                .setPermission("ALLOW")
+                .setPrincipal(principal)
+                .build()
+    }
+}
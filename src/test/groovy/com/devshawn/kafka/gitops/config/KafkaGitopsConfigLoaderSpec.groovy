@@ -0,0 +1,54 @@
+package com.devshawn.kafka.gitops.config
+
+import com.devshawn.kafka.gitops.exception.MissingConfigurationException
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class KafkaGitopsConfigLoaderSpec extends Specification {
+
+    @Unroll
+    void 'test resolveEnvironmentVariables - #value'() {
+        expect:
+        KafkaGitopsConfigLoader.resolveEnvironmentVariables(value, ["USERNAME": "alice", "HOST": "kafka-1"]) == result
+
+        where:
+        value                          | result
+        'plain-value'                  | 'plain-value'
+        '${USERNAME}'                  | 'alice'
+        '${HOST}:9092,${HOST}:9093'    | 'kafka-1:9092,kafka-1:9093'
+        '${USERNAME:-bob}'             | 'alice'
+        '${PASSWORD:-secret}'          | 'secret'
+        '${PASSWORD:-}'                | ''
+        '${PORT:-9092} on ${HOST}'     | '9092 on kafka-1'
+    }
+
+    void 'test unset environment variable without default'() {
+        when:
+        KafkaGitopsConfigLoader.resolveEnvironmentVariables('${PASSWORD}', ["USERNAME": "alice"])
+
+        then:
+        thrown(MissingConfigurationException)
+    }
+
+    @Unroll
+    void 'test invalid cluster entry - #missing'() {
+        setup:
+        KafkaClustersConfig clustersConfig = new KafkaClustersConfig.Builder()
+                .putClusters("us-east", ["bootstrap.servers": "kafka-us-east:9092"])
+                .putClusters("eu-west", properties)
+                .build()
+
+        when:
+        KafkaGitopsConfigLoader.loadClusters(clustersConfig)
+
+        then:
+        MissingConfigurationException ex = thrown(MissingConfigurationException)
+        ex.message == "Missing required configuration: ${missing} for cluster eu-west"
+
+        where:
+        properties                                                                                                   | missing
+        ["sasl.mechanism": "PLAIN"]                                                                                  | "bootstrap.servers"
+        ["bootstrap.servers": "kafka-eu-west:9092", "sasl.jaas.username": "alice", "sasl.jaas.password": "secret"] | "sasl.mechanism"
+        ["bootstrap.servers": "kafka-eu-west:9092", "sasl.mechanism": "PLAIN", "sasl.jaas.username": "alice"]      | "sasl.jaas.password"
+    }
+}
@@ -0,0 +1,63 @@
+package com.devshawn.kafka.gitops.domain.state
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class AclTemplateSpec extends Specification {
+
+    void 'test shorthand templates match their definitions'() {
+        expect:
+        AclTemplate.literalTopic("READ").bind("topic", Optional.of("User:test")).build() == AclTemplate.of("TOPIC", "LITERAL", "READ").bind("topic", Optional.of("User:test")).build()
+        AclTemplate.prefixedTopic("READ").bind("topic", Optional.of("User:test")).build() != AclTemplate.literalTopic("READ").bind("topic", Optional.of("User:test")).build()
+    }
+
+    void 'test templates are shared per type, pattern and operation'() {
+        expect:
+        AclTemplate.prefixedTopic("READ").is(AclTemplate.prefixedTopic("READ"))
+        AclTemplate.group("DESCRIBE").is(AclTemplate.group("DESCRIBE"))
+        AclTemplate.cluster("IDEMPOTENT_WRITE").is(AclTemplate.cluster("IDEMPOTENT_WRITE"))
+        !AclTemplate.literalTopic("READ").is(AclTemplate.prefixedTopic("READ"))
+        AclTemplate.group("UNKNOWN_OPERATION").operation == "UNKNOWN_OPERATION"
+    }
+
+    @Unroll
+    void 'test bind - #type #pattern #operation'() {
+        when:
+        AclDetails result = AclTemplate.of(type, pattern, operation).bind("resource", Optional.of("User:test")).build()
+
+        then:
+        result.name == "resource"
+        result.type == type
+        result.pattern == pattern
+        result.operation == operation
+        result.principal == "User:test"
+        result.host == "*"
+        result.permission == "ALLOW"
+
+        where:
+        type    | pattern    | operation
+        "TOPIC" | "LITERAL"  | "READ"
+        "TOPIC" | "PREFIXED" | "ALTER_CONFIGS"
+        "GROUP" | "LITERAL"  | "DESCRIBE"
+    }
+
+    void 'test bind with fixed resource name'() {
+        when:
+        AclDetails cluster = AclTemplate.cluster("DESCRIBE_CONFIGS").bind(Optional.of("User:test")).build()
+        AclDetails wildcard = AclTemplate.group("READ").withName("*").bind(Optional.of("User:test")).build()
+
+        then:
+        cluster.name == "kafka-cluster"
+        cluster.type == "CLUSTER"
+        wildcard.name == "*"
+        wildcard.type == "GROUP"
+    }
+
+    void 'test bind without fixed resource name'() {
+        when:
+        AclTemplate.literalTopic("READ").bind(Optional.of("User:test"))
+
+        then:
+        thrown(IllegalStateException)
+    }
+}
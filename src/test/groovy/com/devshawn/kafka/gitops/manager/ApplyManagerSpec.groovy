@@ -0,0 +1,232 @@
+package com.devshawn.kafka.gitops.manager
+
+import com.devshawn.kafka.gitops.config.ManagerConfig
+import com.devshawn.kafka.gitops.domain.cluster.ClusterHealth
+import com.devshawn.kafka.gitops.domain.cluster.HealthGate
+import com.devshawn.kafka.gitops.domain.plan.ConsumerGroupPlan
+import com.devshawn.kafka.gitops.domain.plan.DesiredPlan
+import com.devshawn.kafka.gitops.domain.plan.QuotaConfigPlan
+import com.devshawn.kafka.gitops.domain.plan.QuotaPlan
+import com.devshawn.kafka.gitops.domain.plan.TopicPlan
+import com.devshawn.kafka.gitops.enums.PlanAction
+import com.devshawn.kafka.gitops.exception.ClusterUnhealthyException
+import com.devshawn.kafka.gitops.exception.KafkaExecutionException
+import com.devshawn.kafka.gitops.exception.TopicConvergenceTimeoutException
+import com.devshawn.kafka.gitops.service.KafkaService
+import org.apache.kafka.common.quota.ClientQuotaAlteration
+import org.apache.kafka.common.quota.ClientQuotaEntity
+import spock.lang.Specification
+
+class ApplyManagerSpec extends Specification {
+
+    DesiredPlan desiredPlan = new DesiredPlan.Builder()
+            .addTopicPlans(new TopicPlan.Builder().setName("new-topic-0").setAction(PlanAction.ADD).build())
+            .addTopicPlans(new TopicPlan.Builder().setName("new-topic-1").setAction(PlanAction.ADD).build())
+            .addTopicPlans(new TopicPlan.Builder().setName("updated-topic").setAction(PlanAction.UPDATE).build())
+            .build()
+
+    void 'test only topics that have not converged are described again'() {
+        setup:
+        KafkaService kafkaService = Mock(KafkaService, constructorArgs: [null])
+        ApplyManager applyManager = new ApplyManager(managerConfig(30), kafkaService)
+
+        when:
+        applyManager.awaitTopicConvergence(desiredPlan)
+
+        then:
+        1 * kafkaService.getUnconvergedTopics(["new-topic-0", "new-topic-1"]) >> ["new-topic-1": "not visible yet"]
+        1 * kafkaService.getUnconvergedTopics(["new-topic-1"] as Set) >> [:]
+        0 * kafkaService._
+    }
+
+    void 'test topics that do not converge before the deadline fail the apply'() {
+        setup:
+        KafkaService kafkaService = Mock(KafkaService, constructorArgs: [null])
+        ApplyManager applyManager = new ApplyManager(managerConfig(0), kafkaService)
+
+        when:
+        applyManager.awaitTopicConvergence(desiredPlan)
+
+        then:
+        1 * kafkaService.getUnconvergedTopics(["new-topic-0", "new-topic-1"]) >> ["new-topic-0": "partition 2 has 1 of 3 replicas in sync"]
+        TopicConvergenceTimeoutException ex = thrown(TopicConvergenceTimeoutException)
+        ex.message == "New topics did not converge: new-topic-0: partition 2 has 1 of 3 replicas in sync"
+    }
+
+    void 'test nothing is described without a convergence timeout'() {
+        setup:
+        KafkaService kafkaService = Mock(KafkaService, constructorArgs: [null])
+        ApplyManager applyManager = new ApplyManager(managerConfig(null), kafkaService)
+
+        when:
+        applyManager.awaitTopicConvergence(desiredPlan)
+
+        then:
+        0 * kafkaService._
+    }
+
+    void 'test topics are deleted in waves until a wave fails'() {
+        setup:
+        KafkaService kafkaService = Mock(KafkaService, constructorArgs: [null])
+        ManagerConfig managerConfig = new ManagerConfig.Builder()
+                .mergeFrom(managerConfig(null))
+                .setTopicDeletionWaveSize(2)
+                .build()
+        ApplyManager applyManager = new ApplyManager(managerConfig, kafkaService)
+        DesiredPlan deletionPlan = new DesiredPlan.Builder()
+                .addTopicPlans(new TopicPlan.Builder().setName("old-topic-0").setAction(PlanAction.REMOVE).build())
+                .addTopicPlans(new TopicPlan.Builder().setName("full-topic").setAction(PlanAction.REMOVE).setDeletionBlocker("holds 1200 records").build())
+                .addTopicPlans(new TopicPlan.Builder().setName("old-topic-1").setAction(PlanAction.REMOVE).build())
+                .addTopicPlans(new TopicPlan.Builder().setName("old-topic-2").setAction(PlanAction.REMOVE).build())
+                .addTopicPlans(new TopicPlan.Builder().setName("old-topic-3").setAction(PlanAction.REMOVE).build())
+                .addTopicPlans(new TopicPlan.Builder().setName("old-topic-4").setAction(PlanAction.REMOVE).build())
+                .build()
+
+        when:
+        applyManager.applyTopics(deletionPlan)
+
+        then:
+        1 * kafkaService.deleteTopics(["old-topic-0", "old-topic-1"]) >> [:]
+        1 * kafkaService.deleteTopics(["old-topic-2", "old-topic-3"]) >> ["old-topic-3": "broker unavailable"]
+        0 * kafkaService._
+        KafkaExecutionException ex = thrown(KafkaExecutionException)
+        ex.exceptionMessage == "old-topic-3: broker unavailable"
+        applyManager.applied*.name == ["old-topic-0", "old-topic-1", "old-topic-2"]
+    }
+
+    void 'test consumer groups are deleted in one request'() {
+        setup:
+        KafkaService kafkaService = Mock(KafkaService, constructorArgs: [null])
+        ApplyManager applyManager = new ApplyManager(managerConfig(null), kafkaService)
+        DesiredPlan consumerGroupPlan = new DesiredPlan.Builder()
+                .addConsumerGroupPlans(new ConsumerGroupPlan.Builder().setName("orphaned-group").setAction(PlanAction.REMOVE).build())
+                .addConsumerGroupPlans(new ConsumerGroupPlan.Builder().setName("rejoined-group").setAction(PlanAction.REMOVE).build())
+                .build()
+
+        when:
+        applyManager.applyConsumerGroups(consumerGroupPlan)
+
+        then:
+        1 * kafkaService.deleteConsumerGroups(["orphaned-group", "rejoined-group"]) >> ["rejoined-group": "The group is not empty."]
+        0 * kafkaService._
+        KafkaExecutionException ex = thrown(KafkaExecutionException)
+        ex.exceptionMessage == "rejoined-group: The group is not empty."
+        applyManager.applied*.name == ["orphaned-group"]
+    }
+
+    void 'test apply is refused when the cluster has too many unhealthy partitions'() {
+        setup:
+        KafkaService kafkaService = Mock(KafkaService, constructorArgs: [null])
+        File metricsFile = File.createTempFile("health", ".prom")
+        ApplyManager applyManager = new ApplyManager(healthGateConfig(metricsFile), kafkaService)
+
+        when:
+        applyManager.checkClusterHealth()
+
+        then:
+        1 * kafkaService.getClusterHealth() >> health(2, 4, 10)
+        ClusterUnhealthyException ex = thrown(ClusterUnhealthyException)
+        ex.message == "The cluster is not healthy enough to apply changes: 2 offline partitions (at most 0 allowed), 4 under-replicated partitions (at most 1 allowed)"
+        metricsFile.text.contains('kafka_gitops_cluster_offline_partitions{cluster="test"} 2\n')
+        metricsFile.text.contains('kafka_gitops_cluster_under_replicated_partitions{cluster="test"} 4\n')
+
+        cleanup:
+        metricsFile.delete()
+    }
+
+    void 'test apply is throttled when the controller responds slowly'() {
+        setup:
+        KafkaService kafkaService = Mock(KafkaService, constructorArgs: [null])
+        ApplyManager applyManager = new ApplyManager(healthGateConfig(null), kafkaService)
+        DesiredPlan quotaPlan = new DesiredPlan.Builder()
+                .addQuotaPlans(quotaPlan("user-a", quotaConfigPlan("producer_byte_rate", 2048d, PlanAction.UPDATE)))
+                .build()
+
+        when:
+        applyManager.checkClusterHealth()
+        long start = System.currentTimeMillis()
+        applyManager.applyQuotas(quotaPlan)
+
+        then:
+        1 * kafkaService.getClusterHealth() >> health(0, 1, 750)
+        1 * kafkaService.alterClientQuotas(_)
+        System.currentTimeMillis() - start >= 750
+    }
+
+    void 'test quota config removals are skipped when deletes are disabled'() {
+        setup:
+        KafkaService kafkaService = Mock(KafkaService, constructorArgs: [null])
+        ManagerConfig managerConfig = new ManagerConfig.Builder()
+                .mergeFrom(managerConfig(null))
+                .setDeleteDisabled(true)
+                .build()
+        ApplyManager applyManager = new ApplyManager(managerConfig, kafkaService)
+        DesiredPlan quotaPlan = new DesiredPlan.Builder()
+                .addQuotaPlans(quotaPlan("user-a", quotaConfigPlan("producer_byte_rate", 2048d, PlanAction.UPDATE), quotaConfigPlan("consumer_byte_rate", null, PlanAction.REMOVE)))
+                .addQuotaPlans(quotaPlan("user-b", quotaConfigPlan("producer_byte_rate", null, PlanAction.REMOVE)))
+                .build()
+        List<ClientQuotaAlteration> alterations = null
+
+        when:
+        applyManager.applyQuotas(quotaPlan)
+
+        then:
+        1 * kafkaService.alterClientQuotas(_) >> { arguments -> alterations = arguments[0] }
+        alterations.size() == 1
+        alterations[0].entity().entries() == [(ClientQuotaEntity.USER): "user-a"]
+        alterations[0].ops()*.key() == ["producer_byte_rate"]
+        alterations[0].ops()*.value() == [2048d]
+    }
+
+    private static QuotaPlan quotaPlan(String user, QuotaConfigPlan... quotaConfigPlans) {
+        return new QuotaPlan.Builder()
+                .setName(user)
+                .setUser(user)
+                .setAction(PlanAction.UPDATE)
+                .addQuotaConfigPlans(quotaConfigPlans)
+                .build()
+    }
+
+    private static QuotaConfigPlan quotaConfigPlan(String key, Double value, PlanAction action) {
+        return new QuotaConfigPlan.Builder()
+                .setKey(key)
+                .setNullableValue(value)
+                .setAction(action)
+                .build()
+    }
+
+    private static ClusterHealth health(int offline, int underReplicated, long controllerResponseMs) {
+        return new ClusterHealth.Builder()
+                .setBrokers(3)
+                .setPartitions(120)
+                .setOfflinePartitions(offline)
+                .setUnderReplicatedPartitions(underReplicated)
+                .setReassigningPartitions(0)
+                .setControllerResponseMs(controllerResponseMs)
+                .build()
+    }
+
+    private static ManagerConfig healthGateConfig(File metricsFile) {
+        HealthGate healthGate = new HealthGate.Builder()
+                .setMaxOfflinePartitions(0)
+                .setMaxUnderReplicatedPartitions(1)
+                .setMaxControllerResponseMs(500)
+                .build()
+        return new ManagerConfig.Builder()
+                .mergeFrom(managerConfig(null))
+                .setHealthGate(healthGate)
+                .setNullableHealthMetricsFile(metricsFile)
+                .build()
+    }
+
+    private static ManagerConfig managerConfig(Long timeoutSeconds) {
+        return new ManagerConfig.Builder()
+                .setVerboseRequested(false)
+                .setDeleteDisabled(false)
+                .setIncludeUnchangedEnabled(false)
+                .setStateFile(new File("state.yaml"))
+                .setClusterName("test")
+                .setNullableTopicConvergenceTimeoutSeconds(timeoutSeconds)
+                .build()
+    }
+}
@@ -0,0 +1,113 @@
+package com.devshawn.kafka.gitops.manager
+
+import com.devshawn.kafka.gitops.config.ManagerConfig
+import com.devshawn.kafka.gitops.domain.plan.ConnectorPlan
+import com.devshawn.kafka.gitops.domain.plan.DesiredPlan
+import com.devshawn.kafka.gitops.domain.state.DesiredConnector
+import com.devshawn.kafka.gitops.domain.state.DesiredState
+import com.devshawn.kafka.gitops.enums.PlanAction
+import com.devshawn.kafka.gitops.service.KafkaConnectRestService
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.sun.net.httpserver.HttpServer
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+import java.util.concurrent.CopyOnWriteArrayList
+
+class ConnectorManagerSpec extends Specification {
+
+    HttpServer server
+    List<String> requests = new CopyOnWriteArrayList<>()
+
+    void setup() {
+        String connectors = '''{
+            "unchanged": {"info": {"config": {"name": "unchanged", "tasks.max": "1"}}, "status": {"connector": {"state": "RUNNING"}}},
+            "changed": {"info": {"config": {"name": "changed", "tasks.max": "1", "old.key": "x"}}, "status": {"connector": {"state": "RUNNING"}}},
+            "unmanaged": {"info": {"config": {"name": "unmanaged"}}, "status": {"connector": {"state": "RUNNING"}}},
+            "orphan": {"info": {"config": {"name": "orphan"}}, "status": {"connector": {"state": "FAILED"}}}
+        }'''
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0)
+        server.createContext("/connectors") { exchange ->
+            requests.add("${exchange.requestMethod} ${exchange.requestURI.path}".toString())
+            byte[] body = exchange.requestMethod == "GET" ? connectors.getBytes(StandardCharsets.UTF_8) : "{}".getBytes(StandardCharsets.UTF_8)
+            exchange.sendResponseHeaders(200, body.length)
+            exchange.responseBody.write(body)
+            exchange.close()
+        }
+        server.start()
+    }
+
+    void cleanup() {
+        server.stop(0)
+    }
+
+    void 'test plan and apply connectors'() {
+        setup:
+        String url = "http://localhost:${server.address.port}".toString()
+        DesiredState desiredState = new DesiredState.Builder()
+                .addConnectors(connector("unchanged", url, ["tasks.max": "1"]))
+                .addConnectors(connector("changed", url, ["tasks.max": "2"]))
+                .addConnectors(connector("unmanaged", url, [:]))
+                .addConnectors(connector("created", url, ["tasks.max": "1"]))
+                .build()
+        ConnectorManager connectorManager = new ConnectorManager(managerConfig(true), new KafkaConnectRestService(new ObjectMapper(), 2), 2)
+        DesiredPlan.Builder builder = new DesiredPlan.Builder()
+
+        when:
+        connectorManager.planConnectors(desiredState, builder)
+        DesiredPlan result = builder.build()
+        Map<String, ConnectorPlan> plans = result.connectorPlans.collectEntries { [(it.name): it] }
+
+        then:
+        requests == ["GET /connectors"]
+        plans.keySet() == ["unchanged", "changed", "created", "orphan"] as Set
+        plans["unchanged"].action == PlanAction.NO_CHANGE
+        plans["changed"].action == PlanAction.UPDATE
+        plans["changed"].connectorConfigPlans.collectEntries { [(it.key): it.action] } == ["tasks.max": PlanAction.UPDATE, "old.key": PlanAction.REMOVE]
+        plans["created"].action == PlanAction.ADD
+        plans["orphan"].action == PlanAction.REMOVE
+
+        when:
+        requests.clear()
+        connectorManager.applyConnectors(result)
+
+        then:
+        requests as Set == ["PUT /connectors/changed/config", "PUT /connectors/created/config", "DELETE /connectors/orphan"] as Set
+    }
+
+    void 'test connectors not in the state file are kept unless deletion is enabled'() {
+        setup:
+        String url = "http://localhost:${server.address.port}".toString()
+        DesiredState desiredState = new DesiredState.Builder()
+                .addConnectors(connector("unchanged", url, ["tasks.max": "1"]))
+                .build()
+        ConnectorManager connectorManager = new ConnectorManager(managerConfig(false), new KafkaConnectRestService(new ObjectMapper(), 2), 2)
+        DesiredPlan.Builder builder = new DesiredPlan.Builder()
+
+        when:
+        connectorManager.planConnectors(desiredState, builder)
+
+        then:
+        builder.build().connectorPlans*.name == ["unchanged"]
+    }
+
+    private static DesiredConnector connector(String name, String url, Map<String, String> config) {
+        return new DesiredConnector.Builder()
+                .setName(name)
+                .setService("my-connect-cluster")
+                .setConnectUrl(url)
+                .putAllConfig(config)
+                .build()
+    }
+
+    private static ManagerConfig managerConfig(boolean connectorDeletion) {
+        return new ManagerConfig.Builder()
+                .setVerboseRequested(false)
+                .setDeleteDisabled(false)
+                .setIncludeUnchangedEnabled(false)
+                .setStateFile(new File("state.yaml"))
+                .setClusterName("test")
+                .setConnectorDeletionEnabled(connectorDeletion)
+                .build()
+    }
+}
@@ -0,0 +1,87 @@
+package com.devshawn.kafka.gitops.manager
+
+import com.devshawn.kafka.gitops.StateManager
+import com.devshawn.kafka.gitops.config.ManagerConfig
+import com.devshawn.kafka.gitops.domain.state.DesiredStateFile
+import com.devshawn.kafka.gitops.service.KafkaService
+import com.devshawn.kafka.gitops.service.ParserService
+import org.apache.kafka.clients.admin.Config
+import org.apache.kafka.clients.admin.ConfigEntry
+import org.apache.kafka.clients.admin.TopicDescription
+import org.apache.kafka.clients.admin.TopicListing
+import org.apache.kafka.common.Node
+import org.apache.kafka.common.TopicPartitionInfo
+import org.apache.kafka.common.acl.AccessControlEntry
+import org.apache.kafka.common.acl.AclBinding
+import org.apache.kafka.common.acl.AclOperation
+import org.apache.kafka.common.acl.AclPermissionType
+import org.apache.kafka.common.config.ConfigResource
+import org.apache.kafka.common.resource.PatternType
+import org.apache.kafka.common.resource.ResourcePattern
+import org.apache.kafka.common.resource.ResourceType
+import spock.lang.Specification
+
+class ExportManagerSpec extends Specification {
+
+    void 'test exported state can be parsed as a desired state file'() {
+        setup:
+        KafkaService kafkaService = Stub(KafkaService, constructorArgs: [null])
+        kafkaService.getTopics() >> [new TopicListing("orders", false), new TopicListing("payments", false)]
+        kafkaService.describeTopicsInBatches(_, _, _) >> { List<String> topicNames, int batchSize, consumer ->
+            consumer.accept(topicNames.collectEntries { [(it): describeTopic(it)] }, [
+                    (new ConfigResource(ConfigResource.Type.TOPIC, "orders")): new Config([
+                            new ConfigEntry("retention.ms", "3600000", ConfigEntry.ConfigSource.DYNAMIC_TOPIC_CONFIG, false, false, []),
+                            new ConfigEntry("cleanup.policy", "delete", ConfigEntry.ConfigSource.DEFAULT_CONFIG, false, false, [])
+                    ])
+            ])
+        }
+        kafkaService.getAcls() >> [
+                acl("User:orders-service", ResourceType.TOPIC, "orders", AclOperation.WRITE),
+                acl("User:orders-service", ResourceType.GROUP, "orders-", AclOperation.READ),
+                acl("User:analytics", ResourceType.TOPIC, "payments", AclOperation.READ)
+        ]
+
+        File exportFile = File.createTempFile("export", ".yaml")
+        exportFile.deleteOnExit()
+        exportFile.withWriter { new ExportManager(kafkaService).export(it) }
+
+        when:
+        DesiredStateFile stateFile = new StateManager(managerConfig(exportFile), new ParserService(exportFile)).getAndValidateStateFile()
+
+        then:
+        stateFile.topics.keySet() == ["orders", "payments"] as Set
+        stateFile.topics["orders"].partitions == 2
+        stateFile.topics["orders"].replication.get() == 3
+        stateFile.topics["orders"].configs == ["retention.ms": "3600000"]
+        stateFile.topics["payments"].configs.isEmpty()
+        stateFile.users.keySet() == ["analytics", "orders-service"] as Set
+        stateFile.users["orders-service"].principal.get() == "User:orders-service"
+        stateFile.customUserAcls.keySet() == ["analytics", "orders-service"] as Set
+        stateFile.customUserAcls["orders-service"].size() == 2
+        stateFile.customUserAcls["orders-service"]["orders-service-1"].type == "GROUP"
+        stateFile.customUserAcls["orders-service"]["orders-service-1"].operation == "READ"
+        stateFile.customUserAcls["analytics"]["analytics-0"].name == "payments"
+    }
+
+    private static TopicDescription describeTopic(String name) {
+        List<Node> replicas = [new Node(1, "broker-1", 9092), new Node(2, "broker-2", 9092), new Node(3, "broker-3", 9092)]
+        return new TopicDescription(name, false, [
+                new TopicPartitionInfo(0, replicas[0], replicas, replicas),
+                new TopicPartitionInfo(1, replicas[1], replicas, replicas)
+        ])
+    }
+
+    private static AclBinding acl(String principal, ResourceType type, String name, AclOperation operation) {
+        return new AclBinding(new ResourcePattern(type, name, PatternType.LITERAL),
+                new AccessControlEntry(principal, "*", operation, AclPermissionType.ALLOW))
+    }
+
+    private static ManagerConfig managerConfig(File stateFile) {
+        return new ManagerConfig.Builder()
+                .setVerboseRequested(false)
+                .setDeleteDisabled(false)
+                .setIncludeUnchangedEnabled(false)
+                .setStateFile(stateFile)
+                .build()
+    }
+}
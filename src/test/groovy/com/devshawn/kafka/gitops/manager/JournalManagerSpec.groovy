@@ -0,0 +1,62 @@
+package com.devshawn.kafka.gitops.manager
+
+import com.devshawn.kafka.gitops.domain.plan.ApplyJournal
+import com.devshawn.kafka.gitops.domain.plan.JournalEntry
+import com.devshawn.kafka.gitops.domain.plan.PlanShard
+import com.devshawn.kafka.gitops.enums.PlanAction
+import com.devshawn.kafka.gitops.exception.ValidationException
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module
+import spock.lang.Specification
+
+class JournalManagerSpec extends Specification {
+
+    JournalManager journalManager = new JournalManager(new ObjectMapper().registerModule(new Jdk8Module()))
+
+    void 'test merges shard journals and reports errors and missing shards'() {
+        setup:
+        ApplyJournal first = journal(1, 3, 2, ["topic-a", "topic-b"], [])
+        ApplyJournal second = journal(2, 3, 2, ["topic-c"], ["Error thrown when creating topic"])
+
+        when:
+        ApplyJournal result = journalManager.merge([second, first])
+
+        then:
+        !result.shard.isPresent()
+        result.plannedChanges == 4
+        result.applied*.name == ["topic-a", "topic-b", "topic-c"]
+        result.errors == ["[shard 2/3] Error thrown when creating topic", "[shard 3/3] No journal was found."]
+    }
+
+    void 'test journals of different shard counts cannot be merged'() {
+        when:
+        journalManager.merge([journal(1, 2, 0, [], []), journal(2, 3, 0, [], [])])
+
+        then:
+        thrown(ValidationException)
+    }
+
+    void 'test journal round trip'() {
+        setup:
+        File file = File.createTempFile("journal", ".json")
+        file.deleteOnExit()
+        ApplyJournal journal = journal(1, 2, 1, ["topic-a"], [])
+
+        when:
+        journalManager.writeJournalToFile(journal, file)
+
+        then:
+        journalManager.readJournalFromFile(file) == journal
+    }
+
+    private static ApplyJournal journal(int index, int count, long planned, List<String> topics, List<String> errors) {
+        ApplyJournal.Builder journal = new ApplyJournal.Builder()
+                .setShard(new PlanShard.Builder().setIndex(index).setCount(count).build())
+                .setPlannedChanges(planned)
+                .addAllErrors(errors)
+        topics.each {
+            journal.addApplied(new JournalEntry.Builder().setResource("topic").setName(it).setAction(PlanAction.ADD).build())
+        }
+        return journal.build()
+    }
+}
@@ -0,0 +1,126 @@
+package com.devshawn.kafka.gitops.manager
+
+import com.devshawn.kafka.gitops.domain.lease.ApplyLease
+import com.devshawn.kafka.gitops.domain.plan.DesiredPlan
+import com.devshawn.kafka.gitops.domain.plan.TopicPlan
+import com.devshawn.kafka.gitops.enums.PlanAction
+import com.devshawn.kafka.gitops.exception.LeaseUnavailableException
+import com.devshawn.kafka.gitops.service.LeaseService
+import spock.lang.Specification
+
+class LeaseManagerSpec extends Specification {
+
+    LeaseService leaseService = Mock(LeaseService, constructorArgs: [null, null, "leases"])
+
+    void 'test acquires a lease when held leases are disjoint and releases it'() {
+        setup:
+        LeaseManager leaseManager = new LeaseManager(leaseService, "runner", 0)
+        leaseService.readLeases() >> [lease("other", ["topic:b"], 1)]
+
+        when:
+        ApplyLease result = leaseManager.acquire(["topic:a"] as Set)
+        leaseManager.release()
+
+        then:
+        1 * leaseService.writeLease({ it.resources == ["topic:a"] as Set && it.owner == "runner" }) >> 4L
+        result.acquiredOffset.get() == 4L
+        1 * leaseService.deleteLease(result.id)
+        1 * leaseService.close()
+    }
+
+    void 'test fails fast when an overlapping lease is held'() {
+        setup:
+        LeaseManager leaseManager = new LeaseManager(leaseService, "runner", 0)
+        leaseService.readLeases() >> [lease("other", ["topic:a", "topic:b"], 1)]
+
+        when:
+        leaseManager.acquire(["topic:a"] as Set)
+
+        then:
+        LeaseUnavailableException ex = thrown(LeaseUnavailableException)
+        ex.message.contains("lease other held by ci")
+        0 * leaseService.writeLease(_)
+    }
+
+    void 'test withdraws when an overlapping lease was written first'() {
+        setup:
+        LeaseManager leaseManager = new LeaseManager(leaseService, "runner", 0)
+        leaseService.readLeases() >>> [[], [lease("other", ["topic:a"], 3)]]
+        leaseService.writeLease(_) >> 5L
+
+        when:
+        leaseManager.acquire(["topic:a"] as Set)
+
+        then:
+        thrown(LeaseUnavailableException)
+        1 * leaseService.deleteLease(_)
+    }
+
+    void 'test expired leases are ignored'() {
+        setup:
+        LeaseManager leaseManager = new LeaseManager(leaseService, "runner", 0)
+        ApplyLease expired = new ApplyLease.Builder().mergeFrom(lease("other", ["topic:a"], 1)).setExpiresAt(0).build()
+        leaseService.readLeases() >> [expired]
+        leaseService.writeLease(_) >> 2L
+
+        when:
+        ApplyLease result = leaseManager.acquire(["topic:a"] as Set)
+        leaseManager.release()
+
+        then:
+        result.acquiredOffset.get() == 2L
+    }
+
+    void 'test a lease is lost when it cannot be renewed'() {
+        setup:
+        LeaseManager leaseManager = new LeaseManager(leaseService, "runner", 0)
+        leaseService.readLeases() >> []
+        leaseService.writeLease(_) >> 7L >> { throw new IllegalStateException("broker unavailable") }
+        ApplyLease result = leaseManager.acquire(["topic:a"] as Set)
+
+        when:
+        leaseManager.checkLease()
+
+        then:
+        noExceptionThrown()
+
+        when:
+        leaseManager.renew()
+
+        then:
+        thrown(LeaseUnavailableException)
+
+        when:
+        leaseManager.checkLease()
+
+        then:
+        LeaseUnavailableException ex = thrown(LeaseUnavailableException)
+        ex.message == "The apply lease was lost: failed to renew lease ${result.id}: broker unavailable".toString()
+
+        cleanup:
+        leaseManager.release()
+    }
+
+    void 'test leased resources only include changes'() {
+        setup:
+        DesiredPlan desiredPlan = new DesiredPlan.Builder()
+                .addTopicPlans(new TopicPlan.Builder().setName("added").setAction(PlanAction.ADD).build())
+                .addTopicPlans(new TopicPlan.Builder().setName("unchanged").setAction(PlanAction.NO_CHANGE).build())
+                .addTopicPlans(new TopicPlan.Builder().setName("removed").setAction(PlanAction.REMOVE).build())
+                .build()
+
+        expect:
+        LeaseManager.getLeasedResources(desiredPlan, false) == ["topic:added", "topic:removed"] as Set
+        LeaseManager.getLeasedResources(desiredPlan, true) == ["topic:added"] as Set
+    }
+
+    private static ApplyLease lease(String id, List<String> resources, long offset) {
+        return new ApplyLease.Builder()
+                .setId(id)
+                .setOwner("ci")
+                .addAllResources(resources)
+                .setExpiresAt(System.currentTimeMillis() + 60000)
+                .setAcquiredOffset(offset)
+                .build()
+    }
+}
@@ -0,0 +1,281 @@
+package com.devshawn.kafka.gitops.manager
+
+import com.devshawn.kafka.gitops.config.ManagerConfig
+import com.devshawn.kafka.gitops.domain.plan.AclPlan
+import com.devshawn.kafka.gitops.domain.plan.DesiredPlan
+import com.devshawn.kafka.gitops.domain.snapshot.ClusterSnapshot
+import com.devshawn.kafka.gitops.domain.plan.QuotaPlan
+import com.devshawn.kafka.gitops.domain.plan.TopicConfigPlan
+import com.devshawn.kafka.gitops.domain.plan.TopicPlan
+import com.devshawn.kafka.gitops.domain.state.AclDetails
+import com.devshawn.kafka.gitops.domain.state.ClientQuota
+import com.devshawn.kafka.gitops.domain.state.DesiredState
+import com.devshawn.kafka.gitops.domain.state.TopicDetails
+import com.devshawn.kafka.gitops.enums.PlanAction
+import com.devshawn.kafka.gitops.service.KafkaService
+import com.devshawn.kafka.gitops.util.PlanUtil
+import com.fasterxml.jackson.databind.ObjectMapper
+import org.apache.kafka.common.ConsumerGroupState
+import org.apache.kafka.common.quota.ClientQuotaEntity
+import spock.lang.Specification
+
+class PlanManagerSpec extends Specification {
+
+    void 'test plan against snapshot'() {
+        setup:
+        ClusterSnapshot snapshot = new ClusterSnapshot.Builder()
+                .setCapturedAt(0)
+                .putTopics("existing-topic", topic(["retention.ms": "1000"]))
+                .putTopics("removed-topic", topic([:]))
+                .addAcls(readAcl("existing-topic"))
+                .addAcls(readAcl("removed-topic"))
+                .build()
+        DesiredState desiredState = new DesiredState.Builder()
+                .putTopics("existing-topic", topic(["retention.ms": "2000"]))
+                .putTopics("new-topic", topic([:]))
+                .putAcls("service-0", readAcl("existing-topic"))
+                .putAcls("service-1", readAcl("new-topic"))
+                .build()
+        PlanManager planManager = new PlanManager(managerConfig(), snapshot, new ObjectMapper())
+        DesiredPlan.Builder builder = new DesiredPlan.Builder()
+
+        when:
+        planManager.planTopics(desiredState, builder)
+        planManager.planAcls(desiredState, builder)
+        DesiredPlan result = builder.build()
+
+        then:
+        result.topicPlans.collectEntries { [it.name, it.action] } == [
+                "existing-topic": PlanAction.UPDATE,
+                "new-topic"     : PlanAction.ADD,
+                "removed-topic" : PlanAction.REMOVE
+        ]
+        result.topicPlans.find { it.name == "existing-topic" }.topicConfigPlans[0].action == PlanAction.UPDATE
+        result.aclPlans.collect { [it.aclDetails.name, it.action] } as Set == [
+                ["existing-topic", PlanAction.NO_CHANGE],
+                ["removed-topic", PlanAction.REMOVE],
+                ["new-topic", PlanAction.ADD]
+        ] as Set
+    }
+
+    void 'test scoped plan ignores topics and ACLs outside of the scope'() {
+        setup:
+        ClusterSnapshot snapshot = new ClusterSnapshot.Builder()
+                .setCapturedAt(0)
+                .putTopics("orders.removed", topic([:]))
+                .putTopics("payments", topic([:]))
+                .addAcls(readAcl("orders.removed"))
+                .addAcls(readAcl("payments"))
+                .build()
+        DesiredState desiredState = new DesiredState.Builder()
+                .putTopics("orders.created", topic([:]))
+                .putAcls("service-0", readAcl("orders.created"))
+                .build()
+        ManagerConfig managerConfig = new ManagerConfig.Builder().mergeFrom(managerConfig()).addScopedTopicPrefixes("orders.").build()
+        PlanManager planManager = new PlanManager(managerConfig, snapshot, new ObjectMapper())
+        DesiredPlan.Builder builder = new DesiredPlan.Builder()
+
+        when:
+        planManager.planTopics(desiredState, builder)
+        planManager.planAcls(desiredState, builder)
+        DesiredPlan result = builder.build()
+
+        then:
+        result.topicPlans.collectEntries { [it.name, it.action] } == [
+                "orders.created": PlanAction.ADD,
+                "orders.removed": PlanAction.REMOVE
+        ]
+        result.aclPlans.collect { [it.aclDetails.name, it.action] } as Set == [
+                ["orders.created", PlanAction.ADD],
+                ["orders.removed", PlanAction.REMOVE]
+        ] as Set
+    }
+
+    void 'test plan quotas'() {
+        setup:
+        KafkaService kafkaService = Stub(KafkaService, constructorArgs: [null])
+        kafkaService.getClientQuotas() >> [
+                (new ClientQuotaEntity([(ClientQuotaEntity.USER): "unchanged"])): ["producer_byte_rate": 1024d],
+                (new ClientQuotaEntity([(ClientQuotaEntity.USER): "changed"]))  : ["producer_byte_rate": 1024d, "request_percentage": 10d],
+                (new ClientQuotaEntity([(ClientQuotaEntity.USER): "removed"]))  : ["consumer_byte_rate": 1024d],
+                (new ClientQuotaEntity([(ClientQuotaEntity.USER): null]))       : ["consumer_byte_rate": 1024d]
+        ]
+        DesiredState desiredState = new DesiredState.Builder()
+                .putQuotas("unchanged", quota("unchanged", ["producer_byte_rate": 1024d]))
+                .putQuotas("changed", quota("changed", ["producer_byte_rate": 2048d]))
+                .putQuotas("added", quota("added", ["consumer_byte_rate": 1024d]))
+                .build()
+        PlanManager planManager = new PlanManager(managerConfig(), kafkaService, new ObjectMapper())
+        DesiredPlan.Builder builder = new DesiredPlan.Builder()
+
+        when:
+        planManager.planQuotas(desiredState, builder)
+        List<QuotaPlan> result = builder.build().quotaPlans
+
+        then:
+        result.collectEntries { [it.user.get(), it.action] } == [
+                "unchanged": PlanAction.NO_CHANGE,
+                "changed"  : PlanAction.UPDATE,
+                "added"    : PlanAction.ADD,
+                "removed"  : PlanAction.REMOVE
+        ]
+        result.find { it.name == "changed" }.quotaConfigPlans.collectEntries { [it.key, it.action] } == [
+                "producer_byte_rate": PlanAction.UPDATE,
+                "request_percentage": PlanAction.REMOVE
+        ]
+    }
+
+    void 'test verify attaches broker errors to topic plans'() {
+        setup:
+        KafkaService kafkaService = Mock(KafkaService, constructorArgs: [null])
+        DesiredPlan desiredPlan = new DesiredPlan.Builder()
+                .addTopicPlans(new TopicPlan.Builder().setName("valid-topic").setAction(PlanAction.ADD).setTopicDetails(topic([:])).build())
+                .addTopicPlans(new TopicPlan.Builder().setName("invalid-topic").setAction(PlanAction.ADD).setTopicDetails(topic(["cleanup.policy": "bad"])).build())
+                .addTopicPlans(new TopicPlan.Builder().setName("updated-topic").setAction(PlanAction.UPDATE)
+                        .addTopicConfigPlans(new TopicConfigPlan.Builder().setKey("retention.ms").setValue("-5").setAction(PlanAction.UPDATE).build())
+                        .build())
+                .addTopicPlans(new TopicPlan.Builder().setName("removed-topic").setAction(PlanAction.REMOVE).build())
+                .build()
+        PlanManager planManager = new PlanManager(managerConfig(), kafkaService, new ObjectMapper())
+
+        when:
+        DesiredPlan result = planManager.verifyTopicPlans(desiredPlan)
+
+        then:
+        1 * kafkaService.validateCreateTopics({ it.keySet() == ["valid-topic", "invalid-topic"] as Set }) >> ["invalid-topic": "Invalid value bad"]
+        1 * kafkaService.validateTopicConfigs({ it.size() == 1 }) >> ["updated-topic": "Invalid value -5"]
+        0 * kafkaService._
+        PlanUtil.getVerificationErrors(result) == ["invalid-topic": "Invalid value bad", "updated-topic": "Invalid value -5"]
+        !result.topicPlans.find { it.name == "valid-topic" }.verificationError.isPresent()
+    }
+
+    void 'test only empty groups of removed group ACLs are planned for removal'() {
+        setup:
+        KafkaService kafkaService = Mock(KafkaService, constructorArgs: [null])
+        DesiredState desiredState = new DesiredState.Builder()
+                .putAcls("kept-0", groupAcl("kept-group", "LITERAL"))
+                .putAcls("prefixed-0", groupAcl("streams-", "PREFIXED"))
+                .build()
+        DesiredPlan.Builder desiredPlan = new DesiredPlan.Builder()
+                .addAclPlans(removedAcl(groupAcl("orphaned-group", "LITERAL")))
+                .addAclPlans(removedAcl(groupAcl("active-group", "LITERAL")))
+                .addAclPlans(removedAcl(groupAcl("missing-group", "LITERAL")))
+                .addAclPlans(removedAcl(groupAcl("unavailable-group", "LITERAL")))
+                .addAclPlans(removedAcl(groupAcl("streams-app", "LITERAL")))
+                .addAclPlans(removedAcl(groupAcl("kept-group", "LITERAL")))
+                .addAclPlans(removedAcl(groupAcl("*", "LITERAL")))
+                .addAclPlans(removedAcl(readAcl("topic")))
+        PlanManager planManager = new PlanManager(managerConfig(), kafkaService, new ObjectMapper())
+
+        when:
+        planManager.planConsumerGroups(desiredState, desiredPlan)
+
+        then:
+        1 * kafkaService.describeConsumerGroupStates(["active-group", "missing-group", "orphaned-group", "unavailable-group"] as Set) >> [
+                "orphaned-group": ConsumerGroupState.EMPTY,
+                "active-group"  : ConsumerGroupState.STABLE,
+                "missing-group" : ConsumerGroupState.DEAD
+        ]
+        0 * kafkaService._
+        desiredPlan.build().consumerGroupPlans*.name == ["orphaned-group"]
+    }
+
+    void 'test topic removals holding records or assigned to consumers are blocked'() {
+        setup:
+        KafkaService kafkaService = Mock(KafkaService, constructorArgs: [null])
+        DesiredPlan.Builder desiredPlan = new DesiredPlan.Builder()
+                .addTopicPlans(new TopicPlan.Builder().setName("new-topic").setAction(PlanAction.ADD).setTopicDetails(topic([:])).build())
+                .addTopicPlans(new TopicPlan.Builder().setName("empty-topic").setAction(PlanAction.REMOVE).build())
+                .addTopicPlans(new TopicPlan.Builder().setName("full-topic").setAction(PlanAction.REMOVE).build())
+                .addTopicPlans(new TopicPlan.Builder().setName("consumed-topic").setAction(PlanAction.REMOVE).build())
+        PlanManager planManager = new PlanManager(managerConfig(), kafkaService, new ObjectMapper())
+
+        when:
+        planManager.guardTopicDeletions(desiredPlan)
+        DesiredPlan result = desiredPlan.build()
+
+        then:
+        1 * kafkaService.getTopicRecordCounts(["empty-topic", "full-topic", "consumed-topic"]) >> ["empty-topic": 0L, "full-topic": 1200L, "consumed-topic": 0L]
+        1 * kafkaService.getConsumerGroupIds() >> ["orders-app", "billing-app"]
+        1 * kafkaService.getConsumerGroupAssignments(["orders-app", "billing-app"]) >> [
+                "orders-app" : ["consumed-topic", "orders"] as Set,
+                "billing-app": ["invoices"] as Set
+        ]
+        0 * kafkaService._
+        result.topicPlans*.name == ["new-topic", "empty-topic", "full-topic", "consumed-topic"]
+        result.topicPlans.findAll { it.deletionBlocker.isPresent() }.collectEntries { [it.name, it.deletionBlocker.get()] } == [
+                "full-topic"    : "holds 1200 records",
+                "consumed-topic": "assigned to consumer groups orders-app"
+        ]
+        PlanUtil.getOverview(result, false).remove == 1
+    }
+
+    void 'test all topic removals are blocked when a consumer group cannot be described'() {
+        setup:
+        KafkaService kafkaService = Mock(KafkaService, constructorArgs: [null])
+        DesiredPlan.Builder desiredPlan = new DesiredPlan.Builder()
+                .addTopicPlans(new TopicPlan.Builder().setName("empty-topic").setAction(PlanAction.REMOVE).build())
+                .addTopicPlans(new TopicPlan.Builder().setName("other-topic").setAction(PlanAction.REMOVE).build())
+        PlanManager planManager = new PlanManager(managerConfig(), kafkaService, new ObjectMapper())
+
+        when:
+        planManager.guardTopicDeletions(desiredPlan)
+        DesiredPlan result = desiredPlan.build()
+
+        then:
+        1 * kafkaService.getTopicRecordCounts(["empty-topic", "other-topic"]) >> ["empty-topic": 0L, "other-topic": 0L]
+        1 * kafkaService.getConsumerGroupIds() >> ["orders-app", "unavailable-group"]
+        1 * kafkaService.getConsumerGroupAssignments(["orders-app", "unavailable-group"]) >> ["orders-app": [] as Set]
+        0 * kafkaService._
+        result.topicPlans.collectEntries { [it.name, it.deletionBlocker.orElse(null)] } == [
+                "empty-topic": "consumer groups unavailable-group could not be described",
+                "other-topic": "consumer groups unavailable-group could not be described"
+        ]
+        PlanUtil.getOverview(result, false).remove == 0
+    }
+
+    private static ClientQuota quota(String user, Map<String, Double> quotas) {
+        return new ClientQuota.Builder().setUser(user).putAllQuotas(quotas).build()
+    }
+
+    private static ManagerConfig managerConfig() {
+        return new ManagerConfig.Builder()
+                .setVerboseRequested(false)
+                .setDeleteDisabled(false)
+                .setIncludeUnchangedEnabled(false)
+                .setStateFile(new File("state.yaml"))
+                .build()
+    }
+
+    private static TopicDetails topic(Map<String, String> configs) {
+        return new TopicDetails.Builder().setPartitions(1).setReplication(1).putAllConfigs(configs).build()
+    }
+
+    private static AclDetails groupAcl(String group, String pattern) {
+        return new AclDetails.Builder()
+                .setName(group)
+                .setType("GROUP")
+                .setPattern(pattern)
+                .setPrincipal("User:service")
+                .setHost("*")
+                .setOperation("READ")
+                .setPermission("ALLOW")
+                .build()
+    }
+
+    private static AclPlan removedAcl(AclDetails aclDetails) {
+        return new AclPlan.Builder().setName("Unnamed ACL").setAclDetails(aclDetails).setAction(PlanAction.REMOVE).build()
+    }
+
+    private static AclDetails readAcl(String topic) {
+        return new AclDetails.Builder()
+                .setName(topic)
+                .setType("TOPIC")
+                .setPattern("LITERAL")
+                .setPrincipal("User:service")
+                .setHost("*")
+                .setOperation("READ")
+                .setPermission("ALLOW")
+                .build()
+    }
+}
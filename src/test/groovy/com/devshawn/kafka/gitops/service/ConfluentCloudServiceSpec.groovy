@@ -0,0 +1,101 @@
+package com.devshawn.kafka.gitops.service
+
+import com.devshawn.kafka.gitops.domain.confluent.ServiceAccount
+import com.devshawn.kafka.gitops.exception.ConfluentCloudException
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.sun.net.httpserver.HttpServer
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.atomic.AtomicInteger
+
+class ConfluentCloudServiceSpec extends Specification {
+
+    ObjectMapper objectMapper = new ObjectMapper()
+    HttpServer server
+    List<String> created = new CopyOnWriteArrayList<>()
+    List<String> authorizations = new CopyOnWriteArrayList<>()
+    AtomicInteger nextId = new AtomicInteger()
+
+    void setup() {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0)
+        server.createContext("/iam/v2/service-accounts") { exchange ->
+            authorizations.add(exchange.requestHeaders.getFirst("Authorization"))
+            String body
+            int status = 200
+            if (exchange.requestMethod == "GET") {
+                body = exchange.requestURI.query.contains("page_token=2") ? page(["sa-2": "user-alice"], null) : page(["sa-1": "service-a"], "${baseUrl()}/iam/v2/service-accounts?page_size=100&page_token=2")
+            } else {
+                Map request = objectMapper.readValue(exchange.requestBody, Map)
+                created.add(request.display_name as String)
+                if (request.display_name == "broken") {
+                    status = 400
+                    body = '{"errors": [{"detail": "invalid"}]}'
+                } else {
+                    body = objectMapper.writeValueAsString([id: "sa-new-${nextId.incrementAndGet()}".toString(), display_name: request.display_name])
+                }
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8)
+            exchange.sendResponseHeaders(status, bytes.length)
+            exchange.responseBody.write(bytes)
+            exchange.close()
+        }
+        server.start()
+    }
+
+    void cleanup() {
+        server.stop(0)
+    }
+
+    void 'test lists service accounts across pages'() {
+        setup:
+        ConfluentCloudService service = new ConfluentCloudService(objectMapper, baseUrl(), "key", "secret")
+
+        when:
+        List<ServiceAccount> result = service.getServiceAccounts()
+
+        then:
+        result.collect { it.id } == ["sa-1", "sa-2"]
+        result.collect { it.name } == ["service-a", "user-alice"]
+        authorizations.every { it == "Basic a2V5OnNlY3JldA==" }
+    }
+
+    void 'test creates service accounts in parallel'() {
+        setup:
+        ConfluentCloudService service = new ConfluentCloudService(objectMapper, baseUrl(), "key", "secret")
+        List<String> serviceNames = (0..<20).collect { "service-${it}".toString() }
+
+        when:
+        List<ServiceAccount> result = service.createServiceAccounts(serviceNames, ["bob"])
+
+        then:
+        result.size() == 21
+        created as Set == (serviceNames + ["user-bob"]) as Set
+        result.last().name == "user-bob"
+    }
+
+    void 'test reports failed creates together'() {
+        setup:
+        ConfluentCloudService service = new ConfluentCloudService(objectMapper, baseUrl(), "key", "secret")
+
+        when:
+        service.createServiceAccounts(["service-a", "broken"], [])
+
+        then:
+        ConfluentCloudException ex = thrown(ConfluentCloudException)
+        ex.message.startsWith("1 of 2 service accounts could not be created")
+        created as Set == ["service-a", "broken"] as Set
+    }
+
+    private String baseUrl() {
+        return "http://localhost:${server.address.port}".toString()
+    }
+
+    private String page(Map<String, String> accounts, String next) {
+        return objectMapper.writeValueAsString([
+                data    : accounts.collect { id, name -> [id: id, display_name: name] },
+                metadata: next == null ? [:] : [next: next.toString()]
+        ])
+    }
+}
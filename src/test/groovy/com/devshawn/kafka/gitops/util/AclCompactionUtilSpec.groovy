@@ -0,0 +1,83 @@
+package com.devshawn.kafka.gitops.util
+
+import com.devshawn.kafka.gitops.domain.state.AclCompaction
+import com.devshawn.kafka.gitops.domain.state.AclDetails
+import com.devshawn.kafka.gitops.domain.state.DesiredState
+import com.devshawn.kafka.gitops.domain.state.TopicDetails
+import spock.lang.Specification
+
+class AclCompactionUtilSpec extends Specification {
+
+    void 'test compacts topics fully covered by a prefix'() {
+        setup:
+        DesiredState desiredState = buildState(["orders.created", "orders.updated", "payments.created"], [
+                "service-0": readAcl("orders.created"),
+                "service-1": readAcl("orders.updated"),
+                "service-2": readAcl("payments.created")
+        ])
+
+        when:
+        List<AclCompaction> result = AclCompactionUtil.findCompactions(desiredState.acls, AclCompactionUtil.getKnownTopics(desiredState))
+
+        then:
+        result.size() == 1
+        result[0].name == "service-0"
+        result[0].aclDetails.name == "orders."
+        result[0].aclDetails.pattern == "PREFIXED"
+        result[0].replacedAcls == ["service-0", "service-1"]
+
+        when:
+        DesiredState compacted = AclCompactionUtil.applyCompactions(desiredState, result)
+
+        then:
+        compacted.acls.keySet() == ["service-0", "service-2"] as Set
+        compacted.acls["service-0"].name == "orders."
+        compacted.acls["service-2"].name == "payments.created"
+    }
+
+    void 'test does not over-grant to known topics'() {
+        setup:
+        DesiredState desiredState = buildState(["orders.created", "orders.updated", "orders.deleted"], [
+                "service-0": readAcl("orders.created"),
+                "service-1": readAcl("orders.updated")
+        ])
+
+        when:
+        List<AclCompaction> result = AclCompactionUtil.findCompactions(desiredState.acls, AclCompactionUtil.getKnownTopics(desiredState))
+
+        then:
+        result.isEmpty()
+    }
+
+    void 'test only compacts on delimiter boundaries'() {
+        setup:
+        DesiredState desiredState = buildState(["ordersa", "ordersb"], [
+                "service-0": readAcl("ordersa"),
+                "service-1": readAcl("ordersb")
+        ])
+
+        when:
+        List<AclCompaction> result = AclCompactionUtil.findCompactions(desiredState.acls, AclCompactionUtil.getKnownTopics(desiredState))
+
+        then:
+        result.isEmpty()
+    }
+
+    private static DesiredState buildState(List<String> topics, Map<String, AclDetails> acls) {
+        DesiredState.Builder builder = new DesiredState.Builder().putAllAcls(acls)
+        topics.each { builder.putTopics(it, new TopicDetails.Builder().setPartitions(1).setReplication(1).build()) }
+        return builder.build()
+    }
+
+    private static AclDetails readAcl(String topic) {
+        return new AclDetails.Builder()
+                .setName(topic)
+                .setType("TOPIC")
+                .setPattern("LITERAL")
+                .setPrincipal("User:service")
+                .setHost("*")
+                .setOperation("READ")
+                .setPermission("ALLOW")
+                .build()
+    }
+}
@@ -0,0 +1,61 @@
+package com.devshawn.kafka.gitops.util
+
+import com.devshawn.kafka.gitops.domain.state.AclDetails
+import com.devshawn.kafka.gitops.domain.state.AclDuplicate
+import com.devshawn.kafka.gitops.domain.state.DesiredState
+import spock.lang.Specification
+
+class AclDeduplicationUtilSpec extends Specification {
+
+    void 'test merges identical ACLs and records every source'() {
+        setup:
+        DesiredState desiredState = new DesiredState.Builder()
+                .putAcls("reader-0", groupAcl("User:test", "READ"))
+                .putAcls("reader-1", groupAcl("User:test", "DESCRIBE"))
+                .putAcls("operator-0", groupAcl("User:test", "READ"))
+                .putAcls("other-0", groupAcl("User:other", "READ"))
+                .build()
+
+        when:
+        List<AclDuplicate> result = AclDeduplicationUtil.findDuplicates(desiredState.acls)
+
+        then:
+        result.size() == 1
+        result[0].name == "reader-0"
+        result[0].sourceNames == ["reader-0", "operator-0"]
+
+        when:
+        DesiredState deduplicated = AclDeduplicationUtil.removeDuplicates(desiredState, result)
+
+        then:
+        deduplicated.acls.keySet() == ["reader-0", "reader-1", "other-0"] as Set
+        deduplicated.aclSourceNames == ["reader-0": ["reader-0", "operator-0"]]
+    }
+
+    void 'test leaves state without duplicates unchanged'() {
+        setup:
+        DesiredState desiredState = new DesiredState.Builder()
+                .putAcls("reader-0", groupAcl("User:test", "READ"))
+                .putAcls("other-0", groupAcl("User:other", "READ"))
+                .build()
+
+        when:
+        List<AclDuplicate> result = AclDeduplicationUtil.findDuplicates(desiredState.acls)
+
+        then:
+        result.isEmpty()
+        AclDeduplicationUtil.removeDuplicates(desiredState, result).is(desiredState)
+    }
+
+    private static AclDetails groupAcl(String principal, String operation) {
+        return new AclDetails.Builder()
+                .setName("*")
+                .setType("GROUP")
+                .setPattern("LITERAL")
+                .setPrincipal(principal)
+                .setHost("*")
+                .setOperation(operation)
+                .setPermission("ALLOW")
+                .build()
+    }
+}
@@ -0,0 +1,59 @@
+package com.devshawn.kafka.gitops.util
+
+import com.devshawn.kafka.gitops.domain.state.AclDetails
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class AclIndexSpec extends Specification {
+
+    AclIndex aclIndex = new AclIndex([
+            acl("User:reader", "TOPIC", "LITERAL", "orders", "READ", "ALLOW"),
+            acl("User:reader", "TOPIC", "PREFIXED", "payments.", "READ", "ALLOW"),
+            acl("User:reader", "TOPIC", "LITERAL", "payments.secret", "READ", "DENY"),
+            acl("User:writer", "TOPIC", "LITERAL", "*", "WRITE", "ALLOW"),
+            acl("User:*", "GROUP", "LITERAL", "*", "READ", "ALLOW")
+    ])
+
+    @Unroll
+    void 'test isAllowed - #principal #operation #type #resource'() {
+        expect:
+        aclIndex.isAllowed(principal, type, resource, operation, Optional.empty()) == expected
+
+        where:
+        principal     | type    | resource          | operation  | expected
+        "User:reader" | "TOPIC" | "orders"          | "READ"     | true
+        "User:reader" | "TOPIC" | "orders"          | "DESCRIBE" | true
+        "User:reader" | "TOPIC" | "orders"          | "WRITE"    | false
+        "User:reader" | "TOPIC" | "payments.in"     | "READ"     | true
+        "User:reader" | "TOPIC" | "payments"        | "READ"     | false
+        "User:reader" | "TOPIC" | "payments.secret" | "READ"     | false
+        "User:writer" | "TOPIC" | "anything"        | "WRITE"    | true
+        "User:other"  | "GROUP" | "my-group"        | "READ"     | true
+        "User:other"  | "TOPIC" | "orders"          | "READ"     | false
+    }
+
+    void 'test getAllowedPrincipals'() {
+        expect:
+        aclIndex.getAllowedPrincipals("TOPIC", "payments.in", "DESCRIBE", Optional.empty()) == ["User:reader", "User:writer"] as SortedSet
+        aclIndex.getAllowedPrincipals("TOPIC", "payments.secret", "READ", Optional.empty()).isEmpty()
+    }
+
+    void 'test getAclsForPrincipal'() {
+        expect:
+        aclIndex.getAclsForPrincipal("User:reader").size() == 3
+        aclIndex.getAclsForPrincipal("User:unknown").isEmpty()
+        aclIndex.size() == 5
+    }
+
+    private static AclDetails acl(String principal, String type, String pattern, String name, String operation, String permission) {
+        return new AclDetails.Builder()
+                .setName(name)
+                .setType(type)
+                .setPattern(pattern)
+                .setPrincipal(principal)
+                .setHost("*")
+                .setOperation(operation)
+                .setPermission(permission)
+                .build()
+    }
+}
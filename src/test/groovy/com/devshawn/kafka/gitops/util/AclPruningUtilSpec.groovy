@@ -0,0 +1,62 @@
+package com.devshawn.kafka.gitops.util
+
+import com.devshawn.kafka.gitops.domain.state.AclDetails
+import com.devshawn.kafka.gitops.domain.state.DesiredState
+import com.devshawn.kafka.gitops.domain.state.RedundantAcl
+import spock.lang.Specification
+
+class AclPruningUtilSpec extends Specification {
+
+    void 'test finds ACLs covered by wildcard and prefixed ACLs'() {
+        setup:
+        DesiredState desiredState = new DesiredState.Builder()
+                .putAcls("reader-0", acl("User:reader", "LITERAL", "*", "READ", "ALLOW"))
+                .putAcls("service-0", acl("User:reader", "LITERAL", "orders", "READ", "ALLOW"))
+                .putAcls("service-1", acl("User:reader", "LITERAL", "orders", "WRITE", "ALLOW"))
+                .putAcls("writer-0", acl("User:writer", "PREFIXED", "payments.", "WRITE", "ALLOW"))
+                .putAcls("writer-1", acl("User:writer", "PREFIXED", "payments.eu.", "WRITE", "ALLOW"))
+                .putAcls("writer-2", acl("User:writer", "LITERAL", "payments.us", "WRITE", "ALLOW"))
+                .putAcls("writer-3", acl("User:writer", "LITERAL", "refunds", "WRITE", "ALLOW"))
+                .build()
+
+        when:
+        List<RedundantAcl> result = AclPruningUtil.findRedundantAcls(desiredState.acls)
+
+        then:
+        result.collectEntries { [it.name, it.coveredBy] } == [
+                "service-0": "reader-0",
+                "writer-1" : "writer-0",
+                "writer-2" : "writer-0"
+        ]
+
+        when:
+        DesiredState pruned = AclPruningUtil.removeRedundantAcls(desiredState, result)
+
+        then:
+        pruned.acls.keySet() == ["reader-0", "service-1", "writer-0", "writer-3"] as Set
+    }
+
+    void 'test keeps ACLs of principals with deny rules'() {
+        setup:
+        DesiredState desiredState = new DesiredState.Builder()
+                .putAcls("reader-0", acl("User:reader", "LITERAL", "*", "READ", "ALLOW"))
+                .putAcls("reader-1", acl("User:reader", "LITERAL", "secret", "READ", "DENY"))
+                .putAcls("service-0", acl("User:reader", "LITERAL", "orders", "READ", "ALLOW"))
+                .build()
+
+        expect:
+        AclPruningUtil.findRedundantAcls(desiredState.acls).isEmpty()
+    }
+
+    private static AclDetails acl(String principal, String pattern, String name, String operation, String permission) {
+        return new AclDetails.Builder()
+                .setName(name)
+                .setType("TOPIC")
+                .setPattern(pattern)
+                .setPrincipal(principal)
+                .setHost("*")
+                .setOperation(operation)
+                .setPermission(permission)
+                .build()
+    }
+}
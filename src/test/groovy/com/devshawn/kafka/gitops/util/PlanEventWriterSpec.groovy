@@ -0,0 +1,62 @@
+package com.devshawn.kafka.gitops.util
+
+import com.devshawn.kafka.gitops.domain.plan.DesiredPlan
+import com.devshawn.kafka.gitops.domain.plan.TopicPlan
+import com.devshawn.kafka.gitops.enums.PlanAction
+import com.fasterxml.jackson.databind.ObjectMapper
+import spock.lang.Specification
+
+class PlanEventWriterSpec extends Specification {
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream()
+    PrintStream oldOut
+
+    void setup() {
+        oldOut = System.out
+        System.setOut(new PrintStream(out))
+    }
+
+    void cleanup() {
+        System.setOut(oldOut)
+    }
+
+    void 'test writes one plan event per line followed by a summary'() {
+        setup:
+        DesiredPlan desiredPlan = new DesiredPlan.Builder()
+                .addTopicPlans(new TopicPlan.Builder().setName("new-topic").setAction(PlanAction.ADD).build())
+                .addTopicPlans(new TopicPlan.Builder().setName("old-topic").setAction(PlanAction.REMOVE).build())
+                .build()
+
+        when:
+        BufferedOutput output = BufferedOutput.install()
+        PlanEventWriter.writePlan(desiredPlan, false, Optional.of("us-east"))
+        output.close()
+        List<Map> events = out.toString().readLines().collect { new ObjectMapper().readValue(it, Map) }
+
+        then:
+        events.size() == 3
+        events[0].event == "plan"
+        events[0].cluster == "us-east"
+        events[0].resource == "topic"
+        events[0].name == "new-topic"
+        events[0].action == "ADD"
+        events[0].plan.name == "new-topic"
+        events[1].name == "old-topic"
+        events[2] == [event: "plan-summary", cluster: "us-east", add: 1, update: 0, remove: 1, noChange: 0]
+        !out.toString().contains("\u001B[")
+    }
+
+    void 'test apply events are flushed immediately'() {
+        setup:
+        BufferedOutput output = BufferedOutput.install()
+
+        when:
+        PlanEventWriter.writeApplied("acl", "service-0", PlanAction.ADD, Optional.empty())
+
+        then:
+        out.toString().trim() == '{"event":"applied","resource":"acl","name":"service-0","action":"ADD"}'
+
+        cleanup:
+        output.close()
+    }
+}
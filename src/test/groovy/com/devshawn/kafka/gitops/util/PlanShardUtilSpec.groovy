@@ -0,0 +1,77 @@
+package com.devshawn.kafka.gitops.util
+
+import com.devshawn.kafka.gitops.domain.plan.AclPlan
+import com.devshawn.kafka.gitops.domain.plan.DesiredPlan
+import com.devshawn.kafka.gitops.domain.plan.PlanShard
+import com.devshawn.kafka.gitops.domain.plan.TopicPlan
+import com.devshawn.kafka.gitops.domain.state.AclDetails
+import com.devshawn.kafka.gitops.enums.PlanAction
+import com.devshawn.kafka.gitops.exception.ValidationException
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class PlanShardUtilSpec extends Specification {
+
+    void 'test shards partition the plan and keep topic ACLs with their topic'() {
+        setup:
+        DesiredPlan.Builder builder = new DesiredPlan.Builder()
+        (0..<200).each {
+            builder.addTopicPlans(new TopicPlan.Builder().setName("topic-${it}").setAction(PlanAction.ADD).build())
+            builder.addAclPlans(aclPlan("topic-${it}"))
+        }
+        DesiredPlan desiredPlan = builder.build()
+
+        when:
+        List<DesiredPlan> shards = (1..4).collect { PlanShardUtil.getShardPlan(desiredPlan, shard(it, 4)) }
+
+        then:
+        shards.sum { it.topicPlans.size() } == 200
+        shards.sum { it.aclPlans.size() } == 200
+        shards.every { it.topicPlans.size() > 20 }
+        shards.every { it.topicPlans*.name as Set == it.aclPlans*.aclDetails*.name as Set }
+    }
+
+    void 'test adding a shard only moves entries to the new shard'() {
+        when:
+        List<String> keys = (0..<1000).collect { "topic-${it}".toString() }
+        List<String> moved = keys.findAll { PlanShardUtil.getShardIndex(it, 4) != PlanShardUtil.getShardIndex(it, 5) }
+
+        then:
+        moved.every { PlanShardUtil.getShardIndex(it, 5) == 5 }
+        moved.size() < 300
+    }
+
+    @Unroll
+    void 'test parse - #value'() {
+        when:
+        PlanShardUtil.parse(value)
+
+        then:
+        thrown(ValidationException)
+
+        where:
+        value << ["0/4", "5/4", "1", "a/b", "1/0"]
+    }
+
+    void 'test parse'() {
+        expect:
+        PlanShardUtil.parse("2/4") == shard(2, 4)
+    }
+
+    private static PlanShard shard(int index, int count) {
+        return new PlanShard.Builder().setIndex(index).setCount(count).build()
+    }
+
+    private static AclPlan aclPlan(String topic) {
+        AclDetails aclDetails = new AclDetails.Builder()
+                .setName(topic)
+                .setType("TOPIC")
+                .setPattern("LITERAL")
+                .setPrincipal("User:service")
+                .setHost("*")
+                .setOperation("READ")
+                .setPermission("ALLOW")
+                .build()
+        return new AclPlan.Builder().setName(topic).setAclDetails(aclDetails).setAction(PlanAction.ADD).build()
+    }
+}
@@ -0,0 +1,76 @@
+package com.devshawn.kafka.gitops.util
+
+import com.devshawn.kafka.gitops.domain.plan.AclPlan
+import com.devshawn.kafka.gitops.domain.plan.DesiredPlan
+import com.devshawn.kafka.gitops.domain.plan.TopicPlan
+import com.devshawn.kafka.gitops.domain.state.AclDetails
+import com.devshawn.kafka.gitops.enums.PlanAction
+import spock.lang.Specification
+
+class PlanStatisticsSpec extends Specification {
+
+    void 'test counts actions and breakdowns in one pass'() {
+        setup:
+        DesiredPlan desiredPlan = new DesiredPlan.Builder()
+                .addTopicPlans(topicPlan("orders.created", PlanAction.ADD))
+                .addTopicPlans(topicPlan("orders.updated", PlanAction.UPDATE))
+                .addTopicPlans(topicPlan("payments", PlanAction.REMOVE))
+                .addTopicPlans(topicPlan("unchanged", PlanAction.NO_CHANGE))
+                .addAclPlans(aclPlan("User:a", "TOPIC", "orders.created", PlanAction.ADD))
+                .addAclPlans(aclPlan("User:a", "GROUP", "group", PlanAction.REMOVE))
+                .addAclPlans(aclPlan("User:b", "TOPIC", "payments", PlanAction.NO_CHANGE))
+                .build()
+
+        when:
+        PlanStatistics result = PlanStatistics.of(desiredPlan, false)
+
+        then:
+        result.overview.add == 2
+        result.overview.update == 1
+        result.overview.remove == 2
+        result.overview.noChange == 2
+        result.changeCount == 5
+        result.getOverview(PlanStatistics.Category.TOPIC).add == 1
+        result.getOverview(PlanStatistics.Category.ACL).remove == 1
+        result.byPrincipal.keySet() == ["User:a"] as Set
+        result.byPrincipal["User:a"].add == 1
+        result.byPrincipal["User:a"].remove == 1
+        result.byResourceType.keySet() == ["TOPIC", "GROUP"] as Set
+        result.byTopicPrefix["orders."].add == 2
+        result.byTopicPrefix["orders."].update == 1
+        result.byTopicPrefix["payments"].remove == 1
+    }
+
+    void 'test removals are not counted when deletes are disabled'() {
+        setup:
+        DesiredPlan desiredPlan = new DesiredPlan.Builder()
+                .addTopicPlans(topicPlan("topic", PlanAction.REMOVE))
+                .addAclPlans(aclPlan("User:a", "TOPIC", "topic", PlanAction.REMOVE))
+                .build()
+
+        when:
+        PlanStatistics result = PlanStatistics.of(desiredPlan, true)
+
+        then:
+        result.changeCount == 0
+        result.byPrincipal.isEmpty()
+        result.byTopicPrefix.isEmpty()
+    }
+
+    private static TopicPlan topicPlan(String name, PlanAction action) {
+        return new TopicPlan.Builder().setName(name).setAction(action).build()
+    }
+
+    private static AclPlan aclPlan(String principal, String type, String name, PlanAction action) {
+        AclDetails aclDetails = new AclDetails.Builder()
+                .setName(name)
+                .setType(type)
+                .setPattern("LITERAL")
+                .setPrincipal(principal)
+                .setHost("*")
+                .setOperation("READ")
+                .setPermission("ALLOW")
+                .build()
+        return new AclPlan.Builder().setName(name).setAclDetails(aclDetails).setAction(action).build()
+    }
+}
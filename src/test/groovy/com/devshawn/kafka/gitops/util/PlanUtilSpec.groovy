@@ -0,0 +1,25 @@
+package com.devshawn.kafka.gitops.util
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class PlanUtilSpec extends Specification {
+
+    @Unroll
+    void 'test getClusterPlanFile - #planFile'() {
+        when:
+        File result = PlanUtil.getClusterPlanFile(new File(planFile), "us-east")
+
+        then:
+        result.name == clusterFileName
+        result.parentFile == new File(planFile).absoluteFile.parentFile
+
+        where:
+        planFile            | clusterFileName
+        "plan.json"         | "plan.us-east.json"
+        "plans/plan.json"   | "plan.us-east.json"
+        "plan.v2.json"      | "plan.v2.us-east.json"
+        "plan"              | "plan.us-east"
+        ".plan"             | ".plan.us-east"
+    }
+}
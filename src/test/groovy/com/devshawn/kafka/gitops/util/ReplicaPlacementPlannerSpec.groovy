@@ -0,0 +1,60 @@
+package com.devshawn.kafka.gitops.util
+
+import com.devshawn.kafka.gitops.domain.cluster.BrokerLoad
+import com.devshawn.kafka.gitops.exception.ValidationException
+import spock.lang.Specification
+
+class ReplicaPlacementPlannerSpec extends Specification {
+
+    void 'test replicas are spread across racks and leaders avoid loaded brokers'() {
+        setup:
+        ReplicaPlacementPlanner planner = new ReplicaPlacementPlanner([
+                broker(1, "a", 90, 40),
+                broker(2, "a", 10, 2),
+                broker(3, "b", 10, 3),
+                broker(4, "b", 50, 20),
+                broker(5, "c", 10, 4),
+                broker(6, "c", 60, 30)
+        ])
+
+        when:
+        Map<Integer, List<Integer>> result = planner.assign("orders", 3, 3)
+
+        then:
+        result == [0: [2, 3, 5], 1: [2, 3, 5], 2: [3, 2, 5]]
+        result.values().every { replicas -> replicas.collect { rackOf(it) }.toSet().size() == 3 }
+    }
+
+    void 'test assignments count towards later topics'() {
+        setup:
+        ReplicaPlacementPlanner planner = new ReplicaPlacementPlanner([broker(1, null, 0, 0), broker(2, null, 0, 0), broker(3, null, 0, 0)])
+
+        when:
+        Map<Integer, List<Integer>> first = planner.assign("first", 1, 2)
+        Map<Integer, List<Integer>> second = planner.assign("second", 1, 2)
+
+        then:
+        first == [0: [1, 2]]
+        second == [0: [3, 1]]
+    }
+
+    void 'test replication larger than the cluster is rejected'() {
+        setup:
+        ReplicaPlacementPlanner planner = new ReplicaPlacementPlanner([broker(1, "a", 0, 0), broker(2, "b", 0, 0)])
+
+        when:
+        planner.assign("orders", 1, 3)
+
+        then:
+        ValidationException ex = thrown(ValidationException)
+        ex.message == "Topic orders has a replication factor of 3 but only 2 brokers are available for balanced placement."
+    }
+
+    private static String rackOf(int id) {
+        return ["a", "a", "b", "b", "c", "c"][id - 1]
+    }
+
+    private static BrokerLoad broker(int id, String rack, int replicas, int leaders) {
+        return new BrokerLoad.Builder().setId(id).setNullableRack(rack).setReplicas(replicas).setLeaders(leaders).build()
+    }
+}
@@ -0,0 +1,78 @@
+package com.devshawn.kafka.gitops.util
+
+import com.devshawn.kafka.gitops.domain.state.DesiredStateFile
+import com.devshawn.kafka.gitops.domain.state.StateDiff
+import com.devshawn.kafka.gitops.domain.state.TopicDetails
+import com.devshawn.kafka.gitops.domain.state.UserDetails
+import com.devshawn.kafka.gitops.domain.state.service.ApplicationService
+import com.devshawn.kafka.gitops.domain.state.settings.Settings
+import spock.lang.Specification
+
+class StateDiffUtilSpec extends Specification {
+
+    void 'test collects added, changed and removed entries'() {
+        setup:
+        DesiredStateFile base = new DesiredStateFile.Builder()
+                .putTopics("unchanged", topic(1))
+                .putTopics("changed", topic(1))
+                .putTopics("removed", topic(1))
+                .putServices("service-a", service("User:a", "unchanged"))
+                .putServices("service-b", service("User:b", "unchanged"))
+                .putServices("service-c", service("User:c", "unchanged"))
+                .putUsers("alice", user("User:alice"))
+                .build()
+        DesiredStateFile head = new DesiredStateFile.Builder()
+                .putTopics("unchanged", topic(1))
+                .putTopics("changed", topic(6))
+                .putTopics("added", topic(1))
+                .putServices("service-a", service("User:a", "unchanged"))
+                .putServices("service-b", service("User:b2", "changed"))
+                .putUsers("alice", user("User:alice"))
+                .putUsers("bob", user("User:bob"))
+                .build()
+
+        when:
+        StateDiff result = StateDiffUtil.diff(base, head)
+
+        then:
+        !result.fullPlanRequired
+        result.topics == ["changed", "removed", "added"] as Set
+        result.services == ["service-b"] as Set
+        result.users == ["bob"] as Set
+        result.principals == ["User:b", "User:c"] as Set
+    }
+
+    void 'test identical state files have no changes'() {
+        setup:
+        DesiredStateFile state = new DesiredStateFile.Builder()
+                .putTopics("topic", topic(1))
+                .putServices("service-a", service("User:a", "topic"))
+                .build()
+
+        expect:
+        StateDiffUtil.diff(state, new DesiredStateFile.Builder().mergeFrom(state).build()).isEmpty()
+    }
+
+    void 'test settings changes and removed services without a principal require a full plan'() {
+        expect:
+        StateDiffUtil.diff(base, new DesiredStateFile.Builder().build()).fullPlanRequired
+
+        where:
+        base << [
+                new DesiredStateFile.Builder().setSettings(new Settings.Builder().build()).build(),
+                new DesiredStateFile.Builder().putServices("service", new ApplicationService.Builder().build()).build()
+        ]
+    }
+
+    private static TopicDetails topic(int partitions) {
+        return new TopicDetails.Builder().setPartitions(partitions).setReplication(1).build()
+    }
+
+    private static ApplicationService service(String principal, String topic) {
+        return new ApplicationService.Builder().setPrincipal(principal).addConsumes(topic).build()
+    }
+
+    private static UserDetails user(String principal) {
+        return new UserDetails.Builder().setPrincipal(principal).build()
+    }
+}
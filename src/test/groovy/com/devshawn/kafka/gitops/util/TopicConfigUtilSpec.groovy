@@ -0,0 +1,30 @@
+package com.devshawn.kafka.gitops.util
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class TopicConfigUtilSpec extends Specification {
+
+    @Unroll
+    void 'test isEquivalent - #key: #current vs #desired'() {
+        expect:
+        TopicConfigUtil.isEquivalent(key, current, desired) == result
+
+        where:
+        key                               | current          | desired           | result
+        "retention.ms"                    | "1000"           | "1000"            | true
+        "retention.ms"                    | "1000"           | " 1000 "          | true
+        "retention.ms"                    | "1000"           | "2000"            | false
+        "min.cleanable.dirty.ratio"       | "1"              | "1.0"             | true
+        "min.cleanable.dirty.ratio"       | "0.5"            | "0.50"            | true
+        "min.cleanable.dirty.ratio"       | "0.5"            | "0.6"             | false
+        "cleanup.policy"                  | "compact,delete" | "delete, compact" | true
+        "cleanup.policy"                  | "compact"        | "compact,delete"  | false
+        "unclean.leader.election.enable"  | "false"          | "FALSE"           | true
+        "min.insync.replicas"             | "2"              | "02"              | true
+        "retention.ms"                    | "1000"           | "not-a-number"    | false
+        "compression.type"                | "gzip"           | " gzip"           | true
+        "compression.type"                | "gzip"           | "lz4"             | false
+        "retention.ms"                    | "1000"           | null              | false
+    }
+}
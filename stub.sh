@@ -5,5 +5,19 @@ java=java
 if test -n "$JAVA_HOME"; then
     java="$JAVA_HOME/bin/java"
 fi
-exec "$java" -jar $MYSELF "$@"
+java_opts="$KAFKA_GITOPS_JAVA_OPTS"
+# C1-only compilation shortens quick commands but slows down plan and apply on large state files.
+for arg in "$@"; do
+    case "$arg" in
+        validate|help|-h|--help|-V|--version)
+            java_opts="-XX:TieredStopAtLevel=1 $java_opts"
+            break
+            ;;
+    esac
+done
+# SharedArchiveFile is a diagnostic option on Java 8, which then ignores the archive created by a newer runtime.
+if test -f "$MYSELF.jsa"; then
+    java_opts="-XX:+UnlockDiagnosticVMOptions -XX:SharedArchiveFile=$MYSELF.jsa -Xshare:auto $java_opts"
+fi
+exec "$java" $java_opts -cp $MYSELF com.devshawn.kafka.gitops.MainCommand "$@"
 exit 1
\ No newline at end of file